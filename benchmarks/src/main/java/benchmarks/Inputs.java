@@ -0,0 +1,190 @@
+package benchmarks;
+
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generators of benchmark inputs. Every generator takes a seed, so two runs measure identical data.
+ * */
+public final class Inputs {
+    static final long SEED = 42;
+
+    private Inputs() {}
+
+    /**
+     * Shape of generated array
+     * */
+    public enum Distribution {
+        RANDOM,
+        SORTED,
+        REVERSED,
+        // values from a range of size sqrt(n), so every value repeats about sqrt(n) times
+        DUPLICATES
+    }
+
+    /**
+     * Shape of generated graph
+     * */
+    public enum Topology {
+        // square grid, every node is connected to 4 neighbours
+        GRID,
+        // nodes placed uniformly in a square and connected to all nodes within a radius
+        GEOMETRIC,
+        // Barabasi-Albert preferential attachment, few hubs and many low-degree nodes
+        SCALE_FREE
+    }
+
+    static int[] ints(Distribution distribution, int size) {
+        Random random = new Random(SEED);
+        int[] result = new int[size];
+        int range = Math.max(1, (int) Math.sqrt(size));
+        for (int i = 0; i < size; i++) {
+            result[i] = switch (distribution) {
+                case RANDOM -> random.nextInt();
+                case SORTED -> i;
+                case REVERSED -> size - i;
+                case DUPLICATES -> random.nextInt(range);
+            };
+        }
+        return result;
+    }
+
+    static double[] doubles(Distribution distribution, int size) {
+        int[] values = ints(distribution, size);
+        double[] result = new double[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = values[i] / 3.0;
+        }
+        return result;
+    }
+
+    /**
+     * Generated graph together with node coordinates for A*. Weights are never shorter than Euclidean distance
+     * between their ends, so coordinates give admissible heuristic. Scale-free graph has no coordinates.
+     * */
+    record GeneratedGraph(Graph graph, List<Graph.Node> nodes, double[] x, double[] y) {
+        boolean hasCoordinates() {return x != null;}
+    }
+
+    static GeneratedGraph graph(Topology topology, int size) {
+        return switch (topology) {
+            case GRID -> grid(size);
+            case GEOMETRIC -> geometric(size);
+            case SCALE_FREE -> scaleFree(size);
+        };
+    }
+
+    private static GeneratedGraph grid(int size) {
+        Random random = new Random(SEED);
+        int side = Math.max(2, (int) Math.sqrt(size));
+        Graph graph = Graph.create(false);
+        List<Graph.Node> nodes = createNodes(graph, side * side);
+        double[] x = new double[nodes.size()];
+        double[] y = new double[nodes.size()];
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                x[v] = c;
+                y[v] = r;
+                if (c + 1 < side) graph.connectNodes(nodes.get(v), nodes.get(v + 1), 1 + random.nextInt(10));
+                if (r + 1 < side) graph.connectNodes(nodes.get(v), nodes.get(v + side), 1 + random.nextInt(10));
+            }
+        }
+        return new GeneratedGraph(graph, nodes, x, y);
+    }
+
+    private static GeneratedGraph geometric(int size) {
+        Random random = new Random(SEED);
+        double side = Math.sqrt(size);
+        // radius that gives average degree of about 8
+        double radius = Math.sqrt(8 / Math.PI);
+        Graph graph = Graph.create(false);
+        List<Graph.Node> nodes = createNodes(graph, size);
+        double[] x = new double[size];
+        double[] y = new double[size];
+        int cells = Math.max(1, (int) (side / radius));
+        List<List<Integer>> buckets = new ArrayList<>(cells * cells);
+        for (int i = 0; i < cells * cells; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int v = 0; v < size; v++) {
+            x[v] = random.nextDouble() * side;
+            y[v] = random.nextDouble() * side;
+            buckets.get(cell(x[v], radius, cells) * cells + cell(y[v], radius, cells)).add(v);
+        }
+        for (int v = 0; v < size; v++) {
+            int cx = cell(x[v], radius, cells);
+            int cy = cell(y[v], radius, cells);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (cx + dx < 0 || cx + dx >= cells || cy + dy < 0 || cy + dy >= cells) continue;
+                    for (int u : buckets.get((cx + dx) * cells + cy + dy)) {
+                        if (u <= v) continue;
+                        double distance = Math.hypot(x[v] - x[u], y[v] - y[u]);
+                        if (distance <= radius) {
+                            graph.connectNodes(nodes.get(v), nodes.get(u), (int) Math.ceil(distance * 10) + 1);
+                        }
+                    }
+                }
+            }
+        }
+        // weights are in tenths of coordinate unit
+        for (int v = 0; v < size; v++) {
+            x[v] *= 10;
+            y[v] *= 10;
+        }
+        return new GeneratedGraph(graph, nodes, x, y);
+    }
+
+    private static int cell(double coordinate, double radius, int cells) {
+        return Math.min(cells - 1, (int) (coordinate / radius));
+    }
+
+    private static GeneratedGraph scaleFree(int size) {
+        Random random = new Random(SEED);
+        int edgesPerNode = 3;
+        Graph graph = Graph.create(false);
+        List<Graph.Node> nodes = createNodes(graph, size);
+        // every edge end is recorded once, so uniform pick from it is proportional to degree
+        int[] ends = new int[2 * edgesPerNode * size];
+        int endCount = 0;
+        for (int v = 1; v <= Math.min(edgesPerNode, size - 1); v++) {
+            graph.connectNodes(nodes.get(0), nodes.get(v), 1 + random.nextInt(100));
+            ends[endCount++] = 0;
+            ends[endCount++] = v;
+        }
+        for (int v = edgesPerNode + 1; v < size; v++) {
+            for (int k = 0; k < edgesPerNode; k++) {
+                int u = ends[random.nextInt(endCount)];
+                if (u == v || graph.checkAdjacency(nodes.get(v), nodes.get(u))) continue;
+                graph.connectNodes(nodes.get(v), nodes.get(u), 1 + random.nextInt(100));
+                ends[endCount++] = v;
+                ends[endCount++] = u;
+            }
+        }
+        return new GeneratedGraph(graph, nodes, null, null);
+    }
+
+    private static List<Graph.Node> createNodes(Graph graph, int count) {
+        List<Graph.Node> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            nodes.add(graph.createNode());
+        }
+        return nodes;
+    }
+
+    /**
+     * Random pairs of node indices, flattened as [from0, to0, from1, to1, ...]
+     * */
+    static int[] queries(int nodeCount, int count) {
+        Random random = new Random(SEED + 1);
+        int[] result = new int[2 * count];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = random.nextInt(nodeCount);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+import pathfinding.AStar;
+import pathfinding.Dijkstra;
+import pathfinding.PathFinderFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-to-point queries on generated graphs. Query pairs are precomputed and cycled through,
+ * so every invocation is one findPath call.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class PathfindingBenchmark {
+    private static final int QUERIES = 1 << 8;
+
+    @Param({"GRID", "GEOMETRIC", "SCALE_FREE"})
+    Inputs.Topology topology;
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    List<Graph.Node> nodes;
+    Dijkstra dijkstra;
+    AStar aStar;
+    int[] queries;
+    int next;
+
+    @Setup
+    public void setup() {
+        Inputs.GeneratedGraph generated = Inputs.graph(topology, size);
+        nodes = generated.nodes();
+        dijkstra = PathFinderFactory.dijkstra(generated.graph());
+        aStar = PathFinderFactory.aStar(generated.graph());
+        if (generated.hasCoordinates()) {
+            for (int i = 0; i < nodes.size(); i++) {
+                aStar.setCoordinates(nodes.get(i), generated.x()[i], generated.y()[i]);
+            }
+        }
+        queries = Inputs.queries(nodes.size(), QUERIES);
+    }
+
+    @Benchmark
+    public List<Graph.Node> dijkstra() {
+        int q = (next++ & (QUERIES - 1)) * 2;
+        return dijkstra.findPath(nodes.get(queries[q]), nodes.get(queries[q + 1]));
+    }
+
+    @Benchmark
+    public List<Graph.Node> aStar() {
+        int q = (next++ & (QUERIES - 1)) * 2;
+        return aStar.findPath(nodes.get(queries[q]), nodes.get(queries[q + 1]));
+    }
+}
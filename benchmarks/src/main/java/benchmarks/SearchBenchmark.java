@@ -0,0 +1,95 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import search.BinarySearch;
+import search.MinMax;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary search over sorted arrays and linear MinMax scans. Search keys are precomputed and cycled through,
+ * half of them are present in the array.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    private static final int KEYS = 1 << 12;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "DUPLICATES"})
+    Inputs.Distribution distribution;
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    int[] values;
+    double[] doubles;
+    int[] sorted;
+    int[] keys;
+    int[] out;
+    int next;
+
+    @Setup
+    public void setup() {
+        values = Inputs.ints(distribution, size);
+        doubles = Inputs.doubles(distribution, size);
+        sorted = values.clone();
+        Arrays.sort(sorted);
+        Random random = new Random(Inputs.SEED);
+        keys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextBoolean() ? sorted[random.nextInt(size)] : random.nextInt();
+        }
+        out = new int[KEYS];
+    }
+
+    @Benchmark
+    public int binarySearch() {
+        int key = keys[next++ & (KEYS - 1)];
+        return BinarySearch.search(sorted, key);
+    }
+
+    /**
+     * Whole batch of keys per operation, so divide by the number of keys to compare with binarySearch
+     * */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] searchAll() {
+        return BinarySearch.searchAll(sorted, keys, out);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MinMax.ElementInt maxOfInts() {
+        return MinMax.Max.of(values);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MinMax.ElementInt minOfInts() {
+        return MinMax.Min.of(values);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MinMax.ElementInt[] top100OfInts() {
+        return MinMax.Max.topK(values, 100);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MinMax.ElementDouble maxOfDoubles() {
+        return MinMax.Max.of(doubles);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MinMax.ElementDouble minOfDoubles() {
+        return MinMax.Min.of(doubles);
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sort.SelectionSort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting of int arrays with selection sort. It is quadratic, so it runs on smaller sizes than {@link SortBenchmark};
+ * copy cost is measured by {@link #copyOnly()} the same way.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SelectionSortBenchmark {
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "DUPLICATES"})
+    Inputs.Distribution distribution;
+
+    @Param({"100", "1000", "5000"})
+    int size;
+
+    int[] input;
+
+    @Setup
+    public void setup() {
+        input = Inputs.ints(distribution, size);
+    }
+
+    @Benchmark
+    public int[] copyOnly() {
+        return input.clone();
+    }
+
+    @Benchmark
+    public int[] selectionSort() {
+        return SelectionSort.sort(input.clone());
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sort.QuickSort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting of int arrays. Every invocation sorts a fresh copy of the input, so copy cost is part of the result;
+ * {@link #copyOnly()} measures it alone to be subtracted.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "DUPLICATES"})
+    Inputs.Distribution distribution;
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    int[] input;
+
+    @Setup
+    public void setup() {
+        input = Inputs.ints(distribution, size);
+    }
+
+    @Benchmark
+    public int[] copyOnly() {
+        return input.clone();
+    }
+
+    @Benchmark
+    public int[] quickSort() {
+        int[] arr = input.clone();
+        QuickSort.sort(arr, 0, arr.length - 1);
+        return arr;
+    }
+}
@@ -0,0 +1,472 @@
+package graph;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe variant of {@link Graph} for live updates from several threads.
+ * <p>Node and edge IDs are allocated atomically. Adjacency is kept in ConcurrentHashMaps, and every update of edges
+ * that start in a node is done under one of lock stripes chosen by that node, so updates of different nodes run
+ * in parallel and undirected connections are always changed in both directions at once. Updates share no lock and
+ * count themselves in striped counters, so writers of different stripes do not contend on one cache line.
+ * Removing a node and taking a snapshot lock all stripes and so lock out all other updates for a short time.
+ * <p>Single read methods are lock-free and see the latest completed updates. Path queries should run on
+ * {@link #freeze()}, which returns consistent immutable snapshot and is cached until the next update.
+ * Topology changes (nodes and connections) and distance changes are counted separately: after distance-only
+ * changes the next snapshot reuses topology of the cached one and only copies and patches its weight arrays.
+ * {@link #freeze(Duration)} additionally bounds how often snapshots are taken under a constant stream of updates.
+ * <p>Edges are never changed in place: new distance is published by replacing Edge object with the same ID.
+ * */
+public final class ConcurrentGraph {
+    private static final int STRIPES = 64;
+    // Distance changes of one stripe that are patched into next snapshot; beyond that full rebuild is cheaper
+    private static final int MAX_PENDING_WEIGHTS = 1024;
+
+    private final int graphId;
+    private final boolean directed;
+    private final Map<Graph.Node, Map<Graph.Node, Graph.Edge>> nodes = new ConcurrentHashMap<>();
+    private final AtomicInteger lastNodeID = new AtomicInteger();
+    private final AtomicInteger lastEdgeID = new AtomicInteger();
+    // updates lock stripes of nodes they change, node removal and snapshot lock all stripes
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final LongAdder topologyVersion = new LongAdder();
+    private final LongAdder weightVersion = new LongAdder();
+    // Edges whose distance changed since the last snapshot, guarded by stripe of their source node
+    private final List<List<EdgeKey>> pendingWeights = new ArrayList<>(STRIPES);
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(long topologyVersion, long weightVersion, long takenAt, HeapCsrGraph graph) {}
+
+    private record EdgeKey(Graph.Node from, Graph.Node to) {}
+
+    private ConcurrentGraph(boolean directed) {
+        this.graphId = Graph.nextGraphId();
+        this.directed = directed;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+            pendingWeights.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Method that returns new directed instance of type ConcurrentGraph
+     * @return new ConcurrentGraph
+     * */
+    public static ConcurrentGraph create() {
+        return new ConcurrentGraph(true);
+    }
+
+    /**
+     * Overloaded method that returns instance of type ConcurrentGraph based on given graph type (directed or not)
+     * @return new ConcurrentGraph with specified type (directed or not)
+     * */
+    public static ConcurrentGraph create(boolean directed) {
+        return new ConcurrentGraph(directed);
+    }
+
+    /**
+     * Creates and registers new Node in Graph. Returns reference to newly created node.
+     * @return empty Node that has no connection to other Nodes in this Graph
+     * */
+    public Graph.Node createNode() {
+        return createNodeCore("");
+    }
+
+    /**
+     * Creates and registers new Node in Graph. Returns reference to newly created node.
+     * @param name name that will be assigned to given node. Does not affect functionality and for representative purposes only
+     * @return empty Node that has no connection to other Nodes in this Graph
+     * */
+    public Graph.Node createNode(String name) {
+        return createNodeCore(name);
+    }
+
+    private Graph.Node createNodeCore(String nodeName) {
+        Graph.Node newNode = new Graph.Node(lastNodeID.incrementAndGet(), graphId, nodeName);
+        ReentrantLock stripe = stripes[stripeOf(newNode)];
+        stripe.lock();
+        try {
+            nodes.put(newNode, new ConcurrentHashMap<>());
+            topologyVersion.increment();
+        } finally {
+            stripe.unlock();
+        }
+        return newNode;
+    }
+
+    /**
+     * Connects two nodes and setting distance between them.
+     * @param from Starting Node that needs to be connected to the next one
+     * @param to Node to which the 'from' node is pointing (connected)
+     * @param distance integer that describes distance between two nodes (weights)
+     * @throws IllegalArgumentException in multiple cases: Node 'from' points to itself, Node ('from' or 'to') is null and if Node does not belong to current graph
+     * */
+    public void connectNodes(Graph.Node from, Graph.Node to, int distance) {
+        checked(from);
+        checked(to);
+        lockPair(from, to);
+        try {
+            validateNodes(from, to);
+            Graph.Edge forward = new Graph.Edge(distance, to, lastEdgeID.incrementAndGet(), graphId);
+            Graph.Edge backward = directed ? null : new Graph.Edge(distance, from, lastEdgeID.incrementAndGet(), graphId);
+            nodes.get(from).put(to, forward);
+            if (backward != null) {
+                nodes.get(to).put(from, backward);
+            }
+            topologyVersion.increment();
+        } finally {
+            unlockPair(from, to);
+        }
+    }
+
+    /**
+     * Removes specified Node from the graph. Blocks other updates while incoming edges are removed.
+     * @param node Node that needs to be removed
+     * @throws IllegalArgumentException if given node is not from this graph
+     */
+    public void removeNode(Graph.Node node) {
+        lockAll();
+        try {
+            validateNode(node);
+            nodes.remove(node);
+            for (Map<Graph.Node, Graph.Edge> edges : nodes.values()) {
+                edges.remove(node);
+            }
+            topologyVersion.increment();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Removes connection between two nodes
+     * @param from Node that has initial connection
+     * @param to Node that Node 'from' points to
+     * @return boolean depends on the outcome of remove() operation.
+     * @throws IllegalArgumentException if nodes are null or they are not from this graph
+     * */
+    public boolean disconnectNodes(Graph.Node from, Graph.Node to) {
+        if (from == null || to == null) throw new IllegalArgumentException("Node cannot be null");
+        if (from.equals(to)) return false;
+
+        checked(from);
+        checked(to);
+        lockPair(from, to);
+        try {
+            validateNode(from);
+            validateNode(to);
+            boolean removed = nodes.get(from).remove(to) != null;
+            if (!directed) {
+                removed |= nodes.get(to).remove(from) != null;
+            }
+            if (removed) topologyVersion.increment();
+            return removed;
+        } finally {
+            unlockPair(from, to);
+        }
+    }
+
+    /**
+     * Provides method to change distance of two provided Nodes if they are connected
+     * @param from starting node
+     * @param to target node
+     * @param newDistance new distance that has to be changed
+     * @throws IllegalArgumentException if at least one node does not belong to current graph, distance is not positive or nodes are not connected
+     * */
+    public void changeDistanceBetweenNodes(Graph.Node from, Graph.Node to, int newDistance) {
+        if (newDistance <= 0) throw new IllegalArgumentException("Distance cannot be negative or zero");
+        checked(from);
+        checked(to);
+        lockPair(from, to);
+        try {
+            validateNodes(from, to);
+            replaceDistance(from, to, newDistance);
+            if (!directed) {
+                replaceDistance(to, from, newDistance);
+            }
+            weightVersion.increment();
+        } finally {
+            unlockPair(from, to);
+        }
+    }
+
+    /**
+     * Replaces edge with the copy of new distance and remembers it for the next snapshot. Caller holds stripes
+     * of both nodes
+     * */
+    private void replaceDistance(Graph.Node from, Graph.Node to, int newDistance) {
+        Map<Graph.Node, Graph.Edge> edges = nodes.get(from);
+        Graph.Edge edge = edges.get(to);
+        if (edge == null) throw new IllegalArgumentException("No edge from 'from' to 'to'");
+        edges.put(to, edge.withDistance(newDistance));
+
+        List<EdgeKey> pending = pendingWeights.get(stripeOf(from));
+        if (pending.size() < MAX_PENDING_WEIGHTS) {
+            pending.add(new EdgeKey(from, to));
+        } else {
+            // too many edges to patch, next snapshot is rebuilt from scratch
+            pending.clear();
+            topologyVersion.increment();
+        }
+    }
+
+    /**
+     * Creates immutable snapshot of current graph for path queries. Snapshot is taken while no update is running,
+     * and the same snapshot is returned until graph is changed again. If only distances changed since the cached
+     * snapshot, its topology is reused and only weight arrays are copied and patched.
+     * @return CsrGraph with dense node indices that contains all updates completed before the call
+     * */
+    public CsrGraph freeze() {
+        Snapshot cached = snapshot;
+        if (cached != null && isCurrent(cached)) {
+            return cached.graph();
+        }
+        return takeSnapshot(0);
+    }
+
+    /**
+     * Returns cached snapshot if it was taken less than given time ago, even if graph was changed since then.
+     * Otherwise works as {@link #freeze()}. So under constant stream of updates a new snapshot is taken at most
+     * once per given period, and returned snapshot misses at most updates of the last period.
+     * @param maxStaleness how old returned snapshot may be
+     * @return CsrGraph with dense node indices
+     * @throws IllegalArgumentException if maxStaleness is null or negative
+     * */
+    public CsrGraph freeze(Duration maxStaleness) {
+        if (maxStaleness == null || maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("Staleness cannot be null or negative");
+        }
+        long maxAge = maxStaleness.compareTo(Duration.ofNanos(Long.MAX_VALUE)) < 0
+                ? maxStaleness.toNanos()
+                : Long.MAX_VALUE;
+        Snapshot cached = snapshot;
+        if (cached != null && (System.nanoTime() - cached.takenAt() < maxAge || isCurrent(cached))) {
+            return cached.graph();
+        }
+        return takeSnapshot(maxAge);
+    }
+
+    private boolean isCurrent(Snapshot cached) {
+        return cached.topologyVersion() == topologyVersion.sum() && cached.weightVersion() == weightVersion.sum();
+    }
+
+    /**
+     * Takes new snapshot while all stripes are locked, unless another thread has taken fresh enough one meanwhile
+     * @param maxAge how old in nanoseconds the cached snapshot may be to be returned instead, 0 to require current one
+     * */
+    private CsrGraph takeSnapshot(long maxAge) {
+        lockAll();
+        try {
+            Snapshot cached = snapshot;
+            if (cached != null && (System.nanoTime() - cached.takenAt() < maxAge || isCurrent(cached))) {
+                return cached.graph();
+            }
+            long topology = topologyVersion.sum();
+            long weights = weightVersion.sum();
+            HeapCsrGraph graph = cached != null && cached.topologyVersion() == topology
+                    ? patchWeights(cached.graph())
+                    : HeapCsrGraph.build(graphId, nodes);
+            for (List<EdgeKey> pending : pendingWeights) {
+                pending.clear();
+            }
+            snapshot = new Snapshot(topology, weights, System.nanoTime(), graph);
+            return graph;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * @return copy of given snapshot with current distances of all pending edges
+     * */
+    private HeapCsrGraph patchWeights(HeapCsrGraph graph) {
+        int count = 0;
+        for (List<EdgeKey> pending : pendingWeights) {
+            count += pending.size();
+        }
+        int[] from = new int[count];
+        int[] to = new int[count];
+        int[] weight = new int[count];
+        int i = 0;
+        for (List<EdgeKey> pending : pendingWeights) {
+            for (EdgeKey key : pending) {
+                from[i] = graph.indexOf(key.from());
+                to[i] = graph.indexOf(key.to());
+                weight[i] = nodes.get(key.from()).get(key.to()).getDistance();
+                i++;
+            }
+        }
+        return graph.withWeights(from, to, weight, count);
+    }
+
+    /**
+     * Check if two specified nodes are adjacent
+     * @param from Node that needs to be checked for adjacency
+     * @param to Node that needs to be checked for adjacency
+     * @return boolean that indicates whether specified nodes are adjacent
+     * @throws IllegalArgumentException if given node is null or does not belong to current Graph
+     * */
+    public boolean checkAdjacency(Graph.Node from, Graph.Node to) {
+        return edgesOf(from).containsKey(checked(to));
+    }
+
+    /**
+     * Checks the specified node if it has any connection to other nodes
+     * @param node Node that needs to be checked
+     * @return true if specified node has any connection and false if it doesn't
+     * @throws IllegalArgumentException if given node is null or does not belong to current Graph
+     * */
+    public boolean hasConnections(Graph.Node node) {
+        return !edgesOf(node).isEmpty();
+    }
+
+    /**
+     * Returns distance between two given nodes
+     * @param from Node from which the edge goes
+     * @param to Node to which edge from Node 'from' goes
+     * @return int that represents distance between given nodes
+     * @throws IllegalArgumentException if one of two nodes is null, doesn't belong to current Graph or there is no edge
+     * */
+    public int distanceBetween(Graph.Node from, Graph.Node to) {
+        Graph.Edge e = edgesOf(from).get(checked(to));
+        if (e == null) throw new IllegalArgumentException("No edge from 'from' to 'to'");
+        return e.getDistance();
+    }
+
+    /**
+     * Returns live view of all nodes that provided node points to
+     * @param nodeFrom Node for which needs to be return Map of other nodes
+     * @return unmodifiable Map of Nodes and Edges
+     * @throws IllegalArgumentException if given Node is null or does not belong to current Graph
+     * */
+    public Map<Graph.Node, Graph.Edge> pointsTo(Graph.Node nodeFrom) {
+        return Collections.unmodifiableMap(edgesOf(nodeFrom));
+    }
+
+    /**
+     * Returns list that consists of all nodes that are in current Graph
+     * @return List of Nodes
+     * */
+    public List<Graph.Node> asList() {
+        return List.copyOf(nodes.keySet());
+    }
+
+    /**
+     * Check if given Node exists in a Graph
+     * @param node Node that needs to be checked
+     * @return boolean. True if Node exists in current Graph or False if it is not
+     * */
+    public boolean containsNode(Graph.Node node) {
+        if (node == null) return false;
+        if (node.getGraphId() != this.graphId) return false;
+        return nodes.containsKey(node);
+    }
+
+    /**
+     * Returns all Edges of provided Node
+     * @param node node which edges are required to get
+     * @throws IllegalArgumentException if node does not belong to current graph
+     * @return List of all Edges of provided node
+     * */
+    public List<Graph.Edge> getEdgesOfStartNode(Graph.Node node) {
+        return new ArrayList<>(edgesOf(node).values());
+    }
+
+    /**
+     * Retrieves Edge that connects two provided nodes
+     * @param from starting node
+     * @param to target node
+     * @throws IllegalArgumentException if at least one node does not belong to current graph
+     * @return Edge that represents connection between nodes or null if such connection does not exist
+     * */
+    public Graph.Edge getEdgeOfTwoNodes(Graph.Node from, Graph.Node to) {
+        return edgesOf(from).get(checked(to));
+    }
+
+    /**
+     * Returns all Edges that exist for current graph
+     * @return List of all Edges of current Graph
+     * */
+    public List<Graph.Edge> getAllEdges() {
+        return nodes.values().stream()
+                .flatMap(map -> map.values().stream())
+                .toList();
+    }
+
+    private Map<Graph.Node, Graph.Edge> edgesOf(Graph.Node node) {
+        Map<Graph.Node, Graph.Edge> edges = nodes.get(checked(node));
+        if (edges == null) throw new IllegalArgumentException("Node does not belong to this graph");
+        return edges;
+    }
+
+    private Graph.Node checked(Graph.Node node) {
+        if (node == null) throw new IllegalArgumentException("Node cannot be null");
+        if (node.getGraphId() != graphId) throw new IllegalArgumentException("Node does not belong to this graph");
+        return node;
+    }
+
+    /**
+     * Validates node object for null-safety and affiliation to current graph
+     * @param node Node that need to be validated
+     * @throws IllegalArgumentException if node is null or does not belong to current graph
+     * */
+    private void validateNode(Graph.Node node) {
+        if (!containsNode(checked(node))) {
+            throw new IllegalArgumentException("Node does not belong to this graph");
+        }
+    }
+
+    /**
+     * Validates two nodes for null-safety and affiliation to current graph
+     * @throws IllegalArgumentException if node is null, does not belong to current graph or 'from' and 'to' are the same object
+     * */
+    private void validateNodes(Graph.Node from, Graph.Node to) {
+        validateNode(from);
+        validateNode(to);
+        if (from.equals(to)) throw new IllegalArgumentException("Cannot connect one node to itself");
+    }
+
+    private int stripeOf(Graph.Node node) {
+        int h = node.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Locks stripes of both nodes in fixed order, so two threads that lock the same pair can not deadlock
+     * */
+    private void lockPair(Graph.Node a, Graph.Node b) {
+        int first = stripeOf(a);
+        int second = stripeOf(b);
+        stripes[Math.min(first, second)].lock();
+        if (first != second) stripes[Math.max(first, second)].lock();
+    }
+
+    private void unlockPair(Graph.Node a, Graph.Node b) {
+        int first = stripeOf(a);
+        int second = stripeOf(b);
+        if (first != second) stripes[Math.max(first, second)].unlock();
+        stripes[Math.min(first, second)].unlock();
+    }
+
+    /**
+     * Locks all stripes in the same order as {@link #lockPair(Graph.Node, Graph.Node)}
+     * */
+    private void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+}
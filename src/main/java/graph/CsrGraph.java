@@ -0,0 +1,139 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable compressed-sparse-row (CSR) snapshot of a {@link Graph}.
+ * <p>Every node gets a dense index in range [0, nodeCount()). Outgoing edges of node {@code u} occupy
+ * positions [firstEdge(u), endEdge(u)) of the target and weight arrays, so iterating neighbours touches
+ * two contiguous int arrays instead of HashMap buckets. Incoming edges are stored the same way in reverse arrays,
+ * which allows backward searches. Snapshot does not follow later changes of source graph.
+ * <p>There are two implementations: snapshot taken by {@link Graph#freeze()} keeps plain heap arrays, and snapshot
+ * opened by {@link GraphFile#open(java.nio.file.Path)} reads memory-mapped file. Each is a separate final class,
+ * so a process that uses only one of them keeps every call site of pathfinding loops monomorphic.
+ * */
+public sealed interface CsrGraph permits HeapCsrGraph, MappedCsrGraph {
+
+    /**
+     * Creates CSR snapshot of given graph. Same as {@link Graph#freeze()}
+     * @param graph graph that needs to be frozen
+     * @return immutable snapshot of current state of the graph
+     * @throws IllegalArgumentException if graph is null
+     * */
+    static CsrGraph of(Graph graph) {
+        if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+        return graph.freeze();
+    }
+
+    /**
+     * @return number of nodes in snapshot
+     * */
+    int nodeCount();
+
+    /**
+     * @return number of directed edges in snapshot (undirected connection counts as two edges)
+     * */
+    int edgeCount();
+
+    /**
+     * @return ID of the graph this snapshot was taken from
+     * */
+    int getGraphId();
+
+    /**
+     * Returns dense index of given node
+     * @param node node of the source graph
+     * @return index in range [0, nodeCount())
+     * @throws IllegalArgumentException if node is null or was not in the graph when snapshot was taken
+     * */
+    int indexOf(Graph.Node node);
+
+    /**
+     * Check if given node was part of the graph when snapshot was taken
+     * @param node Node that needs to be checked
+     * @return true if node has an index in this snapshot
+     * */
+    boolean containsNode(Graph.Node node);
+
+    /**
+     * Maps dense index back to node of the source graph
+     * @param index index in range [0, nodeCount())
+     * @return Node with given index
+     * */
+    Graph.Node nodeAt(int index);
+
+    /**
+     * Returns all nodes in index order
+     * @return List of Nodes, where position of node equals to its index
+     * */
+    default List<Graph.Node> asList() {
+        int n = nodeCount();
+        List<Graph.Node> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(nodeAt(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @param node index of node
+     * @return position of first outgoing edge of given node
+     * */
+    int firstEdge(int node);
+
+    /**
+     * @param node index of node
+     * @return position right after the last outgoing edge of given node
+     * */
+    int endEdge(int node);
+
+    /**
+     * @param node index of node
+     * @return number of outgoing edges of given node
+     * */
+    default int outDegree(int node) {return endEdge(node) - firstEdge(node);}
+
+    /**
+     * @param edge edge position
+     * @return index of node that edge points to
+     * */
+    int target(int edge);
+
+    /**
+     * @param edge edge position
+     * @return distance (weight) of edge
+     * */
+    int weight(int edge);
+
+    /**
+     * @param node index of node
+     * @return position of first incoming edge of given node in reverse arrays
+     * */
+    int firstInEdge(int node);
+
+    /**
+     * @param node index of node
+     * @return position right after the last incoming edge of given node in reverse arrays
+     * */
+    int endInEdge(int node);
+
+    /**
+     * @param node index of node
+     * @return number of incoming edges of given node
+     * */
+    default int inDegree(int node) {return endInEdge(node) - firstInEdge(node);}
+
+    /**
+     * @param inEdge position of edge in reverse arrays
+     * @return index of node that edge starts from
+     * */
+    int source(int inEdge);
+
+    /**
+     * @param inEdge position of edge in reverse arrays
+     * @return distance (weight) of edge
+     * */
+    int inWeight(int inEdge);
+}
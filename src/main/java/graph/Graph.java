@@ -3,25 +3,55 @@ package graph;
 import org.jspecify.annotations.NonNull;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Implementation of weighted and directional Graph that exposes public methods for Nodes and Edges manipulation
+ * <p>Graph is not thread-safe. For concurrent updates use {@link ConcurrentGraph}
  * */
 public final class Graph {
     private final int graphId;
-    private static int lastGraphID = 0;
-    private final Map<Node, Map<Node, Edge>> nodes = new HashMap<>();
+    private static final AtomicInteger lastGraphID = new AtomicInteger();
+    private final Map<Node, Map<Node, Edge>> nodes;
+    // Optional index of incoming edges: target -> (source -> edge). Null if graph was created without it
+    private final Map<Node, Map<Node, Edge>> incoming;
     private int lastNodeID = 0;
     private int lastEdgeID = 0;
     private final boolean directed;
+    // Number of structural and weight changes, used to tell whether cached snapshot is still current
+    private int modCount = 0;
+    private CsrGraph snapshot;
+    private int snapshotModCount;
 
     private Graph() {
-        this(true, ++lastGraphID);
+        this(true, nextGraphId(), false, 0);
     }
 
-    private Graph(boolean directed, int graphId) {
+    private Graph(boolean directed, int graphId, boolean indexIncoming, int expectedNodes) {
         this.graphId = graphId;
         this.directed = directed;
+        this.nodes = new HashMap<>(capacityFor(expectedNodes));
+        this.incoming = indexIncoming ? new HashMap<>(capacityFor(expectedNodes)) : null;
+    }
+
+    /**
+     * @return initial HashMap capacity that holds given number of entries without rehashing
+     * */
+    private static int capacityFor(int expectedSize) {
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
+    /**
+     * Allocates unique graph ID. Shared by all graph implementations so their nodes never compare equal
+     * @return new graph ID
+     * */
+    static int nextGraphId() {
+        return lastGraphID.incrementAndGet();
     }
 
     /**
@@ -29,7 +59,7 @@ public final class Graph {
      * @return new Graph
      * */
     public static Graph create() {
-        return new Graph(true, ++lastGraphID);
+        return new Graph(true, nextGraphId(), false, 0);
     }
 
     /**
@@ -37,7 +67,32 @@ public final class Graph {
      * @return new Graph with specified type (directed or not)
      * */
     public static Graph create(boolean directed) {
-        return new Graph(directed, ++lastGraphID);
+        return new Graph(directed, nextGraphId(), false, 0);
+    }
+
+    /**
+     * Overloaded singleton method that returns instance of type Graph with optional index of incoming edges.
+     * Index costs one more map entry per edge, but makes {@link #removeNode(Node)} and {@link #pointsFrom(Node)}
+     * touch only real neighbours instead of every node of the graph.
+     * @param directed whether graph is directed
+     * @param indexIncoming whether incoming edges of every node are tracked
+     * @return new Graph with specified type
+     * */
+    public static Graph create(boolean directed, boolean indexIncoming) {
+        return new Graph(directed, nextGraphId(), indexIncoming, 0);
+    }
+
+    /**
+     * Creates builder for bulk loading of large graphs. Nodes are addressed by dense indices and edges are kept in
+     * primitive arrays until {@link Builder#build()}, which creates all maps pre-sized in one pass.
+     * @param expectedNodes expected number of nodes, used for pre-sizing only
+     * @param expectedEdges expected number of edges, used for pre-sizing only
+     * @return new Builder
+     * @throws IllegalArgumentException if one of expected sizes is negative
+     * */
+    public static Builder builder(int expectedNodes, int expectedEdges) {
+        if (expectedNodes < 0 || expectedEdges < 0) throw new IllegalArgumentException("Expected sizes cannot be negative");
+        return new Builder(expectedNodes, expectedEdges);
     }
 
     /**
@@ -70,6 +125,10 @@ public final class Graph {
         if (nodes.putIfAbsent(newNode, new HashMap<>()) != null) {
             throw new IllegalStateException("Duplicate node key");
         }
+        if (incoming != null) {
+            incoming.put(newNode, new HashMap<>());
+        }
+        modCount++;
         return newNode;
     }
 
@@ -83,13 +142,30 @@ public final class Graph {
     public void connectNodes(Node from, Node to, int distance) {
         validateNodes(from, to);
 
-        nodes.get(from).put(to, new Edge(distance, to, ++lastEdgeID, this.graphId));
+        putEdge(from, new Edge(distance, to, ++lastEdgeID, this.graphId));
 
         if (!directed) {
-            nodes.get(to).put(from, new Edge(distance, from, ++lastEdgeID, this.graphId));
+            putEdge(to, new Edge(distance, from, ++lastEdgeID, this.graphId));
+        }
+    }
+
+    private void putEdge(Node from, Edge edge) {
+        modCount++;
+        nodes.get(from).put(edge.getTarget(), edge);
+        if (incoming != null) {
+            incoming.get(edge.getTarget()).put(from, edge);
         }
     }
 
+    private boolean removeEdge(Node from, Node to) {
+        boolean removed = nodes.get(from).remove(to) != null;
+        if (removed) modCount++;
+        if (removed && incoming != null) {
+            incoming.get(to).remove(from);
+        }
+        return removed;
+    }
+
     /**
      * Removes specified Node from the graph
      * @param node Node that needs to be removed
@@ -98,10 +174,44 @@ public final class Graph {
      */
     public void removeNode(Node node) {
         validateNode(node);
-        nodes.remove(node);
+        Map<Node, Edge> outgoing = nodes.remove(node);
+        modCount++;
 
+        if (incoming == null) {
+            for (Map<Node, Edge> edges : nodes.values()) {
+                edges.remove(node);
+            }
+            return;
+        }
+        for (Node source : incoming.remove(node).keySet()) {
+            nodes.get(source).remove(node);
+        }
+        for (Node target : outgoing.keySet()) {
+            incoming.get(target).remove(node);
+        }
+    }
+
+    /**
+     * Removes all specified Nodes from the graph. Without index of incoming edges all remaining nodes are visited
+     * only once for the whole batch, instead of once per removed node.
+     * @param toRemove Nodes that need to be removed
+     * @throws IllegalArgumentException if at least one node is not from this graph. In that case nothing is removed
+     */
+    public void removeNodes(Collection<Node> toRemove) {
+        Set<Node> removed = new HashSet<>(toRemove);
+        for (Node node : removed) {
+            validateNode(node);
+        }
+        if (incoming != null) {
+            for (Node node : removed) {
+                removeNode(node);
+            }
+            return;
+        }
+        nodes.keySet().removeAll(removed);
+        modCount++;
         for (Map<Node, Edge> edges : nodes.values()) {
-            edges.remove(node);
+            edges.keySet().removeAll(removed);
         }
     }
 
@@ -119,10 +229,10 @@ public final class Graph {
         validateNode(from);
         validateNode(to);
 
-        boolean removed = nodes.get(from).remove(to) != null;
+        boolean removed = removeEdge(from, to);
 
         if (!directed) {
-            removed |= nodes.get(to).remove(from) != null;
+            removed |= removeEdge(to, from);
         }
 
         return removed;
@@ -204,6 +314,51 @@ public final class Graph {
         return Collections.unmodifiableMap(nodes.get(nodeFrom));
     }
 
+    /**
+     * Returns map of all nodes that point to provided node. Uses index of incoming edges if graph has it,
+     * otherwise all nodes of graph are visited.
+     * @param nodeTo Node for which needs to be return Map of other nodes
+     * @return Map of source Nodes and Edges that go from them to given node
+     * @throws IllegalArgumentException if given Node is null or does not belong to current Graph
+     * */
+    public Map<Node, Edge> pointsFrom(Node nodeTo) {
+        validateNode(nodeTo);
+        if (incoming != null) {
+            return Collections.unmodifiableMap(incoming.get(nodeTo));
+        }
+        Map<Node, Edge> result = new HashMap<>();
+        for (Map.Entry<Node, Map<Node, Edge>> entry : nodes.entrySet()) {
+            Edge edge = entry.getValue().get(nodeTo);
+            if (edge != null) result.put(entry.getKey(), edge);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns number of edges that start in given node
+     * @param node Node that needs to be checked
+     * @return out-degree of node
+     * @throws IllegalArgumentException if given Node is null or does not belong to current Graph
+     * */
+    public int outDegree(Node node) {
+        validateNode(node);
+        return nodes.get(node).size();
+    }
+
+    /**
+     * Returns number of edges that end in given node. Is O(1) only if graph has index of incoming edges
+     * @param node Node that needs to be checked
+     * @return in-degree of node
+     * @throws IllegalArgumentException if given Node is null or does not belong to current Graph
+     * */
+    public int inDegree(Node node) {
+        validateNode(node);
+        if (incoming != null) {
+            return incoming.get(node).size();
+        }
+        return pointsFrom(node).size();
+    }
+
     /**
      * Returns list that consists of all nodes that are in current Graph
      * @return List of Nodes
@@ -273,6 +428,294 @@ public final class Graph {
 
         Edge edge = getEdgeOfTwoNodes(from, to);
         edge.changeDistance(newDistance);
+        modCount++;
+    }
+
+    /**
+     * Creates immutable compressed-sparse-row snapshot of current graph for read-heavy workloads.
+     * Later changes of this graph are not visible in returned snapshot. Snapshot is cached until the next change,
+     * so repeated calls on unchanged graph return the same instance without rebuilding it.
+     * @return CsrGraph with dense node indices
+     * */
+    public CsrGraph freeze() {
+        if (snapshot == null || snapshotModCount != modCount) {
+            snapshot = HeapCsrGraph.build(graphId, nodes);
+            snapshotModCount = modCount;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Bulk loader of {@link Graph}. Unlike {@link #connectNodes(Node, Node, int)} edges are not validated one call
+     * at a time: they are checked in one pass over primitive arrays when graph is built. Then edges are grouped by
+     * source with counting sort, and adjacency maps are created with exact capacity, optionally in parallel.
+     * <p>Result is the same as if nodes were created and connected one by one in the order they were added:
+     * node with index i gets ID i + 1, edges get IDs in insertion order, and later duplicate edge replaces earlier one.
+     * Builder can be used only once.
+     * */
+    public static final class Builder {
+        private boolean directed = true;
+        private boolean indexIncoming;
+        private boolean parallel;
+        private String[] names;
+        private int nodeCount;
+        private int[] from;
+        private int[] to;
+        private int[] weight;
+        private int edgeCount;
+        private Node[] built;
+
+        private Builder(int expectedNodes, int expectedEdges) {
+            this.names = new String[Math.max(expectedNodes, 1)];
+            this.from = new int[Math.max(expectedEdges, 1)];
+            this.to = new int[from.length];
+            this.weight = new int[from.length];
+        }
+
+        /**
+         * @param directed whether built graph is directed. Default is true
+         * @return Builder itself to enable method chaining
+         * */
+        public Builder directed(boolean directed) {
+            this.directed = directed;
+            return this;
+        }
+
+        /**
+         * @param indexIncoming whether built graph tracks incoming edges, see {@link Graph#create(boolean, boolean)}
+         * @return Builder itself to enable method chaining
+         * */
+        public Builder indexIncoming(boolean indexIncoming) {
+            this.indexIncoming = indexIncoming;
+            return this;
+        }
+
+        /**
+         * @param parallel whether edges and adjacency maps are created in common ForkJoinPool
+         * @return Builder itself to enable method chaining
+         * */
+        public Builder parallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        /**
+         * Adds node without name
+         * @return index of the node, that is used in {@link #addEdge(int, int, int)} and {@link #node(int)}
+         * @throws IllegalStateException if graph was already built
+         * */
+        public int addNode() {
+            return addNode("");
+        }
+
+        /**
+         * Adds node with given name
+         * @param name name of the node. Does not affect functionality and for representative purposes only
+         * @return index of the node, that is used in {@link #addEdge(int, int, int)} and {@link #node(int)}
+         * @throws IllegalArgumentException if name is null
+         * @throws IllegalStateException if graph was already built
+         * */
+        public int addNode(String name) {
+            if (name == null) throw new IllegalArgumentException("Name cannot be null");
+            int index = addNodes(1);
+            names[index] = name;
+            return index;
+        }
+
+        /**
+         * Adds given number of nodes without names
+         * @param count number of nodes
+         * @return index of the first added node, others follow it consecutively
+         * @throws IllegalArgumentException if count is negative
+         * @throws IllegalStateException if graph was already built
+         * */
+        public int addNodes(int count) {
+            checkNotBuilt();
+            if (count < 0) throw new IllegalArgumentException("Count cannot be negative");
+            int first = nodeCount;
+            if (first + count > names.length) {
+                names = Arrays.copyOf(names, Math.max(first + count, names.length * 2));
+            }
+            nodeCount += count;
+            return first;
+        }
+
+        /**
+         * Adds edge between two nodes. Indices and distance are validated in {@link #build()}
+         * @param from index of starting node
+         * @param to index of node to which 'from' node is pointing
+         * @param distance distance between two nodes
+         * @return Builder itself to enable method chaining
+         * @throws IllegalStateException if graph was already built
+         * */
+        public Builder addEdge(int from, int to, int distance) {
+            checkNotBuilt();
+            ensureEdgeCapacity(edgeCount + 1);
+            this.from[edgeCount] = from;
+            this.to[edgeCount] = to;
+            this.weight[edgeCount] = distance;
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Adds edges given as three parallel arrays. Edge i goes from node from[i] to node to[i]
+         * @param from indices of starting nodes
+         * @param to indices of target nodes
+         * @param distance distances of edges
+         * @return Builder itself to enable method chaining
+         * @throws IllegalArgumentException if one of arrays is null or arrays have different lengths
+         * @throws IllegalStateException if graph was already built
+         * */
+        public Builder addEdges(int[] from, int[] to, int[] distance) {
+            checkNotBuilt();
+            if (from == null || to == null || distance == null) throw new IllegalArgumentException("Arrays cannot be null");
+            if (from.length != to.length || from.length != distance.length) {
+                throw new IllegalArgumentException("Arrays must have the same length");
+            }
+            ensureEdgeCapacity(edgeCount + from.length);
+            System.arraycopy(from, 0, this.from, edgeCount, from.length);
+            System.arraycopy(to, 0, this.to, edgeCount, to.length);
+            System.arraycopy(distance, 0, this.weight, edgeCount, distance.length);
+            edgeCount += from.length;
+            return this;
+        }
+
+        /**
+         * Adds edges from stream of triples {from, to, distance} in encounter order
+         * @param edges stream of arrays with three elements
+         * @return Builder itself to enable method chaining
+         * @throws IllegalArgumentException if stream is null or one of arrays does not have three elements
+         * @throws IllegalStateException if graph was already built
+         * */
+        public Builder addEdges(Stream<int[]> edges) {
+            if (edges == null) throw new IllegalArgumentException("Stream cannot be null");
+            edges.forEachOrdered(edge -> {
+                if (edge == null || edge.length != 3) throw new IllegalArgumentException("Edge must be {from, to, distance}");
+                addEdge(edge[0], edge[1], edge[2]);
+            });
+            return this;
+        }
+
+        private void ensureEdgeCapacity(int capacity) {
+            if (capacity > from.length) {
+                int newLength = Math.max(capacity, from.length * 2);
+                from = Arrays.copyOf(from, newLength);
+                to = Arrays.copyOf(to, newLength);
+                weight = Arrays.copyOf(weight, newLength);
+            }
+        }
+
+        private void checkNotBuilt() {
+            if (built != null) throw new IllegalStateException("Graph was already built");
+        }
+
+        /**
+         * Builds the graph. Edge arrays are released afterwards
+         * @return new Graph with all added nodes and edges
+         * @throws IllegalArgumentException if edge points to unknown node index, connects node to itself or has non-positive distance
+         * @throws IllegalStateException if graph was already built
+         * */
+        public Graph build() {
+            checkNotBuilt();
+            validateEdges();
+            Graph graph = new Graph(directed, nextGraphId(), indexIncoming, nodeCount);
+            Node[] nodes = new Node[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                nodes[i] = new Node(i + 1, graph.graphId, names[i] == null ? "" : names[i]);
+            }
+
+            // Undirected edge i is stored as two half-edges: 2i is forward and 2i + 1 is reverse,
+            // which is the order connectNodes assigns IDs in
+            int halfEdges = directed ? edgeCount : 2 * edgeCount;
+            IntUnaryOperator sourceOf = directed
+                    ? h -> from[h]
+                    : h -> (h & 1) == 0 ? from[h >> 1] : to[h >> 1];
+            IntUnaryOperator targetOf = directed
+                    ? h -> to[h]
+                    : h -> (h & 1) == 0 ? to[h >> 1] : from[h >> 1];
+            int graphId = graph.graphId;
+            Edge[] edges = new Edge[halfEdges];
+            forEach(halfEdges, h -> edges[h] = new Edge(weight[directed ? h : h >> 1], nodes[targetOf.applyAsInt(h)], h + 1, graphId));
+
+            Map<Node, Edge>[] outgoing = adjacency(halfEdges, sourceOf, h -> edges[h].getTarget(), edges);
+            for (int i = 0; i < nodeCount; i++) {
+                graph.nodes.put(nodes[i], outgoing[i]);
+            }
+            if (indexIncoming) {
+                Map<Node, Edge>[] incoming = adjacency(halfEdges, targetOf, h -> nodes[sourceOf.applyAsInt(h)], edges);
+                for (int i = 0; i < nodeCount; i++) {
+                    graph.incoming.put(nodes[i], incoming[i]);
+                }
+            }
+            graph.lastNodeID = nodeCount;
+            graph.lastEdgeID = halfEdges;
+
+            built = nodes;
+            names = null;
+            from = to = weight = null;
+            return graph;
+        }
+
+        private void validateEdges() {
+            for (int i = 0; i < edgeCount; i++) {
+                if (from[i] < 0 || from[i] >= nodeCount || to[i] < 0 || to[i] >= nodeCount) {
+                    throw new IllegalArgumentException("Edge " + i + " points to unknown node index");
+                }
+                if (from[i] == to[i]) throw new IllegalArgumentException("Cannot connect one node to itself");
+                if (weight[i] <= 0) throw new IllegalArgumentException("Distance cannot be negative or zero");
+            }
+        }
+
+        /**
+         * Groups half-edges by given node with counting sort and creates one exactly sized map per node.
+         * Counting sort is stable, so later duplicate edge is put after earlier one and replaces it
+         * @param keyNode node that half-edge is grouped by
+         * @param mapKey key under which half-edge is put into the map of its group
+         * */
+        @SuppressWarnings("unchecked")
+        private Map<Node, Edge>[] adjacency(int halfEdges, IntUnaryOperator keyNode, IntFunction<Node> mapKey, Edge[] edges) {
+            int[] offsets = new int[nodeCount + 1];
+            for (int h = 0; h < halfEdges; h++) {
+                offsets[keyNode.applyAsInt(h) + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] order = new int[halfEdges];
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            for (int h = 0; h < halfEdges; h++) {
+                order[next[keyNode.applyAsInt(h)]++] = h;
+            }
+
+            Map<Node, Edge>[] maps = (Map<Node, Edge>[]) new Map<?, ?>[nodeCount];
+            forEach(nodeCount, u -> {
+                Map<Node, Edge> map = new HashMap<>(capacityFor(offsets[u + 1] - offsets[u]));
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    map.put(mapKey.apply(order[i]), edges[order[i]]);
+                }
+                maps[u] = map;
+            });
+            return maps;
+        }
+
+        private void forEach(int count, IntConsumer action) {
+            IntStream range = IntStream.range(0, count);
+            (parallel ? range.parallel() : range).forEach(action);
+        }
+
+        /**
+         * Returns node of built graph by index returned from {@link #addNode()}
+         * @param index index of node
+         * @return Node of built graph
+         * @throws IllegalStateException if graph is not built yet
+         * @throws IllegalArgumentException if index is out of range
+         * */
+        public Node node(int index) {
+            if (built == null) throw new IllegalStateException("Graph is not built yet");
+            if (index < 0 || index >= built.length) throw new IllegalArgumentException("Node index is out of range");
+            return built[index];
+        }
     }
 
     public static final class Edge {
@@ -281,7 +724,7 @@ public final class Graph {
         private final int id;
         private final Node target;
 
-        private Edge(int distance, @NonNull Node target, int id, int graphId) {
+        Edge(int distance, @NonNull Node target, int id, int graphId) {
             this.distance = validateDistance(distance);
             this.target = target;
             this.id = id;
@@ -304,6 +747,13 @@ public final class Graph {
             this.distance = newDistance;
         }
 
+        /**
+         * @return copy of this edge (same ID and target) with new distance
+         * */
+        Edge withDistance(int newDistance) {
+            return new Edge(newDistance, target, id, graphId);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -322,7 +772,7 @@ public final class Graph {
         private final int graphId;
         private final String name;
 
-        private Node(int id, int graphId, String name) {
+        Node(int id, int graphId, String name) {
             this.id = id;
             this.graphId = graphId;
             if (name == null) throw new IllegalArgumentException("Name cannot be null");
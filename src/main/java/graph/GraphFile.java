@@ -0,0 +1,227 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compact binary file format of read-only graph that is opened with {@link FileChannel#map}, so pathfinding engines
+ * query it directly from the page cache without deserialization. Several processes that open the same file share
+ * its pages.
+ * <p>Layout (all values are little-endian 32-bit ints unless stated otherwise):
+ * <pre>
+ * header          magic, version, nodeCount, edgeCount, nameBytesLength
+ * offsets         nodeCount + 1
+ * targets         edgeCount
+ * weights         edgeCount
+ * reverseOffsets  nodeCount + 1
+ * sources         edgeCount
+ * reverseWeights  edgeCount
+ * nameOffsets     nodeCount + 1
+ * names           nameBytesLength bytes of UTF-8
+ * </pre>
+ * <p>Opened graph gets new graph ID, and its nodes get IDs equal to their index + 1, so nodes of the source graph
+ * are not valid for it. Nodes can be found with {@link CsrGraph#nodeAt(int)} or {@link CsrGraph#asList()}.
+ * */
+public final class GraphFile {
+    private static final int MAGIC = 0x48505247; // "GRPH" in little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+    private static final int SECTIONS = 6;
+    private static final int WRITE_BUFFER = 1 << 16;
+
+    private GraphFile() {}
+
+    /**
+     * Writes current state of given graph to file. Existing file is replaced
+     * @param graph graph that needs to be written
+     * @param path path of the file
+     * @throws IllegalArgumentException if graph or path is null
+     * @throws IOException if file cannot be written
+     * */
+    public static void write(Graph graph, Path path) throws IOException {
+        if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+        write(graph.freeze(), path);
+    }
+
+    /**
+     * Writes given snapshot to file. Existing file is replaced
+     * @param graph snapshot that needs to be written
+     * @param path path of the file
+     * @throws IllegalArgumentException if graph or path is null
+     * @throws IOException if file cannot be written
+     * */
+    public static void write(CsrGraph graph, Path path) throws IOException {
+        if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (path == null) throw new IllegalArgumentException("Path cannot be null");
+        int n = graph.nodeCount();
+        byte[][] names = new byte[n][];
+        int[] nameOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            names[i] = graph.nodeAt(i).getName().getBytes(StandardCharsets.UTF_8);
+            nameOffsets[i + 1] = Math.addExact(nameOffsets[i], names[i].length);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            int m = graph.edgeCount();
+            int[] header = {MAGIC, VERSION, n, m, nameOffsets[n]};
+            writeInts(channel, buffer, header.length, i -> header[i]);
+            writeInts(channel, buffer, n + 1, i -> i < n ? graph.firstEdge(i) : m);
+            writeInts(channel, buffer, m, graph::target);
+            writeInts(channel, buffer, m, graph::weight);
+            writeInts(channel, buffer, n + 1, i -> i < n ? graph.firstInEdge(i) : m);
+            writeInts(channel, buffer, m, graph::source);
+            writeInts(channel, buffer, m, graph::inWeight);
+            writeInts(channel, buffer, n + 1, i -> nameOffsets[i]);
+            for (byte[] name : names) {
+                int written = 0;
+                while (written < name.length) {
+                    if (!buffer.hasRemaining()) flush(channel, buffer);
+                    int length = Math.min(buffer.remaining(), name.length - written);
+                    buffer.put(name, written, length);
+                    written += length;
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes values of given function for arguments in range [0, count)
+     * */
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int count, IntUnaryOperator values)
+            throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < Integer.BYTES) flush(channel, buffer);
+            buffer.putInt(values.applyAsInt(i));
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Opens graph file as read-only snapshot. Every section is mapped separately, so file may exceed 2 GB
+     * as long as one section does not. Mapping stays valid after the method returns and is released by GC.
+     * <p>Only header and section lengths are checked, so opening does not touch pages of the sections and takes
+     * the same time for any file size. Content of sections is trusted: reads are bounds-checked by buffers, so
+     * corrupted file cannot read outside of the mapping, but it may give wrong results or fail in the middle
+     * of a search. Use {@link #open(Path, boolean)} to check content of files that come from untrusted sources.
+     * @param path path of the file written by {@link #write(Graph, Path)}
+     * @return CsrGraph backed by mapped file
+     * @throws IllegalArgumentException if path is null
+     * @throws IOException if file cannot be read, is not a graph file or is truncated
+     * */
+    public static CsrGraph open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    /**
+     * Opens graph file as read-only snapshot, optionally checking content of every section.
+     * <p>Check is one sequential pass over the whole file: offsets start at 0, never decrease and end at the section
+     * length, every target and source is a valid node index and every weight is positive. It reads every page
+     * of the file, so opening becomes O(file size).
+     * @param path path of the file written by {@link #write(Graph, Path)}
+     * @param verify whether content of sections is checked before snapshot is returned
+     * @return CsrGraph backed by mapped file
+     * @throws IllegalArgumentException if path is null
+     * @throws IOException if file cannot be read, is not a graph file, is truncated or, when verified, corrupted
+     * */
+    public static CsrGraph open(Path path, boolean verify) throws IOException {
+        if (path == null) throw new IllegalArgumentException("Path cannot be null");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long headerBytes = (long) HEADER_INTS * Integer.BYTES;
+            if (channel.size() < headerBytes) throw new IOException("File is too short to be a graph file");
+            IntBuffer header = map(channel, 0, headerBytes).asIntBuffer();
+            if (header.get(0) != MAGIC) throw new IOException("File is not a graph file");
+            if (header.get(1) != VERSION) throw new IOException("Unsupported graph file version " + header.get(1));
+            int n = header.get(2);
+            int m = header.get(3);
+            int nameLength = header.get(4);
+            if (n < 0 || n == Integer.MAX_VALUE || m < 0 || nameLength < 0) {
+                throw new IOException("Corrupted graph file header");
+            }
+
+            int[] lengths = {n + 1, m, m, n + 1, m, m};
+            IntBuffer[] sections = new IntBuffer[SECTIONS];
+            long position = headerBytes;
+            for (int i = 0; i < SECTIONS; i++) {
+                sections[i] = mapInts(channel, position, lengths[i]);
+                position += (long) lengths[i] * Integer.BYTES;
+            }
+            IntBuffer nameOffsets = mapInts(channel, position, n + 1);
+            position += (long) (n + 1) * Integer.BYTES;
+            ByteBuffer names = map(channel, position, nameLength);
+
+            if (verify) {
+                checkOffsets(sections[0], m, "offsets");
+                checkIndices(sections[1], n, "targets");
+                checkWeights(sections[2], "weights");
+                checkOffsets(sections[3], m, "reverse offsets");
+                checkIndices(sections[4], n, "sources");
+                checkWeights(sections[5], "reverse weights");
+                checkOffsets(nameOffsets, nameLength, "name offsets");
+            }
+            return new MappedCsrGraph(n, sections[0], sections[1], sections[2], sections[3], sections[4], sections[5],
+                    nameOffsets, names);
+        }
+    }
+
+    /**
+     * Checks that offsets start at 0, never decrease and end at given length
+     * */
+    private static void checkOffsets(IntBuffer offsets, int length, String section) throws IOException {
+        int last = offsets.limit() - 1;
+        if (offsets.get(0) != 0 || offsets.get(last) != length) {
+            throw new IOException("Corrupted graph file: " + section + " do not cover [0, " + length + ")");
+        }
+        for (int i = 0; i < last; i++) {
+            if (offsets.get(i) > offsets.get(i + 1)) {
+                throw new IOException("Corrupted graph file: " + section + " decrease at " + i);
+            }
+        }
+    }
+
+    /**
+     * Checks that every value is a node index in range [0, nodeCount)
+     * */
+    private static void checkIndices(IntBuffer indices, int nodeCount, String section) throws IOException {
+        for (int i = 0; i < indices.limit(); i++) {
+            int index = indices.get(i);
+            if (index < 0 || index >= nodeCount) {
+                throw new IOException("Corrupted graph file: " + section + " refer to node " + index + " at " + i);
+            }
+        }
+    }
+
+    private static void checkWeights(IntBuffer weights, String section) throws IOException {
+        for (int i = 0; i < weights.limit(); i++) {
+            if (weights.get(i) <= 0) {
+                throw new IOException("Corrupted graph file: " + section + " are not positive at " + i);
+            }
+        }
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException {
+        return map(channel, position, (long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IOException("Graph file section exceeds 2 GB");
+        if (position + size > channel.size()) throw new IOException("Graph file is truncated");
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,194 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * {@link CsrGraph} snapshot held in plain heap arrays. Created by {@link Graph#freeze()}
+ * and {@link ConcurrentGraph#freeze()}.
+ * */
+final class HeapCsrGraph implements CsrGraph {
+    private final int graphId;
+    private final Graph.Node[] nodes;
+    private final int[] indexById;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] reverseOffsets;
+    private final int[] sources;
+    private final int[] reverseWeights;
+
+    private HeapCsrGraph(int graphId, Graph.Node[] nodes, int[] indexById, int[] offsets, int[] targets, int[] weights) {
+        this.graphId = graphId;
+        this.nodes = nodes;
+        this.indexById = indexById;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverseOffsets = new int[nodes.length + 1];
+        this.sources = new int[targets.length];
+        this.reverseWeights = new int[targets.length];
+        buildReverse();
+    }
+
+    private HeapCsrGraph(HeapCsrGraph topology, int[] weights, int[] reverseWeights) {
+        this.graphId = topology.graphId;
+        this.nodes = topology.nodes;
+        this.indexById = topology.indexById;
+        this.offsets = topology.offsets;
+        this.targets = topology.targets;
+        this.weights = weights;
+        this.reverseOffsets = topology.reverseOffsets;
+        this.sources = topology.sources;
+        this.reverseWeights = reverseWeights;
+    }
+
+    /**
+     * Fills reverse arrays with counting sort of edges by their target
+     * */
+    private void buildReverse() {
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, nodes.length);
+        for (int u = 0; u < nodes.length; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = next[targets[e]]++;
+                sources[slot] = u;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+    }
+
+    /**
+     * Builds snapshot from adjacency map. Nodes are indexed in ascending order of their IDs,
+     * so two snapshots of unchanged graph have identical layout.
+     * @param graphId ID of graph that owns given nodes
+     * @param adjacency map of every node to its outgoing edges
+     * @return new HeapCsrGraph
+     * */
+    static HeapCsrGraph build(int graphId, Map<Graph.Node, ? extends Map<Graph.Node, Graph.Edge>> adjacency) {
+        Graph.Node[] nodes = adjacency.keySet().toArray(new Graph.Node[0]);
+        Arrays.sort(nodes, Comparator.comparingInt(Graph.Node::getId));
+
+        int maxId = nodes.length == 0 ? 0 : nodes[nodes.length - 1].getId();
+        int[] indexById = new int[maxId + 1];
+        Arrays.fill(indexById, -1);
+        for (int i = 0; i < nodes.length; i++) {
+            indexById[nodes[i].getId()] = i;
+        }
+
+        int[] offsets = new int[nodes.length + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            offsets[i + 1] = offsets[i] + adjacency.get(nodes[i]).size();
+        }
+
+        int[] targets = new int[offsets[nodes.length]];
+        int[] weights = new int[targets.length];
+        for (int i = 0; i < nodes.length; i++) {
+            int e = offsets[i];
+            for (Graph.Edge edge : adjacency.get(nodes[i]).values()) {
+                targets[e] = indexById[edge.getTarget().getId()];
+                weights[e] = edge.getDistance();
+                e++;
+            }
+        }
+        return new HeapCsrGraph(graphId, nodes, indexById, offsets, targets, weights);
+    }
+
+    /**
+     * Creates snapshot with the same nodes and edges where weights of given edges are replaced. Topology arrays are
+     * shared with this snapshot, weight arrays are copied and patched, so the cost is O(E) array copy plus
+     * degree of every changed edge instead of full rebuild.
+     * @param from index of source node of every changed edge
+     * @param to index of target node of every changed edge
+     * @param weight new weight of every changed edge
+     * @param count number of changed edges
+     * @return new HeapCsrGraph
+     * @throws IllegalArgumentException if one of changed edges is not in this snapshot
+     * */
+    HeapCsrGraph withWeights(int[] from, int[] to, int[] weight, int count) {
+        int[] newWeights = weights.clone();
+        int[] newReverseWeights = reverseWeights.clone();
+        for (int i = 0; i < count; i++) {
+            newWeights[edgeOf(offsets, targets, from[i], to[i])] = weight[i];
+            newReverseWeights[edgeOf(reverseOffsets, sources, to[i], from[i])] = weight[i];
+        }
+        return new HeapCsrGraph(this, newWeights, newReverseWeights);
+    }
+
+    /**
+     * @return position of edge between given nodes in given CSR arrays
+     * */
+    private static int edgeOf(int[] offsets, int[] ends, int node, int other) {
+        for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+            if (ends[e] == other) return e;
+        }
+        throw new IllegalArgumentException("Edge does not belong to this snapshot");
+    }
+
+    @Override
+    public int nodeCount() {return nodes.length;}
+
+    @Override
+    public int edgeCount() {return targets.length;}
+
+    @Override
+    public int getGraphId() {return graphId;}
+
+    @Override
+    public int indexOf(Graph.Node node) {
+        int index = indexOrMinusOne(node);
+        if (index < 0) throw new IllegalArgumentException("Node does not belong to this snapshot");
+        return index;
+    }
+
+    @Override
+    public boolean containsNode(Graph.Node node) {
+        return indexOrMinusOne(node) >= 0;
+    }
+
+    private int indexOrMinusOne(Graph.Node node) {
+        if (node == null || node.getGraphId() != graphId) return -1;
+        int id = node.getId();
+        if (id < 0 || id >= indexById.length) return -1;
+        return indexById[id];
+    }
+
+    @Override
+    public Graph.Node nodeAt(int index) {return nodes[index];}
+
+    @Override
+    public int firstEdge(int node) {return offsets[node];}
+
+    @Override
+    public int endEdge(int node) {return offsets[node + 1];}
+
+    @Override
+    public int outDegree(int node) {return offsets[node + 1] - offsets[node];}
+
+    @Override
+    public int target(int edge) {return targets[edge];}
+
+    @Override
+    public int weight(int edge) {return weights[edge];}
+
+    @Override
+    public int firstInEdge(int node) {return reverseOffsets[node];}
+
+    @Override
+    public int endInEdge(int node) {return reverseOffsets[node + 1];}
+
+    @Override
+    public int inDegree(int node) {return reverseOffsets[node + 1] - reverseOffsets[node];}
+
+    @Override
+    public int source(int inEdge) {return sources[inEdge];}
+
+    @Override
+    public int inWeight(int inEdge) {return reverseWeights[inEdge];}
+}
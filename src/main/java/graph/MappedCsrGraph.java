@@ -0,0 +1,107 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CsrGraph} snapshot that reads sections of memory-mapped graph file, created by {@link GraphFile}.
+ * Buffers are validated by {@link GraphFile#open(java.nio.file.Path)} before this snapshot is created.
+ * <p>Nodes are created lazily on first access and get IDs equal to index + 1.
+ * */
+final class MappedCsrGraph implements CsrGraph {
+    private final int graphId;
+    private final int nodeCount;
+    // Filled lazily, benign races only create equal nodes
+    private final Graph.Node[] nodes;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final IntBuffer reverseOffsets;
+    private final IntBuffer sources;
+    private final IntBuffer reverseWeights;
+    // Offsets of UTF-8 encoded names and their bytes
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer nameBytes;
+
+    /**
+     * Creates snapshot over already laid out buffers with fresh graph ID. Buffers are not copied
+     * */
+    MappedCsrGraph(int nodeCount, IntBuffer offsets, IntBuffer targets, IntBuffer weights,
+                   IntBuffer reverseOffsets, IntBuffer sources, IntBuffer reverseWeights,
+                   IntBuffer nameOffsets, ByteBuffer nameBytes) {
+        this.graphId = Graph.nextGraphId();
+        this.nodeCount = nodeCount;
+        this.nodes = new Graph.Node[nodeCount];
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverseOffsets = reverseOffsets;
+        this.sources = sources;
+        this.reverseWeights = reverseWeights;
+        this.nameOffsets = nameOffsets;
+        this.nameBytes = nameBytes;
+    }
+
+    @Override
+    public int nodeCount() {return nodeCount;}
+
+    @Override
+    public int edgeCount() {return targets.limit();}
+
+    @Override
+    public int getGraphId() {return graphId;}
+
+    @Override
+    public int indexOf(Graph.Node node) {
+        if (!containsNode(node)) throw new IllegalArgumentException("Node does not belong to this snapshot");
+        return node.getId() - 1;
+    }
+
+    @Override
+    public boolean containsNode(Graph.Node node) {
+        return node != null && node.getGraphId() == graphId && node.getId() >= 1 && node.getId() <= nodeCount;
+    }
+
+    @Override
+    public Graph.Node nodeAt(int index) {
+        Graph.Node node = nodes[index];
+        if (node == null) {
+            node = new Graph.Node(index + 1, graphId, nameAt(index));
+            nodes[index] = node;
+        }
+        return node;
+    }
+
+    private String nameAt(int index) {
+        int start = nameOffsets.get(index);
+        int end = nameOffsets.get(index + 1);
+        byte[] bytes = new byte[end - start];
+        nameBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int firstEdge(int node) {return offsets.get(node);}
+
+    @Override
+    public int endEdge(int node) {return offsets.get(node + 1);}
+
+    @Override
+    public int target(int edge) {return targets.get(edge);}
+
+    @Override
+    public int weight(int edge) {return weights.get(edge);}
+
+    @Override
+    public int firstInEdge(int node) {return reverseOffsets.get(node);}
+
+    @Override
+    public int endInEdge(int node) {return reverseOffsets.get(node + 1);}
+
+    @Override
+    public int source(int inEdge) {return sources.get(inEdge);}
+
+    @Override
+    public int inWeight(int inEdge) {return reverseWeights.get(inEdge);}
+}
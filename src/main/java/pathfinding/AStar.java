@@ -8,6 +8,7 @@ public class AStar{
 
     private final Graph graph;
     private final Map<Graph.Node, double[]> coordinates;
+    private Landmarks landmarks;
 
     /**
      * Constructor that takes graph and coordinate map as parameter
@@ -68,6 +69,19 @@ public class AStar{
         return this;
     }
 
+    /**
+     * Method that enables landmark (ALT) heuristic. It is used together with Euclidean heuristic (the larger of two
+     * lower bounds wins), so nodes without coordinates still get goal-directed search.
+     * @param landmarks distance tables selected on the graph of this AStar
+     * @throws IllegalArgumentException if landmarks are null
+     * @return Astar itself to enable method chaining in object creation.
+     * */
+    public AStar setLandmarks(Landmarks landmarks) {
+        if (landmarks == null) throw new IllegalArgumentException("Landmarks cannot be null");
+        this.landmarks = landmarks;
+        return this;
+    }
+
     /**
      * Validation method that checks if provided node belongs to current graph
      * @param node that is to be validated
@@ -81,13 +95,27 @@ public class AStar{
         coordinates.put(node, coords);
     }
 
+    /**
+     * Method that calculates heuristic for two given nodes: the larger of Euclidean distance and landmark lower bound
+     * @param current node at which the algorithm currently at
+     * @param goal node that is the end goal of the algorithm
+     * @return double that represents heuristic or 0 if neither coordinates nor landmarks are known for given nodes
+     * */
+    private double heuristic(Graph.Node current, Graph.Node goal) {
+        double euclidean = euclidean(current, goal);
+        if (landmarks == null) {
+            return euclidean;
+        }
+        return Math.max(euclidean, landmarks.lowerBound(current, goal));
+    }
+
     /**
      * Method that calculates Euclidean distance heuristic for two given nodes
      * @param current node at which the algorithm currently at
      * @param goal node that is the end goal of the algorithm
      * @return double that represents Euclidean heuristic or 0 if two nodes are null
      * */
-    private double heuristic(Graph.Node current, Graph.Node goal) {
+    private double euclidean(Graph.Node current, Graph.Node goal) {
         double[] a = coordinates.get(current);
         double[] b = coordinates.get(goal);
         if (a == null || b == null) {
@@ -0,0 +1,111 @@
+package pathfinding;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.List;
+
+/**
+ * Bidirectional A* algorithm that works on {@link CsrGraph} snapshot.
+ * <p>Both searches are guided by average potential of forward and backward Euclidean heuristics, which keeps
+ * the meet-in-the-middle stopping condition of bidirectional Dijkstra valid. As with {@link AStar}, Euclidean
+ * distance between two connected nodes is expected not to exceed distance of their edge.
+ * <p>Potential is only used when every node of the snapshot has coordinates, since a partial coordinate system
+ * gives inconsistent heuristic. Otherwise search behaves like {@link BidirectionalDijkstra}.
+ * <p>Queries are safe to run from several threads, as long as coordinates are not changed at the same time.
+ * */
+public final class BidirectionalAStar {
+    private final BidirectionalSearch search;
+    private final double[] xs;
+    private final double[] ys;
+    private final boolean[] hasCoordinates;
+    private int nodesWithCoordinates;
+
+    /**
+     * Constructor that takes graph snapshot as parameter. Coordinates can be set later through public API of this class.
+     * @param graph snapshot that contains nodes
+     * */
+    BidirectionalAStar(CsrGraph graph) {
+        this.search = new BidirectionalSearch(graph);
+        this.xs = new double[graph.nodeCount()];
+        this.ys = new double[graph.nodeCount()];
+        this.hasCoordinates = new boolean[graph.nodeCount()];
+    }
+
+    /**
+     * Constructor that takes graph snapshot and coordinate map as parameter
+     * @param graph snapshot that contains nodes
+     * @param coordinateMap map with coordinates of nodes of provided graph
+     * @throws IllegalArgumentException if at least one node of provided coordinateMap does not belong to the snapshot
+     * */
+    public BidirectionalAStar(CsrGraph graph, CoordinateMap coordinateMap) {
+        this(graph);
+        coordinateMap.getMap().forEach((node, coords) -> setCoordinates(node, coords[0], coords[1]));
+    }
+
+    /**
+     * Method that enables setting coordinates for given node
+     * @param node node to which coordinates needed to be assigned
+     * @param x X coordinate in 2D space (Cartesian coordinate system)
+     * @param y Y coordinate in 2D space (Cartesian coordinate system)
+     * @throws IllegalArgumentException if provided node does not belong to the snapshot
+     * @return BidirectionalAStar itself to enable method chaining in object creation.
+     * */
+    public BidirectionalAStar setCoordinates(Graph.Node node, double x, double y) {
+        int index = search.indexOf(node);
+        if (!hasCoordinates[index]) {
+            hasCoordinates[index] = true;
+            nodesWithCoordinates++;
+        }
+        xs[index] = x;
+        ys[index] = y;
+        return this;
+    }
+
+    /**
+     * Method that finds path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the snapshot
+     * @return List that contains path (sequence of nodes) from starting node to end node or empty list if there is no path
+     * */
+    public List<Graph.Node> findPath(Graph.Node from, Graph.Node to) {
+        int source = search.indexOf(from);
+        int target = search.indexOf(to);
+        return search.findPath(source, target, potential(source, target));
+    }
+
+    /**
+     * Method that finds length of the shortest path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the snapshot
+     * @return sum of distances along the shortest path or -1 if there is no path
+     * */
+    public int distance(Graph.Node from, Graph.Node to) {
+        int source = search.indexOf(from);
+        int target = search.indexOf(to);
+        return search.distance(source, target, potential(source, target));
+    }
+
+    /**
+     * Difference of floored Euclidean estimates to target and to source. Flooring keeps heuristic consistent
+     * on integer edge distances.
+     * */
+    private BidirectionalSearch.Potential potential(int source, int target) {
+        if (nodesWithCoordinates < hasCoordinates.length) {
+            return BidirectionalSearch.Potential.ZERO;
+        }
+        double sx = xs[source];
+        double sy = ys[source];
+        double tx = xs[target];
+        double ty = ys[target];
+        return node -> (long) euclidean(xs[node], ys[node], tx, ty) - (long) euclidean(xs[node], ys[node], sx, sy);
+    }
+
+    private static double euclidean(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,42 @@
+package pathfinding;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.List;
+
+/**
+ * Bidirectional Dijkstra algorithm that works on {@link CsrGraph} snapshot.
+ * <p>Searches forward from starting node and backward from end node at the same time and stops when they meet,
+ * so on long point-to-point queries roughly half as many nodes are settled as with {@link CsrDijkstra}.
+ * Instance is safe to share between threads.
+ * */
+public final class BidirectionalDijkstra {
+    private final BidirectionalSearch search;
+
+    BidirectionalDijkstra(CsrGraph graph) {
+        this.search = new BidirectionalSearch(graph);
+    }
+
+    /**
+     * Method that finds the shortest path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the snapshot
+     * @return List that contains path (sequence of nodes) from starting node to end node or empty list if there is no path
+     * */
+    public List<Graph.Node> findPath(Graph.Node from, Graph.Node to) {
+        return search.findPath(search.indexOf(from), search.indexOf(to), BidirectionalSearch.Potential.ZERO);
+    }
+
+    /**
+     * Method that finds length of the shortest path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the snapshot
+     * @return sum of distances along the shortest path or -1 if there is no path
+     * */
+    public int distance(Graph.Node from, Graph.Node to) {
+        return search.distance(search.indexOf(from), search.indexOf(to), BidirectionalSearch.Potential.ZERO);
+    }
+}
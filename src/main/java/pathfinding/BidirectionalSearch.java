@@ -0,0 +1,180 @@
+package pathfinding;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Core of bidirectional shortest path search over {@link CsrGraph} snapshot.
+ * <p>Forward search runs from source over outgoing edges, backward search runs from target over incoming edges,
+ * and the side with smaller queue is expanded on every step. Searches stop with meet-in-the-middle condition
+ * (sum of smallest keys of both queues is not less than the best path found so far).
+ * <p>Goal direction is given by {@link Potential}. To keep one stopping condition for both sides, keys are stored
+ * doubled: forward key is {@code 2 * g(v) + P(v)} and backward key is {@code 2 * g(v) - P(v)}, so sum of two keys
+ * is compared against {@code 2 * mu}. Potential must be consistent, that is for every edge (u, v, w)
+ * {@code |P(v) - P(u)| <= 2 * w}.
+ * <p>Forward and backward states are kept in pairs in a pool owned by this instance, the same way as in
+ * {@link CsrDijkstra}: every query borrows one pair and returns it when done.
+ * */
+final class BidirectionalSearch {
+    private static final long NO_PATH = Long.MAX_VALUE / 4;
+
+    /**
+     * Potential function of node, as specified above. Zero potential turns search into bidirectional Dijkstra.
+     * */
+    @FunctionalInterface
+    interface Potential {
+        Potential ZERO = node -> 0;
+
+        long at(int node);
+    }
+
+    private final CsrGraph graph;
+    private final ConcurrentLinkedQueue<SearchState[]> idle = new ConcurrentLinkedQueue<>();
+
+    BidirectionalSearch(CsrGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        this.graph = graph;
+    }
+
+    CsrGraph graph() {return graph;}
+
+    /**
+     * Returns dense index of given node
+     * @throws IllegalArgumentException if node does not belong to the snapshot
+     * */
+    int indexOf(Graph.Node node) {
+        if (!graph.containsNode(node)) {
+            throw new IllegalArgumentException("Node does not belong to given graph");
+        }
+        return graph.indexOf(node);
+    }
+
+    /**
+     * Finds the shortest path between two nodes
+     * @param source index of starting node
+     * @param target index of end goal node
+     * @param potential consistent potential function
+     * @return List that contains path (sequence of nodes) from source to target or empty list if there is no path
+     * */
+    List<Graph.Node> findPath(int source, int target, Potential potential) {
+        SearchState[] pair = acquire();
+        try {
+            int meet = run(pair, source, target, potential);
+            return meet == -1 ? List.of() : path(pair, meet);
+        } finally {
+            release(pair);
+        }
+    }
+
+    /**
+     * Finds length of the shortest path between two nodes
+     * @param source index of starting node
+     * @param target index of end goal node
+     * @param potential consistent potential function
+     * @return sum of distances along the shortest path or -1 if there is no path
+     * */
+    int distance(int source, int target, Potential potential) {
+        SearchState[] pair = acquire();
+        try {
+            int meet = run(pair, source, target, potential);
+            return meet == -1 ? -1 : pair[0].dist(meet) + pair[1].dist(meet);
+        } finally {
+            release(pair);
+        }
+    }
+
+    private SearchState[] acquire() {
+        SearchState[] pair = idle.poll();
+        if (pair != null) return pair;
+        int n = graph.nodeCount();
+        return new SearchState[]{new SearchState(n), new SearchState(n)};
+    }
+
+    private void release(SearchState[] pair) {
+        idle.offer(pair);
+    }
+
+    /**
+     * Runs search between two nodes on given forward and backward states
+     * @return index of the node where the shortest path found by both searches meets, or -1 if there is no path
+     * */
+    private int run(SearchState[] pair, int source, int target, Potential potential) {
+        SearchState forward = pair[0];
+        SearchState backward = pair[1];
+        forward.reset();
+        backward.reset();
+
+        forward.set(source, 0, -1);
+        backward.set(target, 0, -1);
+        if (source == target) return source;
+
+        IndexedMinHeap forwardHeap = forward.heap;
+        IndexedMinHeap backwardHeap = backward.heap;
+        forwardHeap.insertOrDecrease(source, potential.at(source));
+        backwardHeap.insertOrDecrease(target, -potential.at(target));
+
+        long mu = NO_PATH;
+        int meet = -1;
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            if (forwardHeap.peekKey() + backwardHeap.peekKey() >= 2 * mu) break;
+
+            if (forwardHeap.size() <= backwardHeap.size()) {
+                int u = forwardHeap.poll();
+                int du = forward.dist(u);
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    int v = graph.target(e);
+                    int alt = du + graph.weight(e);
+                    if (alt < forward.dist(v)) {
+                        forward.set(v, alt, u);
+                        forwardHeap.insertOrDecrease(v, 2L * alt + potential.at(v));
+                        if (backward.visited(v) && (long) alt + backward.dist(v) < mu) {
+                            mu = (long) alt + backward.dist(v);
+                            meet = v;
+                        }
+                    }
+                }
+            } else {
+                int u = backwardHeap.poll();
+                int du = backward.dist(u);
+                for (int e = graph.firstInEdge(u), end = graph.endInEdge(u); e < end; e++) {
+                    int v = graph.source(e);
+                    int alt = du + graph.inWeight(e);
+                    if (alt < backward.dist(v)) {
+                        backward.set(v, alt, u);
+                        backwardHeap.insertOrDecrease(v, 2L * alt - potential.at(v));
+                        if (forward.visited(v) && (long) alt + forward.dist(v) < mu) {
+                            mu = (long) alt + forward.dist(v);
+                            meet = v;
+                        }
+                    }
+                }
+            }
+        }
+        return meet;
+    }
+
+    /**
+     * Builds path through meeting node out of forward and backward previous links
+     * @param meet node returned by {@link #run}
+     * @return List that contains path (sequence of nodes) from source to target
+     * */
+    private List<Graph.Node> path(SearchState[] pair, int meet) {
+        List<Graph.Node> result = new ArrayList<>();
+        for (int at = meet; at != -1; at = pair[0].prev(at)) {
+            result.add(graph.nodeAt(at));
+        }
+        Collections.reverse(result);
+        for (int at = pair[1].prev(meet); at != -1; at = pair[1].prev(at)) {
+            result.add(graph.nodeAt(at));
+        }
+        return result;
+    }
+}
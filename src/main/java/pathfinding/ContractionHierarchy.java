@@ -0,0 +1,529 @@
+package pathfinding;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Contraction Hierarchies speed-up technique for shortest path queries on static graphs.
+ * <p>Preprocessing contracts nodes one by one in order of their edge difference (number of shortcuts that contraction
+ * adds minus number of edges it removes, plus number of already contracted neighbours). When node is contracted,
+ * a shortcut is inserted between each pair of its neighbours unless a witness search finds path that is not longer.
+ * Nodes are contracted in rounds of independent sets, so witness searches of one round run in parallel.
+ * <p>Query is a bidirectional Dijkstra that only goes up the hierarchy. Found path is unpacked from shortcuts back
+ * into nodes of original graph. Hierarchy is immutable and queries are safe to run from several threads: every query
+ * borrows forward and backward search states from a pool owned by the hierarchy and returns them when done.
+ * */
+public final class ContractionHierarchy {
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final long NO_PATH = Long.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final int[] rank;
+    // Edges to higher ranked nodes: used by forward search
+    private final int[] forwardOffsets;
+    private final int[] forwardTargets;
+    private final int[] forwardWeights;
+    private final int[] forwardMiddles;
+    // Edges from higher ranked nodes, stored at lower ranked node: used by backward search
+    private final int[] backwardOffsets;
+    private final int[] backwardSources;
+    private final int[] backwardWeights;
+    private final int[] backwardMiddles;
+    private final ConcurrentLinkedQueue<SearchState[]> idle = new ConcurrentLinkedQueue<>();
+
+    private ContractionHierarchy(CsrGraph graph, int[] rank, Adjacency[] up, Adjacency[] down) {
+        this.graph = graph;
+        this.rank = rank;
+        int n = graph.nodeCount();
+        this.forwardOffsets = offsets(up);
+        this.forwardTargets = new int[forwardOffsets[n]];
+        this.forwardWeights = new int[forwardOffsets[n]];
+        this.forwardMiddles = new int[forwardOffsets[n]];
+        this.backwardOffsets = offsets(down);
+        this.backwardSources = new int[backwardOffsets[n]];
+        this.backwardWeights = new int[backwardOffsets[n]];
+        this.backwardMiddles = new int[backwardOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            up[v].copyTo(forwardTargets, forwardWeights, forwardMiddles, forwardOffsets[v]);
+            down[v].copyTo(backwardSources, backwardWeights, backwardMiddles, backwardOffsets[v]);
+        }
+    }
+
+    private static int[] offsets(Adjacency[] lists) {
+        int[] offsets = new int[lists.length + 1];
+        for (int i = 0; i < lists.length; i++) {
+            offsets[i + 1] = offsets[i] + lists[i].size;
+        }
+        return offsets;
+    }
+
+    /**
+     * Preprocesses given graph using common ForkJoinPool for parallel work
+     * @param graph snapshot of the graph
+     * @return ContractionHierarchy ready for queries
+     * @throws IllegalArgumentException if graph is null
+     * */
+    public static ContractionHierarchy build(CsrGraph graph) {
+        return build(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Preprocesses given graph
+     * @param graph snapshot of the graph
+     * @param pool pool in which witness searches and priority updates are run
+     * @return ContractionHierarchy ready for queries
+     * @throws IllegalArgumentException if graph or pool is null
+     * */
+    public static ContractionHierarchy build(CsrGraph graph, ForkJoinPool pool) {
+        if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (pool == null) throw new IllegalArgumentException("Pool cannot be null");
+        Preprocessor preprocessor = new Preprocessor(graph);
+        int[] rank = pool.submit(preprocessor::contractAll).join();
+        return new ContractionHierarchy(graph, rank, preprocessor.out, preprocessor.in);
+    }
+
+    /**
+     * Method that finds the shortest path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the graph
+     * @return List that contains path (sequence of nodes) from starting node to end node or empty list if there is no path
+     * */
+    public List<Graph.Node> findPath(Graph.Node from, Graph.Node to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        List<Integer> packed = new ArrayList<>();
+        SearchState[] pair = acquire();
+        try {
+            int meet = search(pair, source, target);
+            if (meet == -1) return List.of();
+
+            for (int at = meet; at != -1; at = pair[0].prev(at)) {
+                packed.add(at);
+            }
+            Collections.reverse(packed);
+            for (int at = pair[1].prev(meet); at != -1; at = pair[1].prev(at)) {
+                packed.add(at);
+            }
+        } finally {
+            release(pair);
+        }
+
+        List<Graph.Node> result = new ArrayList<>();
+        result.add(graph.nodeAt(packed.get(0)));
+        for (int i = 1; i < packed.size(); i++) {
+            unpack(packed.get(i - 1), packed.get(i), result);
+        }
+        return result;
+    }
+
+    /**
+     * Method that finds length of the shortest path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the graph
+     * @return sum of distances along the shortest path or -1 if there is no path
+     * */
+    public int distance(Graph.Node from, Graph.Node to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        SearchState[] pair = acquire();
+        try {
+            int meet = search(pair, source, target);
+            return meet == -1 ? -1 : pair[0].dist(meet) + pair[1].dist(meet);
+        } finally {
+            release(pair);
+        }
+    }
+
+    private SearchState[] acquire() {
+        SearchState[] pair = idle.poll();
+        if (pair != null) return pair;
+        int n = graph.nodeCount();
+        return new SearchState[]{new SearchState(n), new SearchState(n)};
+    }
+
+    private void release(SearchState[] pair) {
+        idle.offer(pair);
+    }
+
+    private int indexOf(Graph.Node node) {
+        if (!graph.containsNode(node)) {
+            throw new IllegalArgumentException("Node does not belong to given graph");
+        }
+        return graph.indexOf(node);
+    }
+
+    /**
+     * Upward bidirectional search on given forward and backward states. Each side stops when its smallest key is not
+     * less than the best found path.
+     * @return node with the smallest sum of forward and backward distances or -1 if there is no path
+     * */
+    private int search(SearchState[] pair, int source, int target) {
+        SearchState forward = pair[0];
+        SearchState backward = pair[1];
+        forward.reset();
+        backward.reset();
+        forward.set(source, 0, -1);
+        backward.set(target, 0, -1);
+        forward.heap.insertOrDecrease(source, 0);
+        backward.heap.insertOrDecrease(target, 0);
+
+        long mu = NO_PATH;
+        int meet = -1;
+        boolean forwardDone = false;
+        boolean backwardDone = false;
+
+        while (!forwardDone || !backwardDone) {
+            if (!forwardDone) {
+                if (forward.heap.isEmpty() || forward.heap.peekKey() >= mu) {
+                    forwardDone = true;
+                } else {
+                    int u = forward.heap.poll();
+                    int du = forward.dist(u);
+                    if (backward.visited(u) && (long) du + backward.dist(u) < mu) {
+                        mu = (long) du + backward.dist(u);
+                        meet = u;
+                    }
+                    for (int e = forwardOffsets[u], end = forwardOffsets[u + 1]; e < end; e++) {
+                        relax(forward, u, forwardTargets[e], du + forwardWeights[e]);
+                    }
+                }
+            }
+            if (!backwardDone) {
+                if (backward.heap.isEmpty() || backward.heap.peekKey() >= mu) {
+                    backwardDone = true;
+                } else {
+                    int u = backward.heap.poll();
+                    int du = backward.dist(u);
+                    if (forward.visited(u) && (long) du + forward.dist(u) < mu) {
+                        mu = (long) du + forward.dist(u);
+                        meet = u;
+                    }
+                    for (int e = backwardOffsets[u], end = backwardOffsets[u + 1]; e < end; e++) {
+                        relax(backward, u, backwardSources[e], du + backwardWeights[e]);
+                    }
+                }
+            }
+        }
+        return meet;
+    }
+
+    private static void relax(SearchState state, int from, int to, int distance) {
+        if (distance < state.dist(to)) {
+            state.set(to, distance, from);
+            state.heap.insertOrDecrease(to, distance);
+        }
+    }
+
+    /**
+     * Recursively replaces edge (from, to) by edges of original graph and appends every node after 'from' to result
+     * */
+    private void unpack(int from, int to, List<Graph.Node> result) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = from;
+        stack[size++] = to;
+        while (size > 0) {
+            int b = stack[--size];
+            int a = stack[--size];
+            int middle = middleOf(a, b);
+            if (middle == -1) {
+                result.add(graph.nodeAt(b));
+                continue;
+            }
+            if (size + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[size++] = middle; // second half is processed after the first one
+            stack[size++] = b;
+            stack[size++] = a;
+            stack[size++] = middle;
+        }
+    }
+
+    /**
+     * @return middle node of shortcut (from, to) or -1 if it is an edge of original graph
+     * */
+    private int middleOf(int from, int to) {
+        if (rank[from] < rank[to]) {
+            for (int e = forwardOffsets[from]; e < forwardOffsets[from + 1]; e++) {
+                if (forwardTargets[e] == to) return forwardMiddles[e];
+            }
+        } else {
+            for (int e = backwardOffsets[to]; e < backwardOffsets[to + 1]; e++) {
+                if (backwardSources[e] == from) return backwardMiddles[e];
+            }
+        }
+        throw new IllegalStateException("Edge of the hierarchy is missing");
+    }
+
+    /**
+     * Growable list of edges of one node: neighbour, distance and middle node of shortcut (-1 for original edge)
+     * */
+    private static final class Adjacency {
+        int[] nodes = new int[4];
+        int[] weights = new int[4];
+        int[] middles = new int[4];
+        int size;
+
+        /**
+         * Adds edge to given neighbour or makes existing one shorter
+         * */
+        void addOrImprove(int node, int weight, int middle) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    if (weight < weights[i]) {
+                        weights[i] = weight;
+                        middles[i] = middle;
+                    }
+                    return;
+                }
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                middles = Arrays.copyOf(middles, size * 2);
+            }
+            nodes[size] = node;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+        }
+
+        void remove(int node) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    size--;
+                    nodes[i] = nodes[size];
+                    weights[i] = weights[size];
+                    middles[i] = middles[size];
+                    return;
+                }
+            }
+        }
+
+        void copyTo(int[] nodes, int[] weights, int[] middles, int offset) {
+            System.arraycopy(this.nodes, 0, nodes, offset, size);
+            System.arraycopy(this.weights, 0, weights, offset, size);
+            System.arraycopy(this.middles, 0, middles, offset, size);
+        }
+    }
+
+    /**
+     * Mutable graph that is being contracted. When node is contracted its edge lists stop changing and become
+     * its upward edges in final hierarchy.
+     * */
+    private static final class Preprocessor {
+        final Adjacency[] out;
+        final Adjacency[] in;
+        private final boolean[] contracted;
+        private final int[] deletedNeighbours;
+        private final int[] priority;
+        // Witness searches not used by any task right now, dropped together with preprocessor after build
+        private final ConcurrentLinkedQueue<WitnessSearch> idleWitnesses = new ConcurrentLinkedQueue<>();
+
+        Preprocessor(CsrGraph graph) {
+            int n = graph.nodeCount();
+            this.out = new Adjacency[n];
+            this.in = new Adjacency[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new Adjacency();
+                in[v] = new Adjacency();
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    out[u].addOrImprove(graph.target(e), graph.weight(e), -1);
+                    in[graph.target(e)].addOrImprove(u, graph.weight(e), -1);
+                }
+            }
+            this.contracted = new boolean[n];
+            this.deletedNeighbours = new int[n];
+            this.priority = new int[n];
+        }
+
+        /**
+         * Contracts all nodes. Must be called inside ForkJoinPool, which then runs parallel parts.
+         * @return rank of every node (order of contraction)
+         * */
+        int[] contractAll() {
+            int n = out.length;
+            int[] rank = new int[n];
+            int nextRank = 0;
+            int[] remaining = IntStream.range(0, n).toArray();
+            IntStream.of(remaining).parallel().forEach(this::updatePriority);
+            boolean[] touched = new boolean[n];
+
+            while (remaining.length > 0) {
+                int[] independent = IntStream.of(remaining).parallel().filter(this::isLocalMinimum).toArray();
+                for (int v : independent) {
+                    contracted[v] = true; // witness searches of this round must avoid whole set
+                }
+                Shortcuts[] shortcuts = IntStream.of(independent).parallel()
+                        .mapToObj(v -> {
+                            Shortcuts found = new Shortcuts();
+                            findShortcuts(v, found);
+                            return found;
+                        })
+                        .toArray(Shortcuts[]::new);
+
+                int touchedCount = 0;
+                int[] touchedNodes = new int[16];
+                for (int i = 0; i < independent.length; i++) {
+                    int v = independent[i];
+                    rank[v] = nextRank++;
+                    for (Adjacency list : new Adjacency[]{out[v], in[v]}) {
+                        for (int j = 0; j < list.size; j++) {
+                            int neighbour = list.nodes[j];
+                            out[neighbour].remove(v);
+                            in[neighbour].remove(v);
+                            deletedNeighbours[neighbour]++;
+                            if (!touched[neighbour]) {
+                                touched[neighbour] = true;
+                                if (touchedCount == touchedNodes.length) {
+                                    touchedNodes = Arrays.copyOf(touchedNodes, touchedCount * 2);
+                                }
+                                touchedNodes[touchedCount++] = neighbour;
+                            }
+                        }
+                    }
+                    Shortcuts s = shortcuts[i];
+                    for (int j = 0; j < s.size; j += 3) {
+                        out[s.data[j]].addOrImprove(s.data[j + 1], s.data[j + 2], v);
+                        in[s.data[j + 1]].addOrImprove(s.data[j], s.data[j + 2], v);
+                    }
+                }
+
+                int[] update = Arrays.copyOf(touchedNodes, touchedCount);
+                for (int v : update) {
+                    touched[v] = false;
+                }
+                IntStream.of(update).parallel().forEach(this::updatePriority);
+                remaining = IntStream.of(remaining).filter(v -> !contracted[v]).toArray();
+            }
+            return rank;
+        }
+
+        private void updatePriority(int v) {
+            int shortcuts = findShortcuts(v, null) / 3;
+            priority[v] = shortcuts - out[v].size - in[v].size + deletedNeighbours[v];
+        }
+
+        /**
+         * @return true if node has smaller priority than all its remaining neighbours (ties are broken by index)
+         * */
+        private boolean isLocalMinimum(int v) {
+            for (Adjacency list : new Adjacency[]{out[v], in[v]}) {
+                for (int j = 0; j < list.size; j++) {
+                    int u = list.nodes[j];
+                    if (priority[u] < priority[v] || (priority[u] == priority[v] && u < v)) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Runs witness searches for every incoming neighbour of given node
+         * @param v node that is contracted
+         * @param sink where shortcuts are written as (from, to, distance) triples. Can be null if only count is needed
+         * @return number of ints that describe needed shortcuts (three per shortcut)
+         * */
+        private int findShortcuts(int v, Shortcuts sink) {
+            Adjacency outgoing = out[v];
+            Adjacency incoming = in[v];
+            WitnessSearch witness = idleWitnesses.poll();
+            if (witness == null) witness = new WitnessSearch();
+            try {
+                int maxOut = 0;
+                witness.markTargets(outgoing);
+                for (int j = 0; j < outgoing.size; j++) {
+                    maxOut = Math.max(maxOut, outgoing.weights[j]);
+                }
+
+                int count = 0;
+                for (int i = 0; i < incoming.size; i++) {
+                    int u = incoming.nodes[i];
+                    int viaWeight = incoming.weights[i];
+                    witness.run(u, v, (long) viaWeight + maxOut);
+
+                    for (int j = 0; j < outgoing.size; j++) {
+                        int x = outgoing.nodes[j];
+                        if (x == u) continue;
+                        int shortcut = viaWeight + outgoing.weights[j];
+                        if (witness.state.dist(x) > shortcut) {
+                            count += 3;
+                            if (sink != null) sink.add(u, x, shortcut);
+                        }
+                    }
+                }
+                return count;
+            } finally {
+                idleWitnesses.offer(witness);
+            }
+        }
+
+        /**
+         * Pooled Dijkstra that looks for witness paths, used by one task at a time. It ignores contracted nodes
+         * and node that is contracted now, and stops as soon as all outgoing neighbours of contracted node are settled.
+         * Search is also limited by distance and number of settled nodes, so missing witness only adds extra shortcut.
+         * */
+        private final class WitnessSearch {
+            final SearchState state = new SearchState(out.length);
+            private final int[] targetMark = new int[out.length];
+            private int markGeneration;
+            private int targetCount;
+
+            void markTargets(Adjacency targets) {
+                if (++markGeneration == 0) {
+                    Arrays.fill(targetMark, 0);
+                    markGeneration = 1;
+                }
+                for (int j = 0; j < targets.size; j++) {
+                    targetMark[targets.nodes[j]] = markGeneration;
+                }
+                targetCount = targets.size;
+            }
+
+            void run(int source, int ignored, long maxDistance) {
+                state.reset();
+                state.set(source, 0, -1);
+                state.heap.insertOrDecrease(source, 0);
+                int settled = 0;
+                int unsettledTargets = targetCount;
+                while (!state.heap.isEmpty() && unsettledTargets > 0) {
+                    if (state.heap.peekKey() > maxDistance || ++settled > WITNESS_SETTLE_LIMIT) break;
+                    int a = state.heap.poll();
+                    if (targetMark[a] == markGeneration) unsettledTargets--;
+                    int da = state.dist(a);
+                    Adjacency list = out[a];
+                    for (int j = 0; j < list.size; j++) {
+                        int b = list.nodes[j];
+                        if (b == ignored || contracted[b]) continue;
+                        relax(state, a, b, da + list.weights[j]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable buffer of (from, to, distance) triples
+     * */
+    private static final class Shortcuts {
+        int[] data = new int[12];
+        int size;
+
+        void add(int from, int to, int distance) {
+            if (size + 3 > data.length) data = Arrays.copyOf(data, data.length * 2);
+            data[size++] = from;
+            data[size++] = to;
+            data[size++] = distance;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package pathfinding;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dijkstra algorithm that works on {@link CsrGraph} snapshot.
+ * <p>Distances and previous nodes live in primitive arrays indexed by dense node index, and queue is an indexed
+ * binary heap with decrease-key, so a query allocates nothing but the resulting path. Arrays are kept in a pool
+ * of idle states owned by this instance and reused between queries without O(V) reset. Every query borrows its own
+ * state, which makes instance safe to share between threads, and pooled states go away together with the instance
+ * instead of staying in ThreadLocal maps of worker threads.
+ * */
+public final class CsrDijkstra {
+    private final CsrGraph graph;
+    private final ConcurrentLinkedQueue<SearchState> idle = new ConcurrentLinkedQueue<>();
+
+    CsrDijkstra(CsrGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        this.graph = graph;
+    }
+
+    /**
+     * @return snapshot this instance searches
+     * */
+    CsrGraph graph() {return graph;}
+
+    /**
+     * Method that finds the shortest path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the snapshot
+     * @return List that contains path (sequence of nodes) from starting node to end node or empty list if there is no path
+     * */
+    public List<Graph.Node> findPath(Graph.Node from, Graph.Node to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        SearchState state = acquire();
+        try {
+            search(state, source, target);
+            if (!state.visited(target)) return List.of();
+
+            List<Graph.Node> result = new ArrayList<>();
+            for (int at = target; at != -1; at = state.prev(at)) {
+                result.add(graph.nodeAt(at));
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            release(state);
+        }
+    }
+
+    /**
+     * Method that finds length of the shortest path between two given nodes
+     * @param from starting node
+     * @param to end goal node
+     * @throws IllegalArgumentException if one of provided nodes does not belong to the snapshot
+     * @return sum of distances along the shortest path or -1 if there is no path
+     * */
+    public int distance(Graph.Node from, Graph.Node to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        SearchState state = acquire();
+        try {
+            search(state, source, target);
+            return state.visited(target) ? state.dist(target) : -1;
+        } finally {
+            release(state);
+        }
+    }
+
+    /**
+     * Runs search from given node to all nodes of the snapshot
+     * @param source starting node
+     * @throws IllegalArgumentException if provided node does not belong to the snapshot
+     * @return ShortestPathTree with dense distance and predecessor arrays
+     * */
+    public ShortestPathTree distancesFrom(Graph.Node source) {
+        int from = indexOf(source);
+        int n = graph.nodeCount();
+        int[] distances = new int[n];
+        int[] predecessors = new int[n];
+        SearchState state = acquire();
+        try {
+            search(state, from, -1);
+            for (int v = 0; v < n; v++) {
+                boolean reached = state.visited(v);
+                distances[v] = reached ? state.dist(v) : -1;
+                predecessors[v] = reached ? state.prev(v) : -1;
+            }
+        } finally {
+            release(state);
+        }
+        return new ShortestPathTree(graph, from, distances, predecessors);
+    }
+
+    /**
+     * Computes lengths of the shortest paths between every source and every target in common ForkJoinPool
+     * @param sources starting nodes
+     * @param targets end goal nodes
+     * @throws IllegalArgumentException if sources or targets is null or one of provided nodes does not belong
+     * to the snapshot
+     * @return matrix where [i][j] is distance from i-th source to j-th target or -1 if there is no path
+     * */
+    public int[][] distanceMatrix(List<Graph.Node> sources, List<Graph.Node> targets) {
+        return distanceMatrix(sources, targets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes lengths of the shortest paths between every source and every target. One search is run per source,
+     * and searches of different sources run in parallel on given executor. Number of parallel workers is taken from
+     * the executor: parallelism of {@link ForkJoinPool}, maximum pool size of {@link ThreadPoolExecutor}, or number
+     * of available processors for any other executor.
+     * @param sources starting nodes
+     * @param targets end goal nodes
+     * @param executor executor that runs searches
+     * @throws IllegalArgumentException if sources, targets or executor is null or one of provided nodes does not
+     * belong to the snapshot
+     * @return matrix where [i][j] is distance from i-th source to j-th target or -1 if there is no path
+     * */
+    public int[][] distanceMatrix(List<Graph.Node> sources, List<Graph.Node> targets, Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("Executor cannot be null");
+        return distanceMatrix(sources, targets, executor, parallelismOf(executor));
+    }
+
+    /**
+     * Computes lengths of the shortest paths between every source and every target. One search is run per source.
+     * At most given number of workers is submitted to given executor; every worker takes rows one by one
+     * and runs them on a single search state that is returned to the pool when the worker is done.
+     * @param sources starting nodes
+     * @param targets end goal nodes
+     * @param executor executor that runs searches
+     * @param parallelism maximum number of searches that run at the same time
+     * @throws IllegalArgumentException if sources, targets or executor is null, parallelism is not positive
+     * or one of provided nodes does not belong to the snapshot
+     * @return matrix where [i][j] is distance from i-th source to j-th target or -1 if there is no path
+     * */
+    public int[][] distanceMatrix(List<Graph.Node> sources, List<Graph.Node> targets, Executor executor,
+                                  int parallelism) {
+        if (sources == null || targets == null) throw new IllegalArgumentException("Nodes cannot be null");
+        if (executor == null) throw new IllegalArgumentException("Executor cannot be null");
+        if (parallelism <= 0) throw new IllegalArgumentException("Parallelism must be positive");
+        int[] from = sources.stream().mapToInt(this::indexOf).toArray();
+        int[] to = targets.stream().mapToInt(this::indexOf).toArray();
+        int[][] matrix = new int[from.length][];
+
+        AtomicInteger nextRow = new AtomicInteger();
+        int workerCount = Math.min(from.length, parallelism);
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = CompletableFuture.runAsync(() -> fillRows(matrix, nextRow, from, to), executor);
+        }
+        CompletableFuture.allOf(workers).join();
+        return matrix;
+    }
+
+    private static int parallelismOf(Executor executor) {
+        if (executor instanceof ForkJoinPool pool) return pool.getParallelism();
+        if (executor instanceof ThreadPoolExecutor pool) return pool.getMaximumPoolSize();
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Takes rows of the matrix until none is left and fills them with distances from row source to given targets
+     * */
+    private void fillRows(int[][] matrix, AtomicInteger nextRow, int[] sources, int[] targets) {
+        SearchState state = acquire();
+        try {
+            for (int row; (row = nextRow.getAndIncrement()) < sources.length; ) {
+                search(state, sources[row], -1);
+                int[] result = new int[targets.length];
+                for (int j = 0; j < targets.length; j++) {
+                    result[j] = state.visited(targets[j]) ? state.dist(targets[j]) : -1;
+                }
+                matrix[row] = result;
+            }
+        } finally {
+            release(state);
+        }
+    }
+
+    private SearchState acquire() {
+        SearchState state = idle.poll();
+        return state != null ? state : new SearchState(graph.nodeCount());
+    }
+
+    private void release(SearchState state) {
+        idle.offer(state);
+    }
+
+    private int indexOf(Graph.Node node) {
+        if (!graph.containsNode(node)) {
+            throw new IllegalArgumentException("Node does not belong to given graph");
+        }
+        return graph.indexOf(node);
+    }
+
+    /**
+     * Runs search from source until target is settled. Result of the search is left in given state
+     * @param target index of end goal node or -1 to settle all reachable nodes
+     * */
+    private void search(SearchState state, int source, int target) {
+        state.reset();
+        IndexedMinHeap heap = state.heap;
+
+        state.set(source, 0, -1);
+        heap.insertOrDecrease(source, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            if (u == target) break;
+
+            int du = state.dist(u);
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int v = graph.target(e);
+                int alt = du + graph.weight(e);
+                if (alt < state.dist(v)) {
+                    state.set(v, alt, u);
+                    heap.insertOrDecrease(v, alt);
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package pathfinding;
 
+import graph.CsrGraph;
 import graph.Graph;
 import org.jspecify.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public final class Dijkstra {
     private final Graph graph;
+    // Search over the latest snapshot of graph, replaced when graph changes
+    private CsrDijkstra snapshotSearch;
+
     Dijkstra(Graph graph) {
         if (graph == null) {
             throw new IllegalArgumentException("Graph cannot be null");
@@ -36,8 +41,9 @@ public final class Dijkstra {
         }
         table.get(from).bestDistance = 0;
 
+        // ties are broken by node ID, so the path found does not depend on hash order of adjacency maps
         PriorityQueue<QNode> pq =
-                new PriorityQueue<>(Comparator.comparingInt(QNode::dist));
+                new PriorityQueue<>(Comparator.comparingInt(QNode::dist).thenComparingInt(q -> q.node().getId()));
 
         pq.add(new QNode(from, 0));
 
@@ -75,4 +81,78 @@ public final class Dijkstra {
         Collections.reverse(result);
         return result;
     }
+
+    /**
+     * Runs search from given node to all nodes of the graph. Search runs over {@link graph.CsrGraph} snapshot of the
+     * graph, so distance and predecessor arrays are indexed by node index of that snapshot. Snapshot and its search
+     * state are reused by following calls until graph changes.
+     * @param source starting node
+     * @throws IllegalArgumentException if provided node does not belong to given graph
+     * @return ShortestPathTree with dense distance and predecessor arrays
+     * */
+    public ShortestPathTree distancesFrom(Graph.Node source) {
+        if (!graph.containsNode(source)) {
+            throw new IllegalArgumentException("Node does not belong to given graph");
+        }
+        return snapshotSearch().distancesFrom(source);
+    }
+
+    /**
+     * Computes lengths of the shortest paths between every source and every target in common ForkJoinPool.
+     * Search runs over the cached snapshot of the graph and one search is run per source.
+     * @param sources starting nodes
+     * @param targets end goal nodes
+     * @throws IllegalArgumentException if sources or targets is null or one of provided nodes does not belong
+     * to given graph
+     * @return matrix where [i][j] is distance from i-th source to j-th target or -1 if there is no path
+     * */
+    public int[][] distanceMatrix(List<Graph.Node> sources, List<Graph.Node> targets) {
+        return snapshotSearch().distanceMatrix(sources, targets);
+    }
+
+    /**
+     * Computes lengths of the shortest paths between every source and every target.
+     * Search runs over the cached snapshot of the graph and searches of different sources run in parallel on given
+     * executor, with parallelism taken from the executor as in
+     * {@link CsrDijkstra#distanceMatrix(List, List, Executor)}.
+     * @param sources starting nodes
+     * @param targets end goal nodes
+     * @param executor executor that runs searches
+     * @throws IllegalArgumentException if sources, targets or executor is null or one of provided nodes does not
+     * belong to given graph
+     * @return matrix where [i][j] is distance from i-th source to j-th target or -1 if there is no path
+     * */
+    public int[][] distanceMatrix(List<Graph.Node> sources, List<Graph.Node> targets, Executor executor) {
+        return snapshotSearch().distanceMatrix(sources, targets, executor);
+    }
+
+    /**
+     * Computes lengths of the shortest paths between every source and every target.
+     * Search runs over the cached snapshot of the graph and at most given number of searches run in parallel
+     * on given executor.
+     * @param sources starting nodes
+     * @param targets end goal nodes
+     * @param executor executor that runs searches
+     * @param parallelism maximum number of searches that run at the same time
+     * @throws IllegalArgumentException if sources, targets or executor is null, parallelism is not positive
+     * or one of provided nodes does not belong to given graph
+     * @return matrix where [i][j] is distance from i-th source to j-th target or -1 if there is no path
+     * */
+    public int[][] distanceMatrix(List<Graph.Node> sources, List<Graph.Node> targets, Executor executor,
+                                  int parallelism) {
+        return snapshotSearch().distanceMatrix(sources, targets, executor, parallelism);
+    }
+
+    /**
+     * @return search over current snapshot of the graph. New one is created only if graph changed since last call
+     * */
+    private CsrDijkstra snapshotSearch() {
+        CsrGraph snapshot = graph.freeze();
+        CsrDijkstra search = snapshotSearch;
+        if (search == null || search.graph() != snapshot) {
+            search = new CsrDijkstra(snapshot);
+            snapshotSearch = search;
+        }
+        return search;
+    }
 }
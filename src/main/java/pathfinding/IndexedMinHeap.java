@@ -0,0 +1,118 @@
+package pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over dense node indices with decrease-key support.
+ * <p>Each node can be present in heap at most once. Positions of removed nodes are reset on the way out,
+ * so {@link #clear()} costs O(size) instead of O(capacity) and heap can be reused between searches.
+ * */
+final class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] position;
+    private final long[] keys;
+    private int size;
+
+    /**
+     * @param capacity number of nodes (largest node index + 1)
+     * */
+    IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    boolean isEmpty() {return size == 0;}
+
+    int size() {return size;}
+
+    boolean contains(int node) {return position[node] >= 0;}
+
+    /**
+     * Inserts node with given key or lowers key of node that is already in heap.
+     * Does nothing if node is in heap with key that is not larger than given one.
+     * @param node index of node
+     * @param key priority of node
+     * */
+    void insertOrDecrease(int node, long key) {
+        int pos = position[node];
+        if (pos < 0) {
+            pos = size++;
+            heap[pos] = node;
+            position[node] = pos;
+        } else if (key >= keys[node]) {
+            return;
+        }
+        keys[node] = key;
+        siftUp(pos);
+    }
+
+    /**
+     * @return node with the smallest key without removing it
+     * */
+    int peek() {return heap[0];}
+
+    /**
+     * @return the smallest key in heap
+     * */
+    long peekKey() {return keys[heap[0]];}
+
+    /**
+     * Removes node with the smallest key
+     * @return removed node
+     * */
+    int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes all nodes from heap in O(size)
+     * */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int pos) {
+        int node = heap[pos];
+        long key = keys[node];
+        while (pos > 0) {
+            int parentPos = (pos - 1) >>> 1;
+            int parent = heap[parentPos];
+            if (keys[parent] <= key) break;
+            heap[pos] = parent;
+            position[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = node;
+        position[node] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int node = heap[pos];
+        long key = keys[node];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) child = right;
+            if (key <= keys[heap[child]]) break;
+            heap[pos] = heap[child];
+            position[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = node;
+        position[node] = pos;
+    }
+}
@@ -0,0 +1,165 @@
+package pathfinding;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Landmark distance tables for ALT (A*, Landmarks, Triangle inequality) heuristic.
+ * <p>For every landmark L distances d(L, v) and d(v, L) to all nodes are precomputed. Then for any two nodes
+ * {@code d(v, t) >= d(L, t) - d(L, v)} and {@code d(v, t) >= d(v, L) - d(t, L)}, which gives a lower bound
+ * that does not need coordinates. Tables are stored node-major in primitive arrays, so bound of one node reads
+ * two short contiguous slices.
+ * <p>Landmarks are chosen with farthest-point strategy: every next landmark is the node that is the farthest from
+ * all landmarks chosen so far. Tables describe the graph at the moment of selection. If distances of the graph
+ * are decreased later, bounds may overestimate and landmarks have to be selected again.
+ * */
+public final class Landmarks {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final int[] landmarks;
+    private final int[] fromLandmark;
+    private final int[] toLandmark;
+
+    private Landmarks(CsrGraph graph, int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Selects landmarks on current state of given graph and precomputes distance tables
+     * @param graph graph that contains nodes
+     * @param count number of landmarks. Is limited by number of nodes in graph
+     * @return Landmarks ready to be used in {@link AStar#setLandmarks(Landmarks)}
+     * @throws IllegalArgumentException if graph is null or count is not positive
+     * */
+    public static Landmarks select(Graph graph, int count) {
+        if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+        return select(graph.freeze(), count);
+    }
+
+    /**
+     * Selects landmarks on given snapshot and precomputes distance tables
+     * @param graph snapshot of the graph
+     * @param count number of landmarks. Is limited by number of nodes in graph
+     * @return Landmarks ready to be used in {@link AStar#setLandmarks(Landmarks)}
+     * @throws IllegalArgumentException if graph is null or count is not positive
+     * */
+    public static Landmarks select(CsrGraph graph, int count) {
+        if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (count <= 0) throw new IllegalArgumentException("Count of landmarks must be positive");
+        int n = graph.nodeCount();
+        int k = Math.min(count, n);
+        int[] landmarks = new int[k];
+        int[] fromLandmark = new int[n * k];
+        int[] toLandmark = new int[n * k];
+
+        int[] forward = new int[n];
+        int[] backward = new int[n];
+        int[] closest = new int[n]; // distance to the closest chosen landmark in either direction
+        Arrays.fill(closest, UNREACHABLE);
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+
+        int next = n == 0 ? -1 : farthestFrom(graph, 0, heap, forward);
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            oneToAll(graph, next, false, heap, forward);
+            oneToAll(graph, next, true, heap, backward);
+            for (int v = 0; v < n; v++) {
+                fromLandmark[v * k + i] = forward[v];
+                toLandmark[v * k + i] = backward[v];
+                closest[v] = Math.min(closest[v], Math.min(forward[v], backward[v]));
+            }
+            next = 0;
+            for (int v = 1; v < n; v++) {
+                if (closest[v] > closest[next]) next = v;
+            }
+        }
+        return new Landmarks(graph, landmarks, fromLandmark, toLandmark);
+    }
+
+    /**
+     * @return node that is the farthest reachable one from given node, or given node if nothing is reachable
+     * */
+    private static int farthestFrom(CsrGraph graph, int source, IndexedMinHeap heap, int[] dist) {
+        oneToAll(graph, source, false, heap, dist);
+        int farthest = source;
+        for (int v = 0; v < dist.length; v++) {
+            if (dist[v] != UNREACHABLE && dist[v] > dist[farthest]) farthest = v;
+        }
+        return farthest;
+    }
+
+    /**
+     * Dijkstra from given node to all nodes of the graph
+     * @param reverse if true, incoming edges are followed, so result holds distances to source
+     * @param dist array that is filled with distances, {@link #UNREACHABLE} for unreachable nodes
+     * */
+    private static void oneToAll(CsrGraph graph, int source, boolean reverse, IndexedMinHeap heap, int[] dist) {
+        Arrays.fill(dist, UNREACHABLE);
+        dist[source] = 0;
+        heap.insertOrDecrease(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            int first = reverse ? graph.firstInEdge(u) : graph.firstEdge(u);
+            int end = reverse ? graph.endInEdge(u) : graph.endEdge(u);
+            for (int e = first; e < end; e++) {
+                int v = reverse ? graph.source(e) : graph.target(e);
+                int alt = dist[u] + (reverse ? graph.inWeight(e) : graph.weight(e));
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    heap.insertOrDecrease(v, alt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns chosen landmarks
+     * @return List of landmark nodes
+     * */
+    public List<Graph.Node> landmarks() {
+        List<Graph.Node> result = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks) {
+            result.add(graph.nodeAt(landmark));
+        }
+        return result;
+    }
+
+    /**
+     * Method that calculates landmark lower bound of distance between two nodes
+     * @param current node at which the algorithm currently at
+     * @param goal node that is the end goal of the algorithm
+     * @return lower bound of the shortest path length, or 0 if one of nodes was not in the graph when landmarks were selected
+     * */
+    public int lowerBound(Graph.Node current, Graph.Node goal) {
+        if (!graph.containsNode(current) || !graph.containsNode(goal)) return 0;
+        return lowerBound(graph.indexOf(current), graph.indexOf(goal));
+    }
+
+    private int lowerBound(int v, int t) {
+        int k = landmarks.length;
+        int vRow = v * k;
+        int tRow = t * k;
+        int best = 0;
+        for (int i = 0; i < k; i++) {
+            int fromV = fromLandmark[vRow + i];
+            int fromT = fromLandmark[tRow + i];
+            if (fromV != UNREACHABLE && fromT != UNREACHABLE) {
+                best = Math.max(best, fromT - fromV);
+            }
+            int toV = toLandmark[vRow + i];
+            int toT = toLandmark[tRow + i];
+            if (toV != UNREACHABLE && toT != UNREACHABLE) {
+                best = Math.max(best, toV - toT);
+            }
+        }
+        return best;
+    }
+}
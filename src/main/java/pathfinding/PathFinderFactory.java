@@ -1,5 +1,6 @@
 package pathfinding;
 
+import graph.CsrGraph;
 import graph.Graph;
 
 public class PathFinderFactory {
@@ -7,8 +8,24 @@ public class PathFinderFactory {
         return new Dijkstra(graph);
     }
 
+    public static CsrDijkstra dijkstra(CsrGraph graph) {
+        return new CsrDijkstra(graph);
+    }
+
     public static AStar aStar(Graph graph) {
         return new AStar(graph);
     }
 
+    public static BidirectionalDijkstra bidirectionalDijkstra(CsrGraph graph) {
+        return new BidirectionalDijkstra(graph);
+    }
+
+    public static BidirectionalAStar bidirectionalAStar(CsrGraph graph) {
+        return new BidirectionalAStar(graph);
+    }
+
+    public static ContractionHierarchy contractionHierarchy(CsrGraph graph) {
+        return ContractionHierarchy.build(graph);
+    }
+
 }
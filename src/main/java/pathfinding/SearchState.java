@@ -0,0 +1,55 @@
+package pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Reusable state of single shortest path search over dense node indices.
+ * <p>Instead of resetting distance and previous arrays before every query, each written slot is stamped with
+ * current generation. Slot with outdated stamp is treated as unvisited, so {@link #reset()} is O(1)
+ * (plus clearing of heap leftovers).
+ * */
+final class SearchState {
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final int[] dist;
+    private final int[] prev;
+    private final int[] stamp;
+    private int generation;
+    final IndexedMinHeap heap;
+
+    SearchState(int nodeCount) {
+        this.dist = new int[nodeCount];
+        this.prev = new int[nodeCount];
+        this.stamp = new int[nodeCount];
+        this.heap = new IndexedMinHeap(nodeCount);
+    }
+
+    /**
+     * Prepares state for new search. All nodes become unvisited.
+     * */
+    void reset() {
+        heap.clear();
+        if (++generation == 0) { // wrapped around, old stamps could collide with new generation
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    boolean visited(int node) {return stamp[node] == generation;}
+
+    /**
+     * @return best known distance of node or {@link #UNREACHABLE} if node was not visited by current search
+     * */
+    int dist(int node) {return stamp[node] == generation ? dist[node] : UNREACHABLE;}
+
+    /**
+     * @return previous node on best known path or -1 for search origin
+     * */
+    int prev(int node) {return prev[node];}
+
+    void set(int node, int distance, int previous) {
+        stamp[node] = generation;
+        dist[node] = distance;
+        prev[node] = previous;
+    }
+}
@@ -0,0 +1,74 @@
+package pathfinding;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of one-to-all Dijkstra search: distance from source to every node and predecessor tree.
+ * <p>Arrays are dense and indexed by node index of the {@link CsrGraph} snapshot the search ran on.
+ * Unreachable nodes have distance -1 and predecessor -1, source has distance 0 and predecessor -1.
+ * */
+public final class ShortestPathTree {
+    private final CsrGraph graph;
+    private final int source;
+    private final int[] distances;
+    private final int[] predecessors;
+
+    ShortestPathTree(CsrGraph graph, int source, int[] distances, int[] predecessors) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * @return snapshot that maps node indices of this tree to nodes
+     * */
+    public CsrGraph graph() {return graph;}
+
+    /**
+     * @return source node of the search
+     * */
+    public Graph.Node source() {return graph.nodeAt(source);}
+
+    /**
+     * Returns length of the shortest path from source to given node
+     * @param node end goal node
+     * @return sum of distances along the shortest path or -1 if there is no path
+     * @throws IllegalArgumentException if node does not belong to the snapshot
+     * */
+    public int distanceTo(Graph.Node node) {
+        return distances[graph.indexOf(node)];
+    }
+
+    /**
+     * Returns the shortest path from source to given node
+     * @param node end goal node
+     * @return List that contains path (sequence of nodes) from source to given node or empty list if there is no path
+     * @throws IllegalArgumentException if node does not belong to the snapshot
+     * */
+    public List<Graph.Node> pathTo(Graph.Node node) {
+        int target = graph.indexOf(node);
+        if (distances[target] == -1) return List.of();
+        List<Graph.Node> result = new ArrayList<>();
+        for (int at = target; at != -1; at = predecessors[at]) {
+            result.add(graph.nodeAt(at));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * @return copy of dense distance array, indexed by node index of the snapshot
+     * */
+    public int[] distances() {return distances.clone();}
+
+    /**
+     * @return copy of dense predecessor array, indexed by node index of the snapshot
+     * */
+    public int[] predecessors() {return predecessors.clone();}
+}
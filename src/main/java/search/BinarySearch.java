@@ -1,13 +1,41 @@
 package search;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
 
 /**
  * Implementation of Binary search algorithm.
  * <p>Class contains several overloaded static methods that work with Java Collection framework and primitive arrays
+ * <p>{@code searchAll} methods look up a whole batch of keys in one call, which is much faster than calling
+ * {@code search} in a loop when the array does not fit in cache
  */
 public class BinarySearch {
+    /**
+     * Number of keys of a batch below which parallel batch search does not fork anymore
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final int INTERLEAVE = 16;
+
+    /**
+     * Half-open range of indices [from, to)
+     * @param from index of the first element of range
+     * @param to index right after the last element of range
+     */
+    public record Range(int from, int to) {
+        /**
+         * @return number of elements in range
+         */
+        public int size() {return to - from;}
+
+        /**
+         * @return true if range has no elements
+         */
+        public boolean isEmpty() {return from == to;}
+    }
 
     /**
      * Performs binary search on a list sorted according to the given comparator.
@@ -34,6 +62,18 @@ public class BinarySearch {
         return binarySearchCore(arr.length, mid -> Integer.compare(arr[mid], key));
     }
 
+    /**
+     * Performs binary search on a sorted long array.
+     *
+     * @param arr sorted long array
+     * @param key element of type long index of which needs to be found in given array
+     * @return index of element or -1 if not found
+     * @throws IllegalArgumentException if array's length is zero
+     */
+    public static int search(long[] arr, long key) {
+        return binarySearchCore(arr.length, mid -> Long.compare(arr[mid], key));
+    }
+
     /**
      * Performs binary search on a sorted float array.
      *
@@ -70,6 +110,1200 @@ public class BinarySearch {
         return binarySearchCore(arr.length, mid -> Byte.compare(arr[mid], key));
     }
 
+    /**
+     * Finds insertion point of key in a list sorted according to the given comparator:
+     * index of the first element that is not less than key. List should support fast random access.
+     *
+     * @param list sorted list
+     * @param key element of type T
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return index in range [0, list.size()]
+     * @throws IllegalArgumentException if list or comparator is null
+     */
+    public static <T> int lowerBound(List<? extends T> list, T key, Comparator<? super T> comparator) {
+        if (list == null) throw new IllegalArgumentException("List cannot be null");
+        return lowerBound(list, 0, list.size(), key, comparator);
+    }
+
+    /**
+     * Finds index of the first element that is not less than key in range [fromIndex, toIndex) of a sorted list.
+     *
+     * @param list list, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type T
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if list or comparator is null, or range is invalid
+     */
+    public static <T> int lowerBound(List<? extends T> list, int fromIndex, int toIndex, T key,
+                                     Comparator<? super T> comparator) {
+        checkList(list, comparator, fromIndex, toIndex);
+        return boundCore(fromIndex, toIndex, mid -> comparator.compare(list.get(mid), key) < 0);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in a list sorted according to the given comparator.
+     *
+     * @param list sorted list
+     * @param key element of type T
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return index in range [0, list.size()]
+     * @throws IllegalArgumentException if list or comparator is null
+     */
+    public static <T> int upperBound(List<? extends T> list, T key, Comparator<? super T> comparator) {
+        if (list == null) throw new IllegalArgumentException("List cannot be null");
+        return upperBound(list, 0, list.size(), key, comparator);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in range [fromIndex, toIndex) of a sorted list.
+     *
+     * @param list list, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type T
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if list or comparator is null, or range is invalid
+     */
+    public static <T> int upperBound(List<? extends T> list, int fromIndex, int toIndex, T key,
+                                     Comparator<? super T> comparator) {
+        checkList(list, comparator, fromIndex, toIndex);
+        return boundCore(fromIndex, toIndex, mid -> comparator.compare(list.get(mid), key) <= 0);
+    }
+
+    /**
+     * Finds all elements equal to key in a list sorted according to the given comparator.
+     *
+     * @param list sorted list
+     * @param key element of type T
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if list or comparator is null
+     */
+    public static <T> Range equalRange(List<? extends T> list, T key, Comparator<? super T> comparator) {
+        if (list == null) throw new IllegalArgumentException("List cannot be null");
+        return equalRange(list, 0, list.size(), key, comparator);
+    }
+
+    /**
+     * Finds all elements equal to key in range [fromIndex, toIndex) of a sorted list.
+     *
+     * @param list list, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type T
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if list or comparator is null, or range is invalid
+     */
+    public static <T> Range equalRange(List<? extends T> list, int fromIndex, int toIndex, T key,
+                                       Comparator<? super T> comparator) {
+        int from = lowerBound(list, fromIndex, toIndex, key, comparator);
+        return new Range(from, upperBound(list, from, toIndex, key, comparator));
+    }
+
+    /**
+     * Counts elements of a sorted list that are in closed interval [lo, hi] according to the given comparator.
+     *
+     * @param list sorted list
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if list or comparator is null
+     */
+    public static <T> int countInRange(List<? extends T> list, T lo, T hi, Comparator<? super T> comparator) {
+        if (list == null) throw new IllegalArgumentException("List cannot be null");
+        return countInRange(list, 0, list.size(), lo, hi, comparator);
+    }
+
+    /**
+     * Counts elements in range [fromIndex, toIndex) of a sorted list that are in closed interval [lo, hi].
+     *
+     * @param list list, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @param comparator comparator based on which two elements of type T can be compared
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if list or comparator is null, or range is invalid
+     */
+    public static <T> int countInRange(List<? extends T> list, int fromIndex, int toIndex, T lo, T hi,
+                                       Comparator<? super T> comparator) {
+        checkList(list, comparator, fromIndex, toIndex);
+        if (comparator.compare(hi, lo) < 0) return 0;
+        int from = lowerBound(list, fromIndex, toIndex, lo, comparator);
+        return upperBound(list, from, toIndex, hi, comparator) - from;
+    }
+
+    /**
+     * Finds insertion point of key in a sorted int array: index of the first element that is not less than key.
+     *
+     * @param arr sorted int array
+     * @param key element of type int
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int lowerBound(int[] arr, int key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return lowerBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is not less than key in range [fromIndex, toIndex) of a sorted int array.
+     *
+     * @param arr int array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type int
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int lowerBound(int[] arr, int fromIndex, int toIndex, int key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return lowerBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in a sorted int array.
+     *
+     * @param arr sorted int array
+     * @param key element of type int
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int upperBound(int[] arr, int key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return upperBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in range [fromIndex, toIndex) of a sorted int array.
+     *
+     * @param arr int array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type int
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int upperBound(int[] arr, int fromIndex, int toIndex, int key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return upperBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds all elements equal to key in a sorted int array.
+     *
+     * @param arr sorted int array
+     * @param key element of type int
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null
+     */
+    public static Range equalRange(int[] arr, int key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return equalRange(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds all elements equal to key in range [fromIndex, toIndex) of a sorted int array.
+     *
+     * @param arr int array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type int
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static Range equalRange(int[] arr, int fromIndex, int toIndex, int key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        int from = lowerBoundCore(arr, fromIndex, toIndex, key);
+        return new Range(from, upperBoundCore(arr, from, toIndex, key));
+    }
+
+    /**
+     * Counts elements of a sorted int array that are in closed interval [lo, hi].
+     *
+     * @param arr sorted int array
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int countInRange(int[] arr, int lo, int hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return countInRange(arr, 0, arr.length, lo, hi);
+    }
+
+    /**
+     * Counts elements in range [fromIndex, toIndex) of a sorted int array that are in closed interval [lo, hi].
+     *
+     * @param arr int array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int countInRange(int[] arr, int fromIndex, int toIndex, int lo, int hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        if (hi < lo) return 0;
+        int from = lowerBoundCore(arr, fromIndex, toIndex, lo);
+        return upperBoundCore(arr, from, toIndex, hi) - from;
+    }
+
+    /**
+     * Finds insertion point of key in a sorted long array: index of the first element that is not less than key.
+     *
+     * @param arr sorted long array
+     * @param key element of type long
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int lowerBound(long[] arr, long key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return lowerBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is not less than key in range [fromIndex, toIndex) of a sorted long array.
+     *
+     * @param arr long array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type long
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int lowerBound(long[] arr, int fromIndex, int toIndex, long key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return lowerBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in a sorted long array.
+     *
+     * @param arr sorted long array
+     * @param key element of type long
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int upperBound(long[] arr, long key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return upperBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in range [fromIndex, toIndex) of a sorted long array.
+     *
+     * @param arr long array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type long
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int upperBound(long[] arr, int fromIndex, int toIndex, long key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return upperBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds all elements equal to key in a sorted long array.
+     *
+     * @param arr sorted long array
+     * @param key element of type long
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null
+     */
+    public static Range equalRange(long[] arr, long key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return equalRange(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds all elements equal to key in range [fromIndex, toIndex) of a sorted long array.
+     *
+     * @param arr long array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type long
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static Range equalRange(long[] arr, int fromIndex, int toIndex, long key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        int from = lowerBoundCore(arr, fromIndex, toIndex, key);
+        return new Range(from, upperBoundCore(arr, from, toIndex, key));
+    }
+
+    /**
+     * Counts elements of a sorted long array that are in closed interval [lo, hi].
+     *
+     * @param arr sorted long array
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int countInRange(long[] arr, long lo, long hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return countInRange(arr, 0, arr.length, lo, hi);
+    }
+
+    /**
+     * Counts elements in range [fromIndex, toIndex) of a sorted long array that are in closed interval [lo, hi].
+     *
+     * @param arr long array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int countInRange(long[] arr, int fromIndex, int toIndex, long lo, long hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        if (hi < lo) return 0;
+        int from = lowerBoundCore(arr, fromIndex, toIndex, lo);
+        return upperBoundCore(arr, from, toIndex, hi) - from;
+    }
+
+    /**
+     * Finds insertion point of key in a sorted float array: index of the first element that is not less than key.
+     *
+     * @param arr sorted float array
+     * @param key element of type float
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int lowerBound(float[] arr, float key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return lowerBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is not less than key in range [fromIndex, toIndex) of a sorted float array.
+     *
+     * @param arr float array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type float
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int lowerBound(float[] arr, int fromIndex, int toIndex, float key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return lowerBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in a sorted float array.
+     *
+     * @param arr sorted float array
+     * @param key element of type float
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int upperBound(float[] arr, float key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return upperBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in range [fromIndex, toIndex) of a sorted float array.
+     *
+     * @param arr float array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type float
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int upperBound(float[] arr, int fromIndex, int toIndex, float key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return upperBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds all elements equal to key in a sorted float array.
+     *
+     * @param arr sorted float array
+     * @param key element of type float
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null
+     */
+    public static Range equalRange(float[] arr, float key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return equalRange(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds all elements equal to key in range [fromIndex, toIndex) of a sorted float array.
+     *
+     * @param arr float array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type float
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static Range equalRange(float[] arr, int fromIndex, int toIndex, float key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        int from = lowerBoundCore(arr, fromIndex, toIndex, key);
+        return new Range(from, upperBoundCore(arr, from, toIndex, key));
+    }
+
+    /**
+     * Counts elements of a sorted float array that are in closed interval [lo, hi].
+     *
+     * @param arr sorted float array
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int countInRange(float[] arr, float lo, float hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return countInRange(arr, 0, arr.length, lo, hi);
+    }
+
+    /**
+     * Counts elements in range [fromIndex, toIndex) of a sorted float array that are in closed interval [lo, hi].
+     *
+     * @param arr float array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int countInRange(float[] arr, int fromIndex, int toIndex, float lo, float hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        if (Float.compare(hi, lo) < 0) return 0;
+        int from = lowerBoundCore(arr, fromIndex, toIndex, lo);
+        return upperBoundCore(arr, from, toIndex, hi) - from;
+    }
+
+    /**
+     * Finds insertion point of key in a sorted double array: index of the first element that is not less than key.
+     *
+     * @param arr sorted double array
+     * @param key element of type double
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int lowerBound(double[] arr, double key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return lowerBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is not less than key in range [fromIndex, toIndex) of a sorted double array.
+     *
+     * @param arr double array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type double
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int lowerBound(double[] arr, int fromIndex, int toIndex, double key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return lowerBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in a sorted double array.
+     *
+     * @param arr sorted double array
+     * @param key element of type double
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int upperBound(double[] arr, double key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return upperBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in range [fromIndex, toIndex) of a sorted double array.
+     *
+     * @param arr double array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type double
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int upperBound(double[] arr, int fromIndex, int toIndex, double key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return upperBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds all elements equal to key in a sorted double array.
+     *
+     * @param arr sorted double array
+     * @param key element of type double
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null
+     */
+    public static Range equalRange(double[] arr, double key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return equalRange(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds all elements equal to key in range [fromIndex, toIndex) of a sorted double array.
+     *
+     * @param arr double array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type double
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static Range equalRange(double[] arr, int fromIndex, int toIndex, double key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        int from = lowerBoundCore(arr, fromIndex, toIndex, key);
+        return new Range(from, upperBoundCore(arr, from, toIndex, key));
+    }
+
+    /**
+     * Counts elements of a sorted double array that are in closed interval [lo, hi].
+     *
+     * @param arr sorted double array
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int countInRange(double[] arr, double lo, double hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return countInRange(arr, 0, arr.length, lo, hi);
+    }
+
+    /**
+     * Counts elements in range [fromIndex, toIndex) of a sorted double array that are in closed interval [lo, hi].
+     *
+     * @param arr double array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int countInRange(double[] arr, int fromIndex, int toIndex, double lo, double hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        if (Double.compare(hi, lo) < 0) return 0;
+        int from = lowerBoundCore(arr, fromIndex, toIndex, lo);
+        return upperBoundCore(arr, from, toIndex, hi) - from;
+    }
+
+    /**
+     * Finds insertion point of key in a sorted byte array: index of the first element that is not less than key.
+     *
+     * @param arr sorted byte array
+     * @param key element of type byte
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int lowerBound(byte[] arr, byte key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return lowerBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is not less than key in range [fromIndex, toIndex) of a sorted byte array.
+     *
+     * @param arr byte array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type byte
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int lowerBound(byte[] arr, int fromIndex, int toIndex, byte key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return lowerBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in a sorted byte array.
+     *
+     * @param arr sorted byte array
+     * @param key element of type byte
+     * @return index in range [0, arr.length]
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int upperBound(byte[] arr, byte key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return upperBoundCore(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds index of the first element that is greater than key in range [fromIndex, toIndex) of a sorted byte array.
+     *
+     * @param arr byte array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type byte
+     * @return index in range [fromIndex, toIndex]
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int upperBound(byte[] arr, int fromIndex, int toIndex, byte key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        return upperBoundCore(arr, fromIndex, toIndex, key);
+    }
+
+    /**
+     * Finds all elements equal to key in a sorted byte array.
+     *
+     * @param arr sorted byte array
+     * @param key element of type byte
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null
+     */
+    public static Range equalRange(byte[] arr, byte key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return equalRange(arr, 0, arr.length, key);
+    }
+
+    /**
+     * Finds all elements equal to key in range [fromIndex, toIndex) of a sorted byte array.
+     *
+     * @param arr byte array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param key element of type byte
+     * @return range of equal elements, empty range at insertion point if there are none
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static Range equalRange(byte[] arr, int fromIndex, int toIndex, byte key) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        int from = lowerBoundCore(arr, fromIndex, toIndex, key);
+        return new Range(from, upperBoundCore(arr, from, toIndex, key));
+    }
+
+    /**
+     * Counts elements of a sorted byte array that are in closed interval [lo, hi].
+     *
+     * @param arr sorted byte array
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null
+     */
+    public static int countInRange(byte[] arr, byte lo, byte hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        return countInRange(arr, 0, arr.length, lo, hi);
+    }
+
+    /**
+     * Counts elements in range [fromIndex, toIndex) of a sorted byte array that are in closed interval [lo, hi].
+     *
+     * @param arr byte array, sorted at least in given range
+     * @param fromIndex index of the first element of range, inclusive
+     * @param toIndex index of the last element of range, exclusive
+     * @param lo smallest value of interval, inclusive
+     * @param hi largest value of interval, inclusive
+     * @return number of elements in interval, 0 if lo is greater than hi
+     * @throws IllegalArgumentException if array is null or range is invalid
+     */
+    public static int countInRange(byte[] arr, int fromIndex, int toIndex, byte lo, byte hi) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        checkRange(fromIndex, toIndex, arr.length);
+        if (hi < lo) return 0;
+        int from = lowerBoundCore(arr, fromIndex, toIndex, lo);
+        return upperBoundCore(arr, from, toIndex, hi) - from;
+    }
+
+    /**
+     * Searches many keys in a sorted int array at once.
+     * <p>If keys are sorted, they are merged with the array: every search gallops forward from the previous result.
+     * Otherwise keys are searched in groups of {@value #INTERLEAVE}, one halving step of all searches of a group at
+     * a time, so cache misses of independent searches overlap instead of forming one chain per key.
+     *
+     * @param haystack sorted int array
+     * @param keys keys that have to be found, in any order
+     * @param out array that receives results: out[i] is index of the first occurrence of keys[i] or -1 if not found
+     * @return out
+     * @throws IllegalArgumentException if any array is null or out is shorter than keys
+     */
+    public static int[] searchAll(int[] haystack, int[] keys, int[] out) {
+        if (haystack == null || keys == null || out == null) throw new IllegalArgumentException("Arrays cannot be null");
+        if (out.length < keys.length) throw new IllegalArgumentException("Output array is shorter than keys");
+        searchAllCore(haystack, keys, out, 0, keys.length);
+        return out;
+    }
+
+    /**
+     * Same as {@link #searchAll(int[], int[], int[])}, but batches larger than {@value #PARALLEL_THRESHOLD} keys are
+     * split between processors of common ForkJoinPool.
+     *
+     * @param haystack sorted int array
+     * @param keys keys that have to be found, in any order
+     * @param out array that receives results: out[i] is index of the first occurrence of keys[i] or -1 if not found
+     * @return out
+     * @throws IllegalArgumentException if any array is null or out is shorter than keys
+     */
+    public static int[] parallelSearchAll(int[] haystack, int[] keys, int[] out) {
+        if (haystack == null || keys == null || out == null) throw new IllegalArgumentException("Arrays cannot be null");
+        if (out.length < keys.length) throw new IllegalArgumentException("Output array is shorter than keys");
+        ForkJoinPool.commonPool().invoke(new SearchAllTask(0, keys.length,
+                (from, to) -> searchAllCore(haystack, keys, out, from, to)));
+        return out;
+    }
+
+    /**
+     * Searches many keys in a sorted long array at once.
+     * <p>If keys are sorted, they are merged with the array: every search gallops forward from the previous result.
+     * Otherwise keys are searched in groups of {@value #INTERLEAVE}, one halving step of all searches of a group at
+     * a time, so cache misses of independent searches overlap instead of forming one chain per key.
+     *
+     * @param haystack sorted long array
+     * @param keys keys that have to be found, in any order
+     * @param out array that receives results: out[i] is index of the first occurrence of keys[i] or -1 if not found
+     * @return out
+     * @throws IllegalArgumentException if any array is null or out is shorter than keys
+     */
+    public static int[] searchAll(long[] haystack, long[] keys, int[] out) {
+        if (haystack == null || keys == null || out == null) throw new IllegalArgumentException("Arrays cannot be null");
+        if (out.length < keys.length) throw new IllegalArgumentException("Output array is shorter than keys");
+        searchAllCore(haystack, keys, out, 0, keys.length);
+        return out;
+    }
+
+    /**
+     * Same as {@link #searchAll(long[], long[], int[])}, but batches larger than {@value #PARALLEL_THRESHOLD} keys are
+     * split between processors of common ForkJoinPool.
+     *
+     * @param haystack sorted long array
+     * @param keys keys that have to be found, in any order
+     * @param out array that receives results: out[i] is index of the first occurrence of keys[i] or -1 if not found
+     * @return out
+     * @throws IllegalArgumentException if any array is null or out is shorter than keys
+     */
+    public static int[] parallelSearchAll(long[] haystack, long[] keys, int[] out) {
+        if (haystack == null || keys == null || out == null) throw new IllegalArgumentException("Arrays cannot be null");
+        if (out.length < keys.length) throw new IllegalArgumentException("Output array is shorter than keys");
+        ForkJoinPool.commonPool().invoke(new SearchAllTask(0, keys.length,
+                (from, to) -> searchAllCore(haystack, keys, out, from, to)));
+        return out;
+    }
+
+    /**
+     * Searches many keys in a sorted double array at once.
+     * <p>If keys are sorted, they are merged with the array: every search gallops forward from the previous result.
+     * Otherwise keys are searched in groups of {@value #INTERLEAVE}, one halving step of all searches of a group at
+     * a time, so cache misses of independent searches overlap instead of forming one chain per key.
+     *
+     * @param haystack sorted double array
+     * @param keys keys that have to be found, in any order
+     * @param out array that receives results: out[i] is index of the first occurrence of keys[i] or -1 if not found
+     * @return out
+     * @throws IllegalArgumentException if any array is null or out is shorter than keys
+     */
+    public static int[] searchAll(double[] haystack, double[] keys, int[] out) {
+        if (haystack == null || keys == null || out == null) throw new IllegalArgumentException("Arrays cannot be null");
+        if (out.length < keys.length) throw new IllegalArgumentException("Output array is shorter than keys");
+        searchAllCore(haystack, keys, out, 0, keys.length);
+        return out;
+    }
+
+    /**
+     * Same as {@link #searchAll(double[], double[], int[])}, but batches larger than {@value #PARALLEL_THRESHOLD} keys are
+     * split between processors of common ForkJoinPool.
+     *
+     * @param haystack sorted double array
+     * @param keys keys that have to be found, in any order
+     * @param out array that receives results: out[i] is index of the first occurrence of keys[i] or -1 if not found
+     * @return out
+     * @throws IllegalArgumentException if any array is null or out is shorter than keys
+     */
+    public static int[] parallelSearchAll(double[] haystack, double[] keys, int[] out) {
+        if (haystack == null || keys == null || out == null) throw new IllegalArgumentException("Arrays cannot be null");
+        if (out.length < keys.length) throw new IllegalArgumentException("Output array is shorter than keys");
+        ForkJoinPool.commonPool().invoke(new SearchAllTask(0, keys.length,
+                (from, to) -> searchAllCore(haystack, keys, out, from, to)));
+        return out;
+    }
+
+    private static void checkRange(int fromIndex, int toIndex, int length) {
+        if (fromIndex < 0 || toIndex > length || fromIndex > toIndex) {
+            throw new IllegalArgumentException("Invalid range [" + fromIndex + ", " + toIndex + ")");
+        }
+    }
+
+    private static void checkList(List<?> list, Comparator<?> comparator, int fromIndex, int toIndex) {
+        if (list == null) throw new IllegalArgumentException("List cannot be null");
+        if (comparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        checkRange(fromIndex, toIndex, list.size());
+    }
+
+    /**
+     * Finds the first index in [low, high) for which predicate is false, if predicate is true for some prefix only
+     */
+    private static int boundCore(int low, int high, IntPredicate isBefore) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isBefore.test(mid)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBoundCore(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBoundCore(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < arr[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBoundCore(long[] arr, int low, int high, long key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBoundCore(long[] arr, int low, int high, long key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < arr[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBoundCore(float[] arr, int low, int high, float key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Float.compare(arr[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBoundCore(float[] arr, int low, int high, float key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Float.compare(key, arr[mid]) < 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBoundCore(double[] arr, int low, int high, double key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(arr[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBoundCore(double[] arr, int low, int high, double key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(key, arr[mid]) < 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBoundCore(byte[] arr, int low, int high, byte key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBoundCore(byte[] arr, int low, int high, byte key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < arr[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static void searchAllCore(int[] haystack, int[] keys, int[] out, int from, int to) {
+        int n = haystack.length;
+        if (n == 0) {
+            Arrays.fill(out, from, to, -1);
+            return;
+        }
+        if (isSorted(keys, from, to)) {
+            int position = 0;
+            for (int i = from; i < to; i++) {
+                int key = keys[i];
+                position = gallop(haystack, position, key);
+                out[i] = position < n && haystack[position] == key ? position : -1;
+            }
+            return;
+        }
+        int[] bases = new int[INTERLEAVE];
+        for (int start = from; start < to; start += INTERLEAVE) {
+            int count = Math.min(INTERLEAVE, to - start);
+            Arrays.fill(bases, 0, count, 0);
+            for (int length = n; length > 1; ) {
+                int half = length >>> 1;
+                for (int j = 0; j < count; j++) {
+                    int base = bases[j];
+                    bases[j] = haystack[base + half - 1] < keys[start + j] ? base + half : base;
+                }
+                length -= half;
+            }
+            for (int j = 0; j < count; j++) {
+                int key = keys[start + j];
+                int position = bases[j] + (haystack[bases[j]] < key ? 1 : 0);
+                out[start + j] = position < n && haystack[position] == key ? position : -1;
+            }
+        }
+    }
+
+    private static boolean isSorted(int[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (arr[i] < arr[i - 1]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lower bound of key among elements starting at given index, found by doubling the step until it is overshot
+     */
+    private static int gallop(int[] arr, int from, int key) {
+        int n = arr.length;
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < n && arr[high] < key) {
+            low = high + 1;
+            high = step > n - high ? n : high + step;
+            step <<= 1;
+        }
+        return lowerBoundCore(arr, low, high, key);
+    }
+
+    private static void searchAllCore(long[] haystack, long[] keys, int[] out, int from, int to) {
+        int n = haystack.length;
+        if (n == 0) {
+            Arrays.fill(out, from, to, -1);
+            return;
+        }
+        if (isSorted(keys, from, to)) {
+            int position = 0;
+            for (int i = from; i < to; i++) {
+                long key = keys[i];
+                position = gallop(haystack, position, key);
+                out[i] = position < n && haystack[position] == key ? position : -1;
+            }
+            return;
+        }
+        int[] bases = new int[INTERLEAVE];
+        for (int start = from; start < to; start += INTERLEAVE) {
+            int count = Math.min(INTERLEAVE, to - start);
+            Arrays.fill(bases, 0, count, 0);
+            for (int length = n; length > 1; ) {
+                int half = length >>> 1;
+                for (int j = 0; j < count; j++) {
+                    int base = bases[j];
+                    bases[j] = haystack[base + half - 1] < keys[start + j] ? base + half : base;
+                }
+                length -= half;
+            }
+            for (int j = 0; j < count; j++) {
+                long key = keys[start + j];
+                int position = bases[j] + (haystack[bases[j]] < key ? 1 : 0);
+                out[start + j] = position < n && haystack[position] == key ? position : -1;
+            }
+        }
+    }
+
+    private static boolean isSorted(long[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (arr[i] < arr[i - 1]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lower bound of key among elements starting at given index, found by doubling the step until it is overshot
+     */
+    private static int gallop(long[] arr, int from, long key) {
+        int n = arr.length;
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < n && arr[high] < key) {
+            low = high + 1;
+            high = step > n - high ? n : high + step;
+            step <<= 1;
+        }
+        return lowerBoundCore(arr, low, high, key);
+    }
+
+    private static void searchAllCore(double[] haystack, double[] keys, int[] out, int from, int to) {
+        int n = haystack.length;
+        if (n == 0) {
+            Arrays.fill(out, from, to, -1);
+            return;
+        }
+        if (isSorted(keys, from, to)) {
+            int position = 0;
+            for (int i = from; i < to; i++) {
+                double key = keys[i];
+                position = gallop(haystack, position, key);
+                out[i] = position < n && Double.compare(haystack[position], key) == 0 ? position : -1;
+            }
+            return;
+        }
+        int[] bases = new int[INTERLEAVE];
+        for (int start = from; start < to; start += INTERLEAVE) {
+            int count = Math.min(INTERLEAVE, to - start);
+            Arrays.fill(bases, 0, count, 0);
+            for (int length = n; length > 1; ) {
+                int half = length >>> 1;
+                for (int j = 0; j < count; j++) {
+                    int base = bases[j];
+                    bases[j] = Double.compare(haystack[base + half - 1], keys[start + j]) < 0 ? base + half : base;
+                }
+                length -= half;
+            }
+            for (int j = 0; j < count; j++) {
+                double key = keys[start + j];
+                int position = bases[j] + (Double.compare(haystack[bases[j]], key) < 0 ? 1 : 0);
+                out[start + j] = position < n && Double.compare(haystack[position], key) == 0 ? position : -1;
+            }
+        }
+    }
+
+    private static boolean isSorted(double[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (Double.compare(arr[i], arr[i - 1]) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lower bound of key among elements starting at given index, found by doubling the step until it is overshot
+     */
+    private static int gallop(double[] arr, int from, double key) {
+        int n = arr.length;
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < n && Double.compare(arr[high], key) < 0) {
+            low = high + 1;
+            high = step > n - high ? n : high + step;
+            step <<= 1;
+        }
+        return lowerBoundCore(arr, low, high, key);
+    }
+
+    @SuppressWarnings("serial")
+    private static final class SearchAllTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final RangeAction action;
+
+        SearchAllTask(int from, int to, RangeAction action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                action.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SearchAllTask(from, mid, action), new SearchAllTask(mid, to, action));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeAction {
+        void run(int from, int to);
+    }
+
     @FunctionalInterface
     private interface IntComparatorAtIndex {
         int compareAt(int index);
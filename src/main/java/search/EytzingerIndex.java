@@ -0,0 +1,270 @@
+package search;
+
+/**
+ * Build-once static search index over sorted keys in Eytzinger (breadth-first) layout.
+ * <p>Sorted keys are laid out as implicit binary search tree: root is at position 1 and children of node k are at
+ * 2k and 2k + 1. First levels of the tree, that every search visits, are packed together at the beginning of the
+ * array and stay in cache, and descendants of a node for the next levels are adjacent, so hardware prefetcher
+ * follows the descent instead of jumping across the whole array like classic binary search does.
+ * <p>Search loop has no early exit and descends with {@code k = 2k + (tree[k] < key ? 1 : 0)}, which JIT compiles
+ * to conditional move instead of unpredictable branch. Position of the lower bound is recovered from the path at the end.
+ * Results are reported as indices in original sorted array, so index can replace {@link BinarySearch} directly.
+ * Java has no prefetch intrinsic, so explicit prefetching is not done.
+ * <p>Index stores keys and one int per key that maps tree position back to original index.
+ * */
+public final class EytzingerIndex {
+
+    private EytzingerIndex() {}
+
+    /**
+     * Builds index over sorted int array. Array is copied and can be changed afterwards
+     * @param sorted array sorted in ascending order, may contain duplicates
+     * @return index over given keys
+     * @throws IllegalArgumentException if array is null or not sorted
+     * */
+    public static OfInt of(int[] sorted) {
+        if (sorted == null) throw new IllegalArgumentException("Array cannot be null");
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] > sorted[i]) throw new IllegalArgumentException("Array is not sorted");
+        }
+        return new OfInt(sorted);
+    }
+
+    /**
+     * Builds index over sorted long array. Array is copied and can be changed afterwards
+     * @param sorted array sorted in ascending order, may contain duplicates
+     * @return index over given keys
+     * @throws IllegalArgumentException if array is null or not sorted
+     * */
+    public static OfLong of(long[] sorted) {
+        if (sorted == null) throw new IllegalArgumentException("Array cannot be null");
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] > sorted[i]) throw new IllegalArgumentException("Array is not sorted");
+        }
+        return new OfLong(sorted);
+    }
+
+    /**
+     * Builds index over sorted double array. Array is copied and can be changed afterwards
+     * @param sorted array sorted in ascending order of {@link Double#compare(double, double)}, may contain duplicates
+     * @return index over given keys
+     * @throws IllegalArgumentException if array is null or not sorted
+     * */
+    public static OfDouble of(double[] sorted) {
+        if (sorted == null) throw new IllegalArgumentException("Array cannot be null");
+        long[] keys = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0 && Double.compare(sorted[i - 1], sorted[i]) > 0) {
+                throw new IllegalArgumentException("Array is not sorted");
+            }
+            keys[i] = OfDouble.sortable(sorted[i]);
+        }
+        return new OfDouble(new OfLong(keys));
+    }
+
+    /**
+     * Maps every index of sorted array to its position in the tree
+     * @return array where i-th element is tree position of i-th key
+     * @throws IllegalArgumentException if tree positions would overflow int
+     * */
+    private static int[] layout(int n) {
+        if (n >= 1 << 30) throw new IllegalArgumentException("Index supports less than 2^30 keys");
+        int[] positions = new int[n];
+        layout(positions, 0, 1, n);
+        return positions;
+    }
+
+    /**
+     * In-order traversal of subtree rooted at k, so keys in ascending order land on positions of a search tree.
+     * Recursion depth is the tree height
+     * @return number of keys placed so far
+     * */
+    private static int layout(int[] positions, int next, int k, int n) {
+        if (k > n) return next;
+        next = layout(positions, next, 2 * k, n);
+        positions[next++] = k;
+        return layout(positions, next, 2 * k + 1, n);
+    }
+
+    /**
+     * Converts final position of branch-free descent to tree position of lower bound
+     * @return tree position of first key that is not less than searched one, or 0 if there is no such key
+     * */
+    private static int lowerBoundPosition(int k) {
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Index over int keys
+     * */
+    public static final class OfInt {
+        private final int[] tree;
+        private final int[] original;
+
+        private OfInt(int[] sorted) {
+            int n = sorted.length;
+            this.tree = new int[n + 1];
+            this.original = new int[n + 1];
+            original[0] = n;
+            int[] positions = layout(n);
+            for (int i = 0; i < n; i++) {
+                tree[positions[i]] = sorted[i];
+                original[positions[i]] = i;
+            }
+        }
+
+        /**
+         * @return number of keys
+         * */
+        public int size() {return tree.length - 1;}
+
+        /**
+         * Finds first key that is not less than given one
+         * @param key searched key
+         * @return index of that key in original sorted array, or size() if all keys are less than given one
+         * */
+        public int lowerBound(int key) {
+            return original[position(key)];
+        }
+
+        /**
+         * Finds given key
+         * @param key searched key
+         * @return index of its first occurrence in original sorted array, or -1 if key is absent
+         * */
+        public int indexOf(int key) {
+            int k = position(key);
+            return k != 0 && tree[k] == key ? original[k] : -1;
+        }
+
+        /**
+         * @param key searched key
+         * @return true if index contains given key
+         * */
+        public boolean contains(int key) {
+            int k = position(key);
+            return k != 0 && tree[k] == key;
+        }
+
+        private int position(int key) {
+            int[] tree = this.tree;
+            int n = tree.length - 1;
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (tree[k] < key ? 1 : 0);
+            }
+            return lowerBoundPosition(k);
+        }
+    }
+
+    /**
+     * Index over long keys
+     * */
+    public static final class OfLong {
+        private final long[] tree;
+        private final int[] original;
+
+        private OfLong(long[] sorted) {
+            int n = sorted.length;
+            this.tree = new long[n + 1];
+            this.original = new int[n + 1];
+            original[0] = n;
+            int[] positions = layout(n);
+            for (int i = 0; i < n; i++) {
+                tree[positions[i]] = sorted[i];
+                original[positions[i]] = i;
+            }
+        }
+
+        /**
+         * @return number of keys
+         * */
+        public int size() {return tree.length - 1;}
+
+        /**
+         * Finds first key that is not less than given one
+         * @param key searched key
+         * @return index of that key in original sorted array, or size() if all keys are less than given one
+         * */
+        public int lowerBound(long key) {
+            return original[position(key)];
+        }
+
+        /**
+         * Finds given key
+         * @param key searched key
+         * @return index of its first occurrence in original sorted array, or -1 if key is absent
+         * */
+        public int indexOf(long key) {
+            int k = position(key);
+            return k != 0 && tree[k] == key ? original[k] : -1;
+        }
+
+        /**
+         * @param key searched key
+         * @return true if index contains given key
+         * */
+        public boolean contains(long key) {
+            int k = position(key);
+            return k != 0 && tree[k] == key;
+        }
+
+        private int position(long key) {
+            long[] tree = this.tree;
+            int n = tree.length - 1;
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (tree[k] < key ? 1 : 0);
+            }
+            return lowerBoundPosition(k);
+        }
+    }
+
+    /**
+     * Index over double keys. Keys are stored as longs whose signed order matches
+     * {@link Double#compare(double, double)}, so -0.0 and 0.0 are different keys and NaN is the largest key
+     * */
+    public static final class OfDouble {
+        private final OfLong keys;
+
+        private OfDouble(OfLong keys) {
+            this.keys = keys;
+        }
+
+        static long sortable(double value) {
+            long bits = Double.doubleToLongBits(value);
+            return bits ^ (bits >> 63 & Long.MAX_VALUE);
+        }
+
+        /**
+         * @return number of keys
+         * */
+        public int size() {return keys.size();}
+
+        /**
+         * Finds first key that is not less than given one
+         * @param key searched key
+         * @return index of that key in original sorted array, or size() if all keys are less than given one
+         * */
+        public int lowerBound(double key) {
+            return keys.lowerBound(sortable(key));
+        }
+
+        /**
+         * Finds given key
+         * @param key searched key
+         * @return index of its first occurrence in original sorted array, or -1 if key is absent
+         * */
+        public int indexOf(double key) {
+            return keys.indexOf(sortable(key));
+        }
+
+        /**
+         * @param key searched key
+         * @return true if index contains given key
+         * */
+        public boolean contains(double key) {
+            return keys.contains(sortable(key));
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package search;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Function;
 /**
  * Class that contains static methods for searching largest or smallest value in given list/array
+ * <p>Primitive arrays are scanned by specialized loops. Integer arrays are processed in blocks of {@value #BLOCK}
+ * elements: extreme value of a block is found with {@code Math.max}/{@code Math.min}, which JIT vectorizes,
+ * and the block is searched for its index only when it improves the result. Arrays of at least
+ * {@value #PARALLEL_THRESHOLD} elements are split between processors, and results of chunks are merged so that
+ * the first occurrence of extreme value wins, the same as in sequential scan.
+ * <p>{@code range} methods find both extremes in one pass over the data with about 1.5 comparisons per element.
+ * <p>{@code topK} and {@code bottomK} keep k best elements in a bounded heap of primitives, so they take
+ * O(n log k) time and do not allocate per element. Byte arrays use int heap and float arrays use double heap.
  */
 public class MinMax {
+    /**
+     * Arrays at least this long are scanned by processors of common ForkJoinPool
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int PARALLEL_CHUNK = 1 << 16;
+    private static final int BLOCK = 1 << 10;
 
     /**
      * Inner classes that contain largest element index and value
@@ -17,120 +33,1217 @@ public class MinMax {
     public record ElementByte(int index, byte value) {}
     public record ElementFloat(int index, float value) {}
 
-    @FunctionalInterface
-    private interface IntAt { int get(int i); }
-    @FunctionalInterface
-    private interface LongAt { long get(int i); }
-    @FunctionalInterface
-    private interface DoubleAt { double get(int i); }
-    @FunctionalInterface
-    private interface ByteAt { byte get(int i); }
-    @FunctionalInterface
-    private interface FloatAt { float get(int i); }
+    /**
+     * Inner classes that contain both smallest and largest elements
+     */
+    public record Range<T>(Element<T> min, Element<T> max) {}
+    public record RangeInt(ElementInt min, ElementInt max) {}
+    public record RangeLong(ElementLong min, ElementLong max) {}
+    public record RangeDouble(ElementDouble min, ElementDouble max) {}
+    public record RangeByte(ElementByte min, ElementByte max) {}
+    public record RangeFloat(ElementFloat min, ElementFloat max) {}
 
     //Private enum that helps with control flow (">" or "<" to be used when comparing values)
     private enum Mode { MAX, MIN }
 
     /**
-     * @param size size of given array
-     * @param at functional interface that specifies how to get element at certain index
-     * @param m Mode which should be used in that method (MAX or MIN for finding max or min value respectively)
-     * @return ElementInt record that contains biggest/smallest element's index and value
-     * @throws IllegalArgumentException in case if empty array is provided.
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the largest element in range
      */
-    private static ElementInt coreInt(int size, IntAt at, Mode m) {
-        if (size == 0) throw new IllegalArgumentException("Empty array");
-        int bestIdx = 0;
-        int best = at.get(0);
-        for (int i = 1; i < size; i++) {
-            int v = at.get(i);
-            if ((m == Mode.MAX && v > best) || (m == Mode.MIN && v < best)) {
+    private static int maxIndex(int[] arr, int from, int to) {
+        int bestIdx = from;
+        int best = arr[from];
+        for (int start = from, end; start < to; start = end) {
+            end = to - start > BLOCK ? start + BLOCK : to;
+            int blockBest = arr[start];
+            for (int i = start + 1; i < end; i++) {
+                blockBest = Math.max(blockBest, arr[i]);
+            }
+            if (blockBest > best) {
+                best = blockBest;
+                int i = start;
+                while (arr[i] != blockBest) i++;
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    /**
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the smallest element in range
+     */
+    private static int minIndex(int[] arr, int from, int to) {
+        int bestIdx = from;
+        int best = arr[from];
+        for (int start = from, end; start < to; start = end) {
+            end = to - start > BLOCK ? start + BLOCK : to;
+            int blockBest = arr[start];
+            for (int i = start + 1; i < end; i++) {
+                blockBest = Math.min(blockBest, arr[i]);
+            }
+            if (blockBest < best) {
+                best = blockBest;
+                int i = start;
+                while (arr[i] != blockBest) i++;
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    /**
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the largest element in range
+     */
+    private static int maxIndex(long[] arr, int from, int to) {
+        int bestIdx = from;
+        long best = arr[from];
+        for (int start = from, end; start < to; start = end) {
+            end = to - start > BLOCK ? start + BLOCK : to;
+            long blockBest = arr[start];
+            for (int i = start + 1; i < end; i++) {
+                blockBest = Math.max(blockBest, arr[i]);
+            }
+            if (blockBest > best) {
+                best = blockBest;
+                int i = start;
+                while (arr[i] != blockBest) i++;
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    /**
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the smallest element in range
+     */
+    private static int minIndex(long[] arr, int from, int to) {
+        int bestIdx = from;
+        long best = arr[from];
+        for (int start = from, end; start < to; start = end) {
+            end = to - start > BLOCK ? start + BLOCK : to;
+            long blockBest = arr[start];
+            for (int i = start + 1; i < end; i++) {
+                blockBest = Math.min(blockBest, arr[i]);
+            }
+            if (blockBest < best) {
+                best = blockBest;
+                int i = start;
+                while (arr[i] != blockBest) i++;
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    /**
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the largest element in range
+     */
+    private static int maxIndex(byte[] arr, int from, int to) {
+        int bestIdx = from;
+        byte best = arr[from];
+        for (int start = from, end; start < to; start = end) {
+            end = to - start > BLOCK ? start + BLOCK : to;
+            int blockBest = arr[start];
+            for (int i = start + 1; i < end; i++) {
+                blockBest = Math.max(blockBest, arr[i]);
+            }
+            if (blockBest > best) {
+                best = (byte) blockBest;
+                int i = start;
+                while (arr[i] != blockBest) i++;
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    /**
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the smallest element in range
+     */
+    private static int minIndex(byte[] arr, int from, int to) {
+        int bestIdx = from;
+        byte best = arr[from];
+        for (int start = from, end; start < to; start = end) {
+            end = to - start > BLOCK ? start + BLOCK : to;
+            int blockBest = arr[start];
+            for (int i = start + 1; i < end; i++) {
+                blockBest = Math.min(blockBest, arr[i]);
+            }
+            if (blockBest < best) {
+                best = (byte) blockBest;
+                int i = start;
+                while (arr[i] != blockBest) i++;
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    /**
+     * NaNs are never better than other values. If range starts the array, a NaN first element is the result
+     * like in plain scan, otherwise leading NaNs are skipped so chunks of parallel scan agree with sequential one
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the largest element in range, or -1 if range contains only NaNs
+     */
+    private static int maxIndex(float[] arr, int from, int to) {
+        int bestIdx = from;
+        if (from != 0) {
+            while (bestIdx < to && arr[bestIdx] != arr[bestIdx]) bestIdx++;
+            if (bestIdx == to) return -1;
+        }
+        float best = arr[bestIdx];
+        for (int i = bestIdx + 1; i < to; i++) {
+            float v = arr[i];
+            if (v > best) {
                 best = v;
                 bestIdx = i;
             }
         }
-        return new ElementInt(bestIdx, best);
+        return bestIdx;
     }
+
     /**
-     * @param size size of given array
-     * @param at functional interface that specifies how to get element at certain index
-     * @param m Mode which should be used in that method (MAX or MIN for finding max or min value respectively)
-     * @return ElementLong record that contains biggest/smallest element's index and value
-     * @throws IllegalArgumentException in case if empty array is provided.
+     * NaNs are never better than other values. If range starts the array, a NaN first element is the result
+     * like in plain scan, otherwise leading NaNs are skipped so chunks of parallel scan agree with sequential one
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the smallest element in range, or -1 if range contains only NaNs
      */
-    private static ElementLong coreLong(int size, LongAt at, Mode m) {
-        if (size == 0) throw new IllegalArgumentException("Empty array");
-        int bestIdx = 0;
-        long best = at.get(0);
-        for (int i = 1; i < size; i++) {
-            long v = at.get(i);
-            if ((m == Mode.MAX && v > best) || (m == Mode.MIN && v < best)) {
+    private static int minIndex(float[] arr, int from, int to) {
+        int bestIdx = from;
+        if (from != 0) {
+            while (bestIdx < to && arr[bestIdx] != arr[bestIdx]) bestIdx++;
+            if (bestIdx == to) return -1;
+        }
+        float best = arr[bestIdx];
+        for (int i = bestIdx + 1; i < to; i++) {
+            float v = arr[i];
+            if (v < best) {
                 best = v;
                 bestIdx = i;
             }
         }
-        return new ElementLong(bestIdx, best);
+        return bestIdx;
     }
+
     /**
-     * @param size size of given array
-     * @param at functional interface that specifies how to get element at certain index
-     * @param m Mode which should be used in that method (MAX or MIN for finding max or min value respectively)
-     * @return ElementDouble record that contains biggest/smallest element's index and value
-     * @throws IllegalArgumentException in case if empty array is provided.
+     * NaNs are never better than other values. If range starts the array, a NaN first element is the result
+     * like in plain scan, otherwise leading NaNs are skipped so chunks of parallel scan agree with sequential one
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the largest element in range, or -1 if range contains only NaNs
      */
-    private static ElementDouble coreDouble(int size, DoubleAt at, Mode m) {
-        if (size == 0) throw new IllegalArgumentException("Empty array");
-        int bestIdx = 0;
-        double best = at.get(0);
-        for (int i = 1; i < size; i++) {
-            double v = at.get(i);
-            if ((m == Mode.MAX && v > best) || (m == Mode.MIN && v < best)) {
+    private static int maxIndex(double[] arr, int from, int to) {
+        int bestIdx = from;
+        if (from != 0) {
+            while (bestIdx < to && arr[bestIdx] != arr[bestIdx]) bestIdx++;
+            if (bestIdx == to) return -1;
+        }
+        double best = arr[bestIdx];
+        for (int i = bestIdx + 1; i < to; i++) {
+            double v = arr[i];
+            if (v > best) {
                 best = v;
                 bestIdx = i;
             }
         }
-        return new ElementDouble(bestIdx, best);
+        return bestIdx;
     }
+
     /**
-     * @param size size of given array
-     * @param at functional interface that specifies how to get element at certain index
-     * @param m Mode which should be used in that method (MAX or MIN for finding max or min value respectively)
-     * @return ElementByte record that contains biggest/smallest element's index and value
-     * @throws IllegalArgumentException in case if empty array is provided.
+     * NaNs are never better than other values. If range starts the array, a NaN first element is the result
+     * like in plain scan, otherwise leading NaNs are skipped so chunks of parallel scan agree with sequential one
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return index of the first occurrence of the smallest element in range, or -1 if range contains only NaNs
      */
-    private static ElementByte coreByte(int size, ByteAt at, Mode m) {
-        if (size == 0) throw new IllegalArgumentException("Empty array");
-        int bestIdx = 0;
-        byte best = at.get(0);
-        for (int i = 1; i < size; i++) {
-            byte v = at.get(i);
-            if ((m == Mode.MAX && v > best) || (m == Mode.MIN && v < best)) {
+    private static int minIndex(double[] arr, int from, int to) {
+        int bestIdx = from;
+        if (from != 0) {
+            while (bestIdx < to && arr[bestIdx] != arr[bestIdx]) bestIdx++;
+            if (bestIdx == to) return -1;
+        }
+        double best = arr[bestIdx];
+        for (int i = bestIdx + 1; i < to; i++) {
+            double v = arr[i];
+            if (v < best) {
                 best = v;
                 bestIdx = i;
             }
         }
-        return new ElementByte(bestIdx, best);
+        return bestIdx;
     }
+
     /**
-     * @param size size of given array
-     * @param at functional interface that specifies how to get element at certain index
-     * @param m Mode which should be used in that method (MAX or MIN for finding max or min value respectively)
-     * @return ElementFloat record that contains biggest/smallest element's index and value
+     * Pairwise scan: elements are taken two at a time, the smaller one of a pair is compared only with current
+     * minimum and the larger one only with current maximum, which takes about 1.5 comparisons per element
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return indices of the first occurrences of the smallest and largest elements packed by {@link #pack(int, int)}
+     */
+    static long rangeIndices(int[] arr, int from, int to) {
+        int minIdx = from;
+        int maxIdx = minIdx;
+        int min = arr[minIdx];
+        int max = min;
+        int i = minIdx + 1;
+        for (; i + 1 < to; i += 2) {
+            int x = arr[i];
+            int y = arr[i + 1];
+            if (x < y) {
+                if (x < min) {min = x; minIdx = i;}
+                if (y > max) {max = y; maxIdx = i + 1;}
+            } else if (x > y) {
+                if (y < min) {min = y; minIdx = i + 1;}
+                if (x > max) {max = x; maxIdx = i;}
+            } else {
+                if (x < min) {min = x; minIdx = i;}
+                if (x > max) {max = x; maxIdx = i;}
+            }
+        }
+        if (i < to) {
+            int v = arr[i];
+            if (v < min) {min = v; minIdx = i;}
+            if (v > max) {max = v; maxIdx = i;}
+        }
+        return pack(minIdx, maxIdx);
+    }
+
+    /**
+     * Pairwise scan: elements are taken two at a time, the smaller one of a pair is compared only with current
+     * minimum and the larger one only with current maximum, which takes about 1.5 comparisons per element
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return indices of the first occurrences of the smallest and largest elements packed by {@link #pack(int, int)}
+     */
+    static long rangeIndices(long[] arr, int from, int to) {
+        int minIdx = from;
+        int maxIdx = minIdx;
+        long min = arr[minIdx];
+        long max = min;
+        int i = minIdx + 1;
+        for (; i + 1 < to; i += 2) {
+            long x = arr[i];
+            long y = arr[i + 1];
+            if (x < y) {
+                if (x < min) {min = x; minIdx = i;}
+                if (y > max) {max = y; maxIdx = i + 1;}
+            } else if (x > y) {
+                if (y < min) {min = y; minIdx = i + 1;}
+                if (x > max) {max = x; maxIdx = i;}
+            } else {
+                if (x < min) {min = x; minIdx = i;}
+                if (x > max) {max = x; maxIdx = i;}
+            }
+        }
+        if (i < to) {
+            long v = arr[i];
+            if (v < min) {min = v; minIdx = i;}
+            if (v > max) {max = v; maxIdx = i;}
+        }
+        return pack(minIdx, maxIdx);
+    }
+
+    /**
+     * Pairwise scan: elements are taken two at a time, the smaller one of a pair is compared only with current
+     * minimum and the larger one only with current maximum, which takes about 1.5 comparisons per element
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return indices of the first occurrences of the smallest and largest elements packed by {@link #pack(int, int)}
+     */
+    private static long rangeIndices(byte[] arr, int from, int to) {
+        int minIdx = from;
+        int maxIdx = minIdx;
+        byte min = arr[minIdx];
+        byte max = min;
+        int i = minIdx + 1;
+        for (; i + 1 < to; i += 2) {
+            byte x = arr[i];
+            byte y = arr[i + 1];
+            if (x < y) {
+                if (x < min) {min = x; minIdx = i;}
+                if (y > max) {max = y; maxIdx = i + 1;}
+            } else if (x > y) {
+                if (y < min) {min = y; minIdx = i + 1;}
+                if (x > max) {max = x; maxIdx = i;}
+            } else {
+                if (x < min) {min = x; minIdx = i;}
+                if (x > max) {max = x; maxIdx = i;}
+            }
+        }
+        if (i < to) {
+            byte v = arr[i];
+            if (v < min) {min = v; minIdx = i;}
+            if (v > max) {max = v; maxIdx = i;}
+        }
+        return pack(minIdx, maxIdx);
+    }
+
+    /**
+     * Pairwise scan: elements are taken two at a time, the smaller one of a pair is compared only with current
+     * minimum and the larger one only with current maximum, which takes about 1.5 comparisons per element
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return indices of the first occurrences of the smallest and largest elements packed by {@link #pack(int, int)},
+     * or -1 if range contains only NaNs. NaNs are treated the same way as by {@link #maxIndex(float[], int, int)}
+     */
+    private static long rangeIndices(float[] arr, int from, int to) {
+        int minIdx = from;
+        if (from != 0) {
+            while (minIdx < to && arr[minIdx] != arr[minIdx]) minIdx++;
+            if (minIdx == to) return -1;
+        }
+        int maxIdx = minIdx;
+        float min = arr[minIdx];
+        float max = min;
+        int i = minIdx + 1;
+        for (; i + 1 < to; i += 2) {
+            float x = arr[i];
+            float y = arr[i + 1];
+            if (x < y) {
+                if (x < min) {min = x; minIdx = i;}
+                if (y > max) {max = y; maxIdx = i + 1;}
+            } else if (x > y) {
+                if (y < min) {min = y; minIdx = i + 1;}
+                if (x > max) {max = x; maxIdx = i;}
+            } else {
+                // equal values or at least one NaN
+                if (x < min) {min = x; minIdx = i;}
+                if (x > max) {max = x; maxIdx = i;}
+                if (y < min) {min = y; minIdx = i + 1;}
+                if (y > max) {max = y; maxIdx = i + 1;}
+            }
+        }
+        if (i < to) {
+            float v = arr[i];
+            if (v < min) {min = v; minIdx = i;}
+            if (v > max) {max = v; maxIdx = i;}
+        }
+        return pack(minIdx, maxIdx);
+    }
+
+    /**
+     * Pairwise scan: elements are taken two at a time, the smaller one of a pair is compared only with current
+     * minimum and the larger one only with current maximum, which takes about 1.5 comparisons per element
+     * @param arr non-empty array
+     * @param from index of the first element of range, inclusive
+     * @param to index of the last element of range, exclusive
+     * @return indices of the first occurrences of the smallest and largest elements packed by {@link #pack(int, int)},
+     * or -1 if range contains only NaNs. NaNs are treated the same way as by {@link #maxIndex(double[], int, int)}
+     */
+    private static long rangeIndices(double[] arr, int from, int to) {
+        int minIdx = from;
+        if (from != 0) {
+            while (minIdx < to && arr[minIdx] != arr[minIdx]) minIdx++;
+            if (minIdx == to) return -1;
+        }
+        int maxIdx = minIdx;
+        double min = arr[minIdx];
+        double max = min;
+        int i = minIdx + 1;
+        for (; i + 1 < to; i += 2) {
+            double x = arr[i];
+            double y = arr[i + 1];
+            if (x < y) {
+                if (x < min) {min = x; minIdx = i;}
+                if (y > max) {max = y; maxIdx = i + 1;}
+            } else if (x > y) {
+                if (y < min) {min = y; minIdx = i + 1;}
+                if (x > max) {max = x; maxIdx = i;}
+            } else {
+                // equal values or at least one NaN
+                if (x < min) {min = x; minIdx = i;}
+                if (x > max) {max = x; maxIdx = i;}
+                if (y < min) {min = y; minIdx = i + 1;}
+                if (y > max) {max = y; maxIdx = i + 1;}
+            }
+        }
+        if (i < to) {
+            double v = arr[i];
+            if (v < min) {min = v; minIdx = i;}
+            if (v > max) {max = v; maxIdx = i;}
+        }
+        return pack(minIdx, maxIdx);
+    }
+
+    /**
+     * @param reversed if true, order of values is reversed, so heap keeps the smallest values
+     * @return heap with k best elements of range [from, to)
+     */
+    private static IntHeap bestOf(int[] arr, int from, int to, int k, boolean reversed) {
+        IntHeap heap = new IntHeap(k, to - from);
+        if (reversed) {
+            for (int i = from; i < to; i++) {
+                int v = ~arr[i];
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                int v = arr[i];
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        }
+        return heap;
+    }
+
+    private static IntHeap bestOf(int[] arr, int k, boolean reversed, boolean parallel) {
+        if (k < 0) throw new IllegalArgumentException("k cannot be negative");
+        if (k == 0) return new IntHeap(0, 0);
+        // with k as large as a chunk every leaf keeps all of its elements and merges cost more than the scan
+        if (!parallel || arr.length <= PARALLEL_CHUNK || k >= PARALLEL_CHUNK) {
+            return bestOf(arr, 0, arr.length, k, reversed);
+        }
+        return ForkJoinPool.commonPool().invoke(
+                new HeapTask<IntHeap>(0, arr.length, (from, to) -> bestOf(arr, from, to, k, reversed)));
+    }
+
+    private static ElementInt[] intElements(IntHeap heap, boolean reversed) {
+        int n = heap.sort();
+        ElementInt[] result = new ElementInt[n];
+        for (int i = 0; i < n; i++) {
+            int v = heap.values[i];
+            result[i] = new ElementInt(heap.indices[i], reversed ? ~v : v);
+        }
+        return result;
+    }
+
+    /**
+     * @param reversed if true, order of values is reversed, so heap keeps the smallest values
+     * @return heap with k best elements of range [from, to)
+     */
+    private static LongHeap bestOf(long[] arr, int from, int to, int k, boolean reversed) {
+        LongHeap heap = new LongHeap(k, to - from);
+        if (reversed) {
+            for (int i = from; i < to; i++) {
+                long v = ~arr[i];
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                long v = arr[i];
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        }
+        return heap;
+    }
+
+    private static LongHeap bestOf(long[] arr, int k, boolean reversed, boolean parallel) {
+        if (k < 0) throw new IllegalArgumentException("k cannot be negative");
+        if (k == 0) return new LongHeap(0, 0);
+        // with k as large as a chunk every leaf keeps all of its elements and merges cost more than the scan
+        if (!parallel || arr.length <= PARALLEL_CHUNK || k >= PARALLEL_CHUNK) {
+            return bestOf(arr, 0, arr.length, k, reversed);
+        }
+        return ForkJoinPool.commonPool().invoke(
+                new HeapTask<LongHeap>(0, arr.length, (from, to) -> bestOf(arr, from, to, k, reversed)));
+    }
+
+    private static ElementLong[] longElements(LongHeap heap, boolean reversed) {
+        int n = heap.sort();
+        ElementLong[] result = new ElementLong[n];
+        for (int i = 0; i < n; i++) {
+            long v = heap.values[i];
+            result[i] = new ElementLong(heap.indices[i], reversed ? ~v : v);
+        }
+        return result;
+    }
+
+    /**
+     * @param reversed if true, order of values is reversed, so heap keeps the smallest values
+     * @return heap with k best elements of range [from, to), NaNs are skipped
+     */
+    private static DoubleHeap bestOf(double[] arr, int from, int to, int k, boolean reversed) {
+        DoubleHeap heap = new DoubleHeap(k, to - from);
+        if (reversed) {
+            for (int i = from; i < to; i++) {
+                double v = -arr[i];
+                if (v != v) continue;
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                double v = arr[i];
+                if (v != v) continue;
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        }
+        return heap;
+    }
+
+    private static DoubleHeap bestOf(double[] arr, int k, boolean reversed, boolean parallel) {
+        if (k < 0) throw new IllegalArgumentException("k cannot be negative");
+        if (k == 0) return new DoubleHeap(0, 0);
+        // with k as large as a chunk every leaf keeps all of its elements and merges cost more than the scan
+        if (!parallel || arr.length <= PARALLEL_CHUNK || k >= PARALLEL_CHUNK) {
+            return bestOf(arr, 0, arr.length, k, reversed);
+        }
+        return ForkJoinPool.commonPool().invoke(
+                new HeapTask<DoubleHeap>(0, arr.length, (from, to) -> bestOf(arr, from, to, k, reversed)));
+    }
+
+    private static ElementDouble[] doubleElements(DoubleHeap heap, boolean reversed) {
+        int n = heap.sort();
+        ElementDouble[] result = new ElementDouble[n];
+        for (int i = 0; i < n; i++) {
+            double v = heap.values[i];
+            result[i] = new ElementDouble(heap.indices[i], reversed ? -v : v);
+        }
+        return result;
+    }
+
+    /**
+     * @param reversed if true, order of values is reversed, so heap keeps the smallest values
+     * @return heap with k best elements of range [from, to)
+     */
+    private static IntHeap bestOf(byte[] arr, int from, int to, int k, boolean reversed) {
+        IntHeap heap = new IntHeap(k, to - from);
+        if (reversed) {
+            for (int i = from; i < to; i++) {
+                int v = ~arr[i];
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                int v = arr[i];
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        }
+        return heap;
+    }
+
+    private static IntHeap bestOf(byte[] arr, int k, boolean reversed, boolean parallel) {
+        if (k < 0) throw new IllegalArgumentException("k cannot be negative");
+        if (k == 0) return new IntHeap(0, 0);
+        // with k as large as a chunk every leaf keeps all of its elements and merges cost more than the scan
+        if (!parallel || arr.length <= PARALLEL_CHUNK || k >= PARALLEL_CHUNK) {
+            return bestOf(arr, 0, arr.length, k, reversed);
+        }
+        return ForkJoinPool.commonPool().invoke(
+                new HeapTask<IntHeap>(0, arr.length, (from, to) -> bestOf(arr, from, to, k, reversed)));
+    }
+
+    private static ElementByte[] byteElements(IntHeap heap, boolean reversed) {
+        int n = heap.sort();
+        ElementByte[] result = new ElementByte[n];
+        for (int i = 0; i < n; i++) {
+            int v = heap.values[i];
+            result[i] = new ElementByte(heap.indices[i], (byte) (reversed ? ~v : v));
+        }
+        return result;
+    }
+
+    /**
+     * @param reversed if true, order of values is reversed, so heap keeps the smallest values
+     * @return heap with k best elements of range [from, to), NaNs are skipped
+     */
+    private static DoubleHeap bestOf(float[] arr, int from, int to, int k, boolean reversed) {
+        DoubleHeap heap = new DoubleHeap(k, to - from);
+        if (reversed) {
+            for (int i = from; i < to; i++) {
+                double v = -arr[i];
+                if (v != v) continue;
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                double v = arr[i];
+                if (v != v) continue;
+                if (heap.accepts(v)) heap.offer(v, i);
+            }
+        }
+        return heap;
+    }
+
+    private static DoubleHeap bestOf(float[] arr, int k, boolean reversed, boolean parallel) {
+        if (k < 0) throw new IllegalArgumentException("k cannot be negative");
+        if (k == 0) return new DoubleHeap(0, 0);
+        // with k as large as a chunk every leaf keeps all of its elements and merges cost more than the scan
+        if (!parallel || arr.length <= PARALLEL_CHUNK || k >= PARALLEL_CHUNK) {
+            return bestOf(arr, 0, arr.length, k, reversed);
+        }
+        return ForkJoinPool.commonPool().invoke(
+                new HeapTask<DoubleHeap>(0, arr.length, (from, to) -> bestOf(arr, from, to, k, reversed)));
+    }
+
+    private static ElementFloat[] floatElements(DoubleHeap heap, boolean reversed) {
+        int n = heap.sort();
+        ElementFloat[] result = new ElementFloat[n];
+        for (int i = 0; i < n; i++) {
+            double v = heap.values[i];
+            result[i] = new ElementFloat(heap.indices[i], (float) (reversed ? -v : v));
+        }
+        return result;
+    }
+
+    /**
+     * @param keyComparator comparator of keys, reversed one for the smallest elements
+     * @return k best elements of the collection, from the best to the worst
+     */
+    private static <T, K> List<Element<T>> bestOf(
+            Iterable<? extends T> items,
+            Function<? super T, ? extends K> keyExtractor,
+            Comparator<? super K> keyComparator,
+            int k
+    ) {
+        if (k < 0) throw new IllegalArgumentException("k cannot be negative");
+        if (k == 0) return List.of();
+        // min-heap by key of the k best elements seen so far, root is the worst of them
+        Object[] heapItems = new Object[Math.min(k, 16)];
+        Object[] heapKeys = new Object[heapItems.length];
+        int[] heapIndices = new int[heapItems.length];
+        int size = 0;
+        int idx = 0;
+        for (T item : items) {
+            K key = keyExtractor.apply(item);
+            if (size == k) {
+                @SuppressWarnings("unchecked") K rootKey = (K) heapKeys[0];
+                if (keyComparator.compare(key, rootKey) > 0) {
+                    siftDown(heapItems, heapKeys, heapIndices, size, item, key, idx, keyComparator);
+                }
+            } else {
+                if (size == heapItems.length) {
+                    int capacity = (int) Math.min(k, 2L * size);
+                    heapItems = Arrays.copyOf(heapItems, capacity);
+                    heapKeys = Arrays.copyOf(heapKeys, capacity);
+                    heapIndices = Arrays.copyOf(heapIndices, capacity);
+                }
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!worse(key, idx, heapKeys[parent], heapIndices[parent], keyComparator)) break;
+                    heapItems[i] = heapItems[parent];
+                    heapKeys[i] = heapKeys[parent];
+                    heapIndices[i] = heapIndices[parent];
+                    i = parent;
+                }
+                heapItems[i] = item;
+                heapKeys[i] = key;
+                heapIndices[i] = idx;
+            }
+            idx++;
+        }
+        Element<T>[] result = newElements(size);
+        for (int last = size - 1; last >= 0; last--) {
+            @SuppressWarnings("unchecked") T worst = (T) heapItems[0];
+            result[last] = new Element<>(heapIndices[0], worst);
+            @SuppressWarnings("unchecked") T item = (T) heapItems[last];
+            @SuppressWarnings("unchecked") K key = (K) heapKeys[last];
+            siftDown(heapItems, heapKeys, heapIndices, last, item, key, heapIndices[last], keyComparator);
+        }
+        return Arrays.asList(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Element<T>[] newElements(int size) {
+        return (Element<T>[]) new Element<?>[size];
+    }
+
+    private static <K> void siftDown(Object[] items, Object[] keys, int[] indices, int size,
+                                     Object item, K key, int index, Comparator<? super K> keyComparator) {
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && worse(keys[right], indices[right], keys[child], indices[child], keyComparator)) {
+                child = right;
+            }
+            if (!worse(keys[child], indices[child], key, index, keyComparator)) break;
+            items[i] = items[child];
+            keys[i] = keys[child];
+            indices[i] = indices[child];
+            i = child;
+        }
+        if (size > 0) {
+            items[i] = item;
+            keys[i] = key;
+            indices[i] = index;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> boolean worse(Object key, int index, Object otherKey, int otherIndex,
+                                     Comparator<? super K> keyComparator) {
+        int c = keyComparator.compare((K) key, (K) otherKey);
+        return c < 0 || c == 0 && index > otherIndex;
+    }
+
+    /**
+     * Finds both extreme elements of the whole array, in parallel if array is long enough
+     * @param size length of the array
+     * @param kernel scan of a range that returns packed indices of its extreme elements or -1
+     * @param smaller tells whether element at the first index is strictly smaller than element at the second one
+     * @param larger tells whether element at the first index is strictly larger than element at the second one
+     * @return indices of the smallest and largest elements packed by {@link #pack(int, int)}
      * @throws IllegalArgumentException in case if empty array is provided.
      */
-    private static ElementFloat coreFloat(int size, FloatAt at, Mode m) {
+    private static long rangeIndices(int size, PairKernel kernel, IndexOrder smaller, IndexOrder larger) {
         if (size == 0) throw new IllegalArgumentException("Empty array");
-        int bestIdx = 0;
-        float best = at.get(0);
-        for (int i = 1; i < size; i++) {
-            float v = at.get(i);
-            if ((m == Mode.MAX && v > best) || (m == Mode.MIN && v < best)) {
-                best = v;
-                bestIdx = i;
+        if (size < PARALLEL_THRESHOLD) return kernel.find(0, size);
+        return ForkJoinPool.commonPool().invoke(new RangeTask(0, size, kernel, smaller, larger));
+    }
+
+    private static long pack(int minIdx, int maxIdx) {
+        return (long) minIdx << 32 | maxIdx & 0xFFFFFFFFL;
+    }
+
+    static int minOf(long indices) {return (int) (indices >>> 32);}
+
+    static int maxOf(long indices) {return (int) indices;}
+
+    /**
+     * Finds extreme element of the whole array, in parallel if array is long enough
+     * @param size length of the array
+     * @param kernel scan of a range that returns index of its extreme element or -1
+     * @param better tells whether element at the first index is strictly better than element at the second one
+     * @return index of the extreme element
+     * @throws IllegalArgumentException in case if empty array is provided.
+     */
+    private static int extremeIndex(int size, RangeKernel kernel, IndexOrder better) {
+        if (size == 0) throw new IllegalArgumentException("Empty array");
+        if (size < PARALLEL_THRESHOLD) return kernel.find(0, size);
+        return ForkJoinPool.commonPool().invoke(new ExtremeTask(0, size, kernel, better));
+    }
+
+    @FunctionalInterface
+    private interface RangeKernel { int find(int from, int to); }
+    @FunctionalInterface
+    private interface IndexOrder { boolean isBetter(int candidate, int best); }
+
+    /**
+     * Halves the range until it is small enough for one scan. Left result wins ties, so the first occurrence is kept
+     */
+    @SuppressWarnings("serial")
+    private static final class ExtremeTask extends RecursiveTask<Integer> {
+        private final int from;
+        private final int to;
+        private final RangeKernel kernel;
+        private final IndexOrder better;
+
+        ExtremeTask(int from, int to, RangeKernel kernel, IndexOrder better) {
+            this.from = from;
+            this.to = to;
+            this.kernel = kernel;
+            this.better = better;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_CHUNK) return kernel.find(from, to);
+            int mid = (from + to) >>> 1;
+            ExtremeTask left = new ExtremeTask(from, mid, kernel, better);
+            left.fork();
+            int right = new ExtremeTask(mid, to, kernel, better).compute();
+            int best = left.join();
+            if (best < 0) return right;
+            return right >= 0 && better.isBetter(right, best) ? right : best;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PairKernel { long find(int from, int to); }
+
+    /**
+     * Same as {@link ExtremeTask}, but tracks smallest and largest elements at once
+     */
+    @SuppressWarnings("serial")
+    private static final class RangeTask extends RecursiveTask<Long> {
+        private final int from;
+        private final int to;
+        private final PairKernel kernel;
+        private final IndexOrder smaller;
+        private final IndexOrder larger;
+
+        RangeTask(int from, int to, PairKernel kernel, IndexOrder smaller, IndexOrder larger) {
+            this.from = from;
+            this.to = to;
+            this.kernel = kernel;
+            this.smaller = smaller;
+            this.larger = larger;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= PARALLEL_CHUNK) return kernel.find(from, to);
+            int mid = (from + to) >>> 1;
+            RangeTask leftTask = new RangeTask(from, mid, kernel, smaller, larger);
+            leftTask.fork();
+            long right = new RangeTask(mid, to, kernel, smaller, larger).compute();
+            long left = leftTask.join();
+            if (left < 0) return right;
+            if (right < 0) return left;
+            int min = smaller.isBetter(minOf(right), minOf(left)) ? minOf(right) : minOf(left);
+            int max = larger.isBetter(maxOf(right), maxOf(left)) ? maxOf(right) : maxOf(left);
+            return pack(min, max);
+        }
+    }
+
+    /**
+     * Bounded heap that keeps k best (value, index) pairs. Its root is the worst kept pair, so a new pair replaces
+     * the root only if it is better. Larger value is better, and of equal values the one with smaller index is better
+     */
+    private static final class IntHeap implements MergeableHeap<IntHeap> {
+        private final int limit;
+        private int[] values;
+        private int[] indices;
+        private int size;
+
+        /**
+         * @param limit number of pairs to keep
+         * @param expected number of pairs that will be offered, so arrays are not allocated larger than needed
+         */
+        IntHeap(int limit, int expected) {
+            this.limit = limit;
+            this.values = new int[Math.min(limit, expected)];
+            this.indices = new int[values.length];
+        }
+
+        boolean accepts(int value) {
+            return size < limit || value > values[0];
+        }
+
+        void offer(int value, int index) {
+            if (size < limit) {
+                if (size == values.length) grow();
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!worse(value, index, values[parent], indices[parent])) break;
+                    values[i] = values[parent];
+                    indices[i] = indices[parent];
+                    i = parent;
+                }
+                values[i] = value;
+                indices[i] = index;
+            } else if (size > 0 && worse(values[0], indices[0], value, index)) {
+                siftDown(value, index);
+            }
+        }
+
+        /**
+         * Offers pairs of the smaller heap to the larger one
+         * @return heap that holds the result, either this or other
+         */
+        @Override
+        public IntHeap mergeFrom(IntHeap other) {
+            IntHeap into = size >= other.size ? this : other;
+            IntHeap from = into == this ? other : this;
+            for (int i = 0; i < from.size; i++) {
+                into.offer(from.values[i], from.indices[i]);
             }
+            return into;
+        }
+
+        private void grow() {
+            int capacity = (int) Math.min(limit, Math.max(16L, 2L * values.length));
+            values = Arrays.copyOf(values, capacity);
+            indices = Arrays.copyOf(indices, capacity);
+        }
+
+        /**
+         * Sorts kept pairs from the best to the worst. Heap cannot be used afterwards
+         * @return number of kept pairs
+         */
+        int sort() {
+            int n = size;
+            for (int last = n - 1; last > 0; last--) {
+                int value = values[last];
+                int index = indices[last];
+                values[last] = values[0];
+                indices[last] = indices[0];
+                size = last;
+                siftDown(value, index);
+            }
+            size = n;
+            return n;
+        }
+
+        private void siftDown(int value, int index) {
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && worse(values[right], indices[right], values[child], indices[child])) child = right;
+                if (!worse(values[child], indices[child], value, index)) break;
+                values[i] = values[child];
+                indices[i] = indices[child];
+                i = child;
+            }
+            values[i] = value;
+            indices[i] = index;
+        }
+
+        private static boolean worse(int value, int index, int otherValue, int otherIndex) {
+            return value < otherValue || value == otherValue && index > otherIndex;
         }
-        return new ElementFloat(bestIdx, best);
     }
+
+    /**
+     * Bounded heap that keeps k best (value, index) pairs. Its root is the worst kept pair, so a new pair replaces
+     * the root only if it is better. Larger value is better, and of equal values the one with smaller index is better
+     */
+    private static final class LongHeap implements MergeableHeap<LongHeap> {
+        private final int limit;
+        private long[] values;
+        private int[] indices;
+        private int size;
+
+        /**
+         * @param limit number of pairs to keep
+         * @param expected number of pairs that will be offered, so arrays are not allocated larger than needed
+         */
+        LongHeap(int limit, int expected) {
+            this.limit = limit;
+            this.values = new long[Math.min(limit, expected)];
+            this.indices = new int[values.length];
+        }
+
+        boolean accepts(long value) {
+            return size < limit || value > values[0];
+        }
+
+        void offer(long value, int index) {
+            if (size < limit) {
+                if (size == values.length) grow();
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!worse(value, index, values[parent], indices[parent])) break;
+                    values[i] = values[parent];
+                    indices[i] = indices[parent];
+                    i = parent;
+                }
+                values[i] = value;
+                indices[i] = index;
+            } else if (size > 0 && worse(values[0], indices[0], value, index)) {
+                siftDown(value, index);
+            }
+        }
+
+        /**
+         * Offers pairs of the smaller heap to the larger one
+         * @return heap that holds the result, either this or other
+         */
+        @Override
+        public LongHeap mergeFrom(LongHeap other) {
+            LongHeap into = size >= other.size ? this : other;
+            LongHeap from = into == this ? other : this;
+            for (int i = 0; i < from.size; i++) {
+                into.offer(from.values[i], from.indices[i]);
+            }
+            return into;
+        }
+
+        private void grow() {
+            int capacity = (int) Math.min(limit, Math.max(16L, 2L * values.length));
+            values = Arrays.copyOf(values, capacity);
+            indices = Arrays.copyOf(indices, capacity);
+        }
+
+        /**
+         * Sorts kept pairs from the best to the worst. Heap cannot be used afterwards
+         * @return number of kept pairs
+         */
+        int sort() {
+            int n = size;
+            for (int last = n - 1; last > 0; last--) {
+                long value = values[last];
+                int index = indices[last];
+                values[last] = values[0];
+                indices[last] = indices[0];
+                size = last;
+                siftDown(value, index);
+            }
+            size = n;
+            return n;
+        }
+
+        private void siftDown(long value, int index) {
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && worse(values[right], indices[right], values[child], indices[child])) child = right;
+                if (!worse(values[child], indices[child], value, index)) break;
+                values[i] = values[child];
+                indices[i] = indices[child];
+                i = child;
+            }
+            values[i] = value;
+            indices[i] = index;
+        }
+
+        private static boolean worse(long value, int index, long otherValue, int otherIndex) {
+            return value < otherValue || value == otherValue && index > otherIndex;
+        }
+    }
+
+    /**
+     * Bounded heap that keeps k best (value, index) pairs. Its root is the worst kept pair, so a new pair replaces
+     * the root only if it is better. Larger value is better, and of equal values the one with smaller index is better
+     */
+    private static final class DoubleHeap implements MergeableHeap<DoubleHeap> {
+        private final int limit;
+        private double[] values;
+        private int[] indices;
+        private int size;
+
+        /**
+         * @param limit number of pairs to keep
+         * @param expected number of pairs that will be offered, so arrays are not allocated larger than needed
+         */
+        DoubleHeap(int limit, int expected) {
+            this.limit = limit;
+            this.values = new double[Math.min(limit, expected)];
+            this.indices = new int[values.length];
+        }
+
+        boolean accepts(double value) {
+            return size < limit || value > values[0];
+        }
+
+        void offer(double value, int index) {
+            if (size < limit) {
+                if (size == values.length) grow();
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!worse(value, index, values[parent], indices[parent])) break;
+                    values[i] = values[parent];
+                    indices[i] = indices[parent];
+                    i = parent;
+                }
+                values[i] = value;
+                indices[i] = index;
+            } else if (size > 0 && worse(values[0], indices[0], value, index)) {
+                siftDown(value, index);
+            }
+        }
+
+        /**
+         * Offers pairs of the smaller heap to the larger one
+         * @return heap that holds the result, either this or other
+         */
+        @Override
+        public DoubleHeap mergeFrom(DoubleHeap other) {
+            DoubleHeap into = size >= other.size ? this : other;
+            DoubleHeap from = into == this ? other : this;
+            for (int i = 0; i < from.size; i++) {
+                into.offer(from.values[i], from.indices[i]);
+            }
+            return into;
+        }
+
+        private void grow() {
+            int capacity = (int) Math.min(limit, Math.max(16L, 2L * values.length));
+            values = Arrays.copyOf(values, capacity);
+            indices = Arrays.copyOf(indices, capacity);
+        }
+
+        /**
+         * Sorts kept pairs from the best to the worst. Heap cannot be used afterwards
+         * @return number of kept pairs
+         */
+        int sort() {
+            int n = size;
+            for (int last = n - 1; last > 0; last--) {
+                double value = values[last];
+                int index = indices[last];
+                values[last] = values[0];
+                indices[last] = indices[0];
+                size = last;
+                siftDown(value, index);
+            }
+            size = n;
+            return n;
+        }
+
+        private void siftDown(double value, int index) {
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && worse(values[right], indices[right], values[child], indices[child])) child = right;
+                if (!worse(values[child], indices[child], value, index)) break;
+                values[i] = values[child];
+                indices[i] = indices[child];
+                i = child;
+            }
+            values[i] = value;
+            indices[i] = index;
+        }
+
+        private static boolean worse(double value, int index, double otherValue, int otherIndex) {
+            return value < otherValue || value == otherValue && index > otherIndex;
+        }
+    }
+
+    private interface MergeableHeap<H> {
+        /**
+         * Offers all elements of other heap to this one
+         * @return this heap
+         */
+        H mergeFrom(H other);
+    }
+
+    @FunctionalInterface
+    private interface HeapKernel<H> { H scan(int from, int to); }
+
+    /**
+     * Scans chunks into separate bounded heaps and merges them pairwise
+     */
+    @SuppressWarnings("serial")
+    private static final class HeapTask<H extends MergeableHeap<H>> extends RecursiveTask<H> {
+        private final int from;
+        private final int to;
+        private final HeapKernel<H> kernel;
+
+        HeapTask(int from, int to, HeapKernel<H> kernel) {
+            this.from = from;
+            this.to = to;
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected H compute() {
+            if (to - from <= PARALLEL_CHUNK) return kernel.scan(from, to);
+            int mid = (from + to) >>> 1;
+            HeapTask<H> left = new HeapTask<>(from, mid, kernel);
+            left.fork();
+            H right = new HeapTask<>(mid, to, kernel).compute();
+            return left.join().mergeFrom(right);
+        }
+    }
+
     /**
      * Search of the largest element in integer array
      * @param items collection where we want to find the largest element;
@@ -174,6 +1287,140 @@ public class MinMax {
         return new Element<>(bestIdx, bestVal);
     }
 
+    /**
+     * Pairwise search of both the smallest and the largest element in collection
+     * @param items collection where we want to find extreme elements;
+     * @param keyExtractor function that describes how to extract value from an object;
+     * @param keyComparator comparator that describes how to compare extracted values;
+     * @return Range record that contains smallest and largest elements with their indices
+     * @throws IllegalArgumentException if collection is empty
+     */
+    private static <T, K> Range<T> rangeObject(
+            Iterable<? extends T> items,
+            Function<? super T, ? extends K> keyExtractor,
+            Comparator<? super K> keyComparator
+    ) {
+        Iterator<? extends T> it = items.iterator();
+        if (!it.hasNext()) {
+            throw new IllegalArgumentException("Empty collection");
+        }
+        T minVal = it.next();
+        T maxVal = minVal;
+        K minKey = keyExtractor.apply(minVal);
+        K maxKey = minKey;
+        int minIdx = 0;
+        int maxIdx = 0;
+        int idx = 1;
+        while (it.hasNext()) {
+            T x = it.next();
+            K xKey = keyExtractor.apply(x);
+            if (!it.hasNext()) {
+                if (keyComparator.compare(xKey, minKey) < 0) {minVal = x; minKey = xKey; minIdx = idx;}
+                if (keyComparator.compare(xKey, maxKey) > 0) {maxVal = x; maxKey = xKey; maxIdx = idx;}
+                break;
+            }
+            T y = it.next();
+            K yKey = keyExtractor.apply(y);
+            int c = keyComparator.compare(xKey, yKey);
+            if (c <= 0) {
+                if (keyComparator.compare(xKey, minKey) < 0) {minVal = x; minKey = xKey; minIdx = idx;}
+                if (c < 0 && keyComparator.compare(yKey, maxKey) > 0) {maxVal = y; maxKey = yKey; maxIdx = idx + 1;}
+                if (c == 0 && keyComparator.compare(xKey, maxKey) > 0) {maxVal = x; maxKey = xKey; maxIdx = idx;}
+            } else {
+                if (keyComparator.compare(yKey, minKey) < 0) {minVal = y; minKey = yKey; minIdx = idx + 1;}
+                if (keyComparator.compare(xKey, maxKey) > 0) {maxVal = x; maxKey = xKey; maxIdx = idx;}
+            }
+            idx += 2;
+        }
+        return new Range<>(new Element<>(minIdx, minVal), new Element<>(maxIdx, maxVal));
+    }
+
+    /**
+     * Search both the smallest and the largest element in given array in one pass
+     * @param arr int array. Not necessarily sorted;
+     * @return RangeInt that contains indices and values of the smallest and largest elements
+     * @throws IllegalArgumentException if the given array is empty
+     */
+    public static RangeInt range(int[] arr) {
+        long indices = rangeIndices(arr.length, (from, to) -> rangeIndices(arr, from, to),
+                (c, b) -> arr[c] < arr[b], (c, b) -> arr[c] > arr[b]);
+        int minIdx = minOf(indices);
+        int maxIdx = maxOf(indices);
+        return new RangeInt(new ElementInt(minIdx, arr[minIdx]), new ElementInt(maxIdx, arr[maxIdx]));
+    }
+
+    /**
+     * Search both the smallest and the largest element in given array in one pass
+     * @param arr long array. Not necessarily sorted;
+     * @return RangeLong that contains indices and values of the smallest and largest elements
+     * @throws IllegalArgumentException if the given array is empty
+     */
+    public static RangeLong range(long[] arr) {
+        long indices = rangeIndices(arr.length, (from, to) -> rangeIndices(arr, from, to),
+                (c, b) -> arr[c] < arr[b], (c, b) -> arr[c] > arr[b]);
+        int minIdx = minOf(indices);
+        int maxIdx = maxOf(indices);
+        return new RangeLong(new ElementLong(minIdx, arr[minIdx]), new ElementLong(maxIdx, arr[maxIdx]));
+    }
+
+    /**
+     * Search both the smallest and the largest element in given array in one pass
+     * @param arr double array. Not necessarily sorted;
+     * @return RangeDouble that contains indices and values of the smallest and largest elements
+     * @throws IllegalArgumentException if the given array is empty
+     */
+    public static RangeDouble range(double[] arr) {
+        long indices = rangeIndices(arr.length, (from, to) -> rangeIndices(arr, from, to),
+                (c, b) -> arr[c] < arr[b], (c, b) -> arr[c] > arr[b]);
+        int minIdx = minOf(indices);
+        int maxIdx = maxOf(indices);
+        return new RangeDouble(new ElementDouble(minIdx, arr[minIdx]), new ElementDouble(maxIdx, arr[maxIdx]));
+    }
+
+    /**
+     * Search both the smallest and the largest element in given array in one pass
+     * @param arr byte array. Not necessarily sorted;
+     * @return RangeByte that contains indices and values of the smallest and largest elements
+     * @throws IllegalArgumentException if the given array is empty
+     */
+    public static RangeByte range(byte[] arr) {
+        long indices = rangeIndices(arr.length, (from, to) -> rangeIndices(arr, from, to),
+                (c, b) -> arr[c] < arr[b], (c, b) -> arr[c] > arr[b]);
+        int minIdx = minOf(indices);
+        int maxIdx = maxOf(indices);
+        return new RangeByte(new ElementByte(minIdx, arr[minIdx]), new ElementByte(maxIdx, arr[maxIdx]));
+    }
+
+    /**
+     * Search both the smallest and the largest element in given array in one pass
+     * @param arr float array. Not necessarily sorted;
+     * @return RangeFloat that contains indices and values of the smallest and largest elements
+     * @throws IllegalArgumentException if the given array is empty
+     */
+    public static RangeFloat range(float[] arr) {
+        long indices = rangeIndices(arr.length, (from, to) -> rangeIndices(arr, from, to),
+                (c, b) -> arr[c] < arr[b], (c, b) -> arr[c] > arr[b]);
+        int minIdx = minOf(indices);
+        int maxIdx = maxOf(indices);
+        return new RangeFloat(new ElementFloat(minIdx, arr[minIdx]), new ElementFloat(maxIdx, arr[maxIdx]));
+    }
+
+    /**
+     * Search both the smallest and the largest element in given collection in one pass
+     * @param collection collection of objects (not necessarily sorted).
+     * @param keyExtractor function that describes how to extract value from an object;
+     * @param keyComparator comparator that describes how to compare extracted values;
+     * @return Range that contains indices and values of the smallest and largest elements
+     * @throws IllegalArgumentException if collection is empty
+     */
+    public static <T, K> Range<T> range(
+            Collection<T> collection,
+            Function<? super T, ? extends K> keyExtractor,
+            Comparator<? super K> keyComparator)
+    {
+        return rangeObject(collection, keyExtractor, keyComparator);
+    }
+
     public static final class Max {
         private Max() {}
         /**
@@ -183,7 +1430,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementInt of(int[] arr) {
-            return coreInt(arr.length, i -> arr[i], Mode.MAX);
+            int index = extremeIndex(arr.length, (from, to) -> maxIndex(arr, from, to), (c, b) -> arr[c] > arr[b]);
+            return new ElementInt(index, arr[index]);
         }
         /**
          * Search the largest element in given array
@@ -192,7 +1440,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementLong of(long[] arr) {
-            return coreLong(arr.length, i -> arr[i], Mode.MAX);
+            int index = extremeIndex(arr.length, (from, to) -> maxIndex(arr, from, to), (c, b) -> arr[c] > arr[b]);
+            return new ElementLong(index, arr[index]);
         }
         /**
          * Search the largest element in given array
@@ -201,7 +1450,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementDouble of(double[] arr) {
-            return coreDouble(arr.length, i -> arr[i], Mode.MAX);
+            int index = extremeIndex(arr.length, (from, to) -> maxIndex(arr, from, to), (c, b) -> arr[c] > arr[b]);
+            return new ElementDouble(index, arr[index]);
         }
         /**
          * Search the largest element in given array
@@ -210,7 +1460,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementByte of(byte[] arr) {
-            return coreByte(arr.length, i -> arr[i], Mode.MAX);
+            int index = extremeIndex(arr.length, (from, to) -> maxIndex(arr, from, to), (c, b) -> arr[c] > arr[b]);
+            return new ElementByte(index, arr[index]);
         }
         /**
          * Search the largest element in given array
@@ -219,7 +1470,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementFloat of(float[] arr) {
-            return coreFloat(arr.length, i -> arr[i], Mode.MAX);
+            int index = extremeIndex(arr.length, (from, to) -> maxIndex(arr, from, to), (c, b) -> arr[c] > arr[b]);
+            return new ElementFloat(index, arr[index]);
         }
         /**
          * Search the largest element in given array
@@ -237,6 +1489,139 @@ public class MinMax {
             return coreObject(collection, keyExtractor, keyComparator, Mode.MAX);
         }
 
+        /**
+         * Search the k largest elements in given array
+         * @param arr int array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementInt[] topK(int[] arr, int k) {
+            return intElements(bestOf(arr, k, false, false), false);
+        }
+        /**
+         * Same as {@link #topK(int[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr int array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementInt[] parallelTopK(int[] arr, int k) {
+            return intElements(bestOf(arr, k, false, true), false);
+        }
+        /**
+         * Search the k largest elements in given array
+         * @param arr long array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementLong[] topK(long[] arr, int k) {
+            return longElements(bestOf(arr, k, false, false), false);
+        }
+        /**
+         * Same as {@link #topK(long[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr long array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementLong[] parallelTopK(long[] arr, int k) {
+            return longElements(bestOf(arr, k, false, true), false);
+        }
+        /**
+         * Search the k largest elements in given array
+         * @param arr double array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementDouble[] topK(double[] arr, int k) {
+            return doubleElements(bestOf(arr, k, false, false), false);
+        }
+        /**
+         * Same as {@link #topK(double[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr double array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementDouble[] parallelTopK(double[] arr, int k) {
+            return doubleElements(bestOf(arr, k, false, true), false);
+        }
+        /**
+         * Search the k largest elements in given array
+         * @param arr byte array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementByte[] topK(byte[] arr, int k) {
+            return byteElements(bestOf(arr, k, false, false), false);
+        }
+        /**
+         * Same as {@link #topK(byte[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr byte array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementByte[] parallelTopK(byte[] arr, int k) {
+            return byteElements(bestOf(arr, k, false, true), false);
+        }
+        /**
+         * Search the k largest elements in given array
+         * @param arr float array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementFloat[] topK(float[] arr, int k) {
+            return floatElements(bestOf(arr, k, false, false), false);
+        }
+        /**
+         * Same as {@link #topK(float[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr float array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the largest value to the smallest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementFloat[] parallelTopK(float[] arr, int k) {
+            return floatElements(bestOf(arr, k, false, true), false);
+        }
+        /**
+         * Search the k largest elements in given collection
+         * @param collection collection of objects (not necessarily sorted).
+         * @param keyExtractor function that describes how to extract value from an object;
+         * @param keyComparator comparator that describes how to compare extracted values;
+         * @param k number of elements to find
+         * @return min(k, collection.size()) elements with their indices, from the largest key to the smallest;
+         * of equal keys the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static <T, K> List<Element<T>> topK(
+                Collection<T> collection,
+                Function<? super T, ? extends K> keyExtractor,
+                Comparator<? super K> keyComparator,
+                int k) {
+            return bestOf(collection, keyExtractor, keyComparator, k);
+        }
+
         // Here comes overloaded public static methods that work with values and indexes only (So no Element class will be returned)
         /**
          * Static method that returns only index of the largest element
@@ -379,7 +1764,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementInt of(int[] arr) {
-            return coreInt(arr.length, i -> arr[i], Mode.MIN);
+            int index = extremeIndex(arr.length, (from, to) -> minIndex(arr, from, to), (c, b) -> arr[c] < arr[b]);
+            return new ElementInt(index, arr[index]);
         }
         /**
          * Search the smallest element in given array
@@ -388,7 +1774,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementLong of(long[] arr) {
-            return coreLong(arr.length, i -> arr[i], Mode.MIN);
+            int index = extremeIndex(arr.length, (from, to) -> minIndex(arr, from, to), (c, b) -> arr[c] < arr[b]);
+            return new ElementLong(index, arr[index]);
         }
         /**
          * Search the smallest element in given array
@@ -397,7 +1784,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementDouble of(double[] arr) {
-            return coreDouble(arr.length, i -> arr[i], Mode.MIN);
+            int index = extremeIndex(arr.length, (from, to) -> minIndex(arr, from, to), (c, b) -> arr[c] < arr[b]);
+            return new ElementDouble(index, arr[index]);
         }
         /**
          * Search the smallest element in given array
@@ -406,7 +1794,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementByte of(byte[] arr) {
-            return coreByte(arr.length, i -> arr[i], Mode.MIN);
+            int index = extremeIndex(arr.length, (from, to) -> minIndex(arr, from, to), (c, b) -> arr[c] < arr[b]);
+            return new ElementByte(index, arr[index]);
         }
         /**
          * Search the smallest element in given array
@@ -415,7 +1804,8 @@ public class MinMax {
          * @throws IllegalArgumentException if the given array is empty
          */
         public static ElementFloat of(float[] arr) {
-            return coreFloat(arr.length, i -> arr[i], Mode.MIN);
+            int index = extremeIndex(arr.length, (from, to) -> minIndex(arr, from, to), (c, b) -> arr[c] < arr[b]);
+            return new ElementFloat(index, arr[index]);
         }
         /**
          * Search the smallest element in given array
@@ -433,6 +1823,139 @@ public class MinMax {
             return coreObject(collection, keyExtractor, keyComparator, Mode.MIN);
         }
 
+        /**
+         * Search the k smallest elements in given array
+         * @param arr int array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementInt[] bottomK(int[] arr, int k) {
+            return intElements(bestOf(arr, k, true, false), true);
+        }
+        /**
+         * Same as {@link #bottomK(int[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr int array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementInt[] parallelBottomK(int[] arr, int k) {
+            return intElements(bestOf(arr, k, true, true), true);
+        }
+        /**
+         * Search the k smallest elements in given array
+         * @param arr long array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementLong[] bottomK(long[] arr, int k) {
+            return longElements(bestOf(arr, k, true, false), true);
+        }
+        /**
+         * Same as {@link #bottomK(long[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr long array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementLong[] parallelBottomK(long[] arr, int k) {
+            return longElements(bestOf(arr, k, true, true), true);
+        }
+        /**
+         * Search the k smallest elements in given array
+         * @param arr double array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementDouble[] bottomK(double[] arr, int k) {
+            return doubleElements(bestOf(arr, k, true, false), true);
+        }
+        /**
+         * Same as {@link #bottomK(double[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr double array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementDouble[] parallelBottomK(double[] arr, int k) {
+            return doubleElements(bestOf(arr, k, true, true), true);
+        }
+        /**
+         * Search the k smallest elements in given array
+         * @param arr byte array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementByte[] bottomK(byte[] arr, int k) {
+            return byteElements(bestOf(arr, k, true, false), true);
+        }
+        /**
+         * Same as {@link #bottomK(byte[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr byte array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementByte[] parallelBottomK(byte[] arr, int k) {
+            return byteElements(bestOf(arr, k, true, true), true);
+        }
+        /**
+         * Search the k smallest elements in given array
+         * @param arr float array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementFloat[] bottomK(float[] arr, int k) {
+            return floatElements(bestOf(arr, k, true, false), true);
+        }
+        /**
+         * Same as {@link #bottomK(float[], int)}, but chunks of array are scanned by processors of common ForkJoinPool.
+         * If k is not smaller than chunk size, array is scanned sequentially
+         * @param arr float array. Not necessarily sorted;
+         * @param k number of elements to find
+         * @return min(k, arr.length) elements with their indices, from the smallest value to the largest;
+         * of equal values the first one goes first. NaNs are skipped
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static ElementFloat[] parallelBottomK(float[] arr, int k) {
+            return floatElements(bestOf(arr, k, true, true), true);
+        }
+        /**
+         * Search the k smallest elements in given collection
+         * @param collection collection of objects (not necessarily sorted).
+         * @param keyExtractor function that describes how to extract value from an object;
+         * @param keyComparator comparator that describes how to compare extracted values;
+         * @param k number of elements to find
+         * @return min(k, collection.size()) elements with their indices, from the smallest key to the largest;
+         * of equal keys the first one goes first
+         * @throws IllegalArgumentException if k is negative
+         */
+        public static <T, K> List<Element<T>> bottomK(
+                Collection<T> collection,
+                Function<? super T, ? extends K> keyExtractor,
+                Comparator<? super K> keyComparator,
+                int k) {
+            return bestOf(collection, keyExtractor, keyComparator.reversed(), k);
+        }
+
         // Here comes overloaded public static methods that work with values and indexes only (So no Element class will be returned)
         /**
          * Static method that returns only index of the smallest element
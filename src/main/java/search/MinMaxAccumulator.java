@@ -0,0 +1,696 @@
+package search;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Running minimum and maximum of a sequence that is fed piece by piece, for data that never fits in one array.
+ * <p>Accumulator remembers offsets of both extremes in the whole sequence: value accepted first has offset 0,
+ * and offsets of chunks continue from the values accepted before them. As in {@link MinMax}, the first occurrence
+ * of extreme value wins. Accepting values does not allocate.
+ * <p>Accumulators of consecutive parts of a sequence can be merged with {@code combine}, so they work as
+ * {@link Collector}s and in parallel streams, for example
+ * {@code intStream.collect(MinMaxAccumulator::ofInt, MinMaxAccumulator.OfInt::accept, MinMaxAccumulator.OfInt::combine)}.
+ * Accumulators are not thread-safe.
+ * */
+public final class MinMaxAccumulator {
+
+    private MinMaxAccumulator() {}
+
+    /**
+     * @return empty accumulator of int values
+     * */
+    public static OfInt ofInt() {return new OfInt();}
+
+    /**
+     * @return empty accumulator of long values
+     * */
+    public static OfLong ofLong() {return new OfLong();}
+
+    /**
+     * @return empty accumulator of double values
+     * */
+    public static OfDouble ofDouble() {return new OfDouble();}
+
+    /**
+     * @param keyExtractor function that describes how to extract value from an object
+     * @param keyComparator comparator that describes how to compare extracted values
+     * @return empty accumulator of objects ranked by key
+     * @throws IllegalArgumentException if keyExtractor or keyComparator is null
+     * */
+    public static <T, K> Keyed<T, K> keyed(Function<? super T, ? extends K> keyExtractor,
+                                           Comparator<? super K> keyComparator) {
+        if (keyExtractor == null) throw new IllegalArgumentException("Key extractor cannot be null");
+        if (keyComparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        return new Keyed<>(keyExtractor, keyComparator);
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ")");
+        }
+    }
+
+    /**
+     * Accumulator of int values
+     * */
+    public static final class OfInt implements IntConsumer {
+        private long count;
+        private int min;
+        private int max;
+        private long minOffset;
+        private long maxOffset;
+
+        private OfInt() {}
+
+        /**
+         * @return collector that feeds all elements of a stream into one accumulator
+         * */
+        public static Collector<Integer, OfInt, OfInt> collector() {
+            return Collector.of(OfInt::new, OfInt::accept, OfInt::combine);
+        }
+
+        /**
+         * Accepts next value of the sequence
+         * @param value next value
+         * */
+        @Override
+        public void accept(int value) {
+            if (count == 0) {
+                min = max = value;
+                minOffset = maxOffset = 0;
+            } else if (value < min) {
+                min = value;
+                minOffset = count;
+            } else if (value > max) {
+                max = value;
+                maxOffset = count;
+            }
+            count++;
+        }
+
+        /**
+         * Accepts all values of the array as next values of the sequence
+         * @param values next values
+         * @throws IllegalArgumentException if array is null
+         * */
+        public void acceptAll(int[] values) {
+            if (values == null) throw new IllegalArgumentException("Array cannot be null");
+            acceptAll(values, 0, values.length);
+        }
+
+        /**
+         * Accepts values of range [from, to) of the array as next values of the sequence
+         * @param values array that contains next values
+         * @param from index of the first value, inclusive
+         * @param to index of the last value, exclusive
+         * @throws IllegalArgumentException if array is null or range is invalid
+         * */
+        public void acceptAll(int[] values, int from, int to) {
+            if (values == null) throw new IllegalArgumentException("Array cannot be null");
+            checkRange(values.length, from, to);
+            if (from == to) return;
+            long indices = MinMax.rangeIndices(values, from, to);
+            int minIdx = MinMax.minOf(indices);
+            int maxIdx = MinMax.maxOf(indices);
+            merge(to - from, values[minIdx], count + minIdx - from, values[maxIdx], count + maxIdx - from);
+        }
+
+        /**
+         * Accepts remaining values of the buffer as next values of the sequence. Buffer's position is moved to its limit
+         * @param buffer buffer that contains next values, for example view of a memory-mapped file
+         * @throws IllegalArgumentException if buffer is null
+         * */
+        public void acceptAll(IntBuffer buffer) {
+            if (buffer == null) throw new IllegalArgumentException("Buffer cannot be null");
+            for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+                accept(buffer.get(i));
+            }
+            buffer.position(buffer.limit());
+        }
+
+        /**
+         * Merges accumulator of the part of sequence that follows the part accepted by this accumulator
+         * @param other accumulator of the following values, is not changed
+         * @return this accumulator
+         * @throws IllegalArgumentException if other is null
+         * */
+        public OfInt combine(OfInt other) {
+            if (other == null) throw new IllegalArgumentException("Accumulator cannot be null");
+            if (other.count != 0) {
+                merge(other.count, other.min, count + other.minOffset, other.max, count + other.maxOffset);
+            }
+            return this;
+        }
+
+        private void merge(long otherCount, int otherMin, long otherMinOffset, int otherMax, long otherMaxOffset) {
+            if (count == 0 || otherMin < min) {
+                min = otherMin;
+                minOffset = otherMinOffset;
+            }
+            if (count == 0 || otherMax > max) {
+                max = otherMax;
+                maxOffset = otherMaxOffset;
+            }
+            count += otherCount;
+        }
+
+        /**
+         * Forgets all accepted values, so accumulator can be reused
+         * */
+        public void reset() {count = 0;}
+
+        /**
+         * @return number of accepted values
+         * */
+        public long count() {return count;}
+
+        /**
+         * @return true if no values were accepted
+         * */
+        public boolean isEmpty() {return count == 0;}
+
+        /**
+         * @return the smallest accepted value
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public int min() {
+            checkNotEmpty();
+            return min;
+        }
+
+        /**
+         * @return the largest accepted value
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public int max() {
+            checkNotEmpty();
+            return max;
+        }
+
+        /**
+         * @return offset of the first occurrence of the smallest value in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long minOffset() {
+            checkNotEmpty();
+            return minOffset;
+        }
+
+        /**
+         * @return offset of the first occurrence of the largest value in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long maxOffset() {
+            checkNotEmpty();
+            return maxOffset;
+        }
+
+        private void checkNotEmpty() {
+            if (count == 0) throw new IllegalStateException("No values were accepted");
+        }
+    }
+
+    /**
+     * Accumulator of long values
+     * */
+    public static final class OfLong implements LongConsumer {
+        private long count;
+        private long min;
+        private long max;
+        private long minOffset;
+        private long maxOffset;
+
+        private OfLong() {}
+
+        /**
+         * @return collector that feeds all elements of a stream into one accumulator
+         * */
+        public static Collector<Long, OfLong, OfLong> collector() {
+            return Collector.of(OfLong::new, OfLong::accept, OfLong::combine);
+        }
+
+        /**
+         * Accepts next value of the sequence
+         * @param value next value
+         * */
+        @Override
+        public void accept(long value) {
+            if (count == 0) {
+                min = max = value;
+                minOffset = maxOffset = 0;
+            } else if (value < min) {
+                min = value;
+                minOffset = count;
+            } else if (value > max) {
+                max = value;
+                maxOffset = count;
+            }
+            count++;
+        }
+
+        /**
+         * Accepts all values of the array as next values of the sequence
+         * @param values next values
+         * @throws IllegalArgumentException if array is null
+         * */
+        public void acceptAll(long[] values) {
+            if (values == null) throw new IllegalArgumentException("Array cannot be null");
+            acceptAll(values, 0, values.length);
+        }
+
+        /**
+         * Accepts values of range [from, to) of the array as next values of the sequence
+         * @param values array that contains next values
+         * @param from index of the first value, inclusive
+         * @param to index of the last value, exclusive
+         * @throws IllegalArgumentException if array is null or range is invalid
+         * */
+        public void acceptAll(long[] values, int from, int to) {
+            if (values == null) throw new IllegalArgumentException("Array cannot be null");
+            checkRange(values.length, from, to);
+            if (from == to) return;
+            long indices = MinMax.rangeIndices(values, from, to);
+            int minIdx = MinMax.minOf(indices);
+            int maxIdx = MinMax.maxOf(indices);
+            merge(to - from, values[minIdx], count + minIdx - from, values[maxIdx], count + maxIdx - from);
+        }
+
+        /**
+         * Accepts remaining values of the buffer as next values of the sequence. Buffer's position is moved to its limit
+         * @param buffer buffer that contains next values, for example view of a memory-mapped file
+         * @throws IllegalArgumentException if buffer is null
+         * */
+        public void acceptAll(LongBuffer buffer) {
+            if (buffer == null) throw new IllegalArgumentException("Buffer cannot be null");
+            for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+                accept(buffer.get(i));
+            }
+            buffer.position(buffer.limit());
+        }
+
+        /**
+         * Merges accumulator of the part of sequence that follows the part accepted by this accumulator
+         * @param other accumulator of the following values, is not changed
+         * @return this accumulator
+         * @throws IllegalArgumentException if other is null
+         * */
+        public OfLong combine(OfLong other) {
+            if (other == null) throw new IllegalArgumentException("Accumulator cannot be null");
+            if (other.count != 0) {
+                merge(other.count, other.min, count + other.minOffset, other.max, count + other.maxOffset);
+            }
+            return this;
+        }
+
+        private void merge(long otherCount, long otherMin, long otherMinOffset, long otherMax, long otherMaxOffset) {
+            if (count == 0 || otherMin < min) {
+                min = otherMin;
+                minOffset = otherMinOffset;
+            }
+            if (count == 0 || otherMax > max) {
+                max = otherMax;
+                maxOffset = otherMaxOffset;
+            }
+            count += otherCount;
+        }
+
+        /**
+         * Forgets all accepted values, so accumulator can be reused
+         * */
+        public void reset() {count = 0;}
+
+        /**
+         * @return number of accepted values
+         * */
+        public long count() {return count;}
+
+        /**
+         * @return true if no values were accepted
+         * */
+        public boolean isEmpty() {return count == 0;}
+
+        /**
+         * @return the smallest accepted value
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long min() {
+            checkNotEmpty();
+            return min;
+        }
+
+        /**
+         * @return the largest accepted value
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long max() {
+            checkNotEmpty();
+            return max;
+        }
+
+        /**
+         * @return offset of the first occurrence of the smallest value in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long minOffset() {
+            checkNotEmpty();
+            return minOffset;
+        }
+
+        /**
+         * @return offset of the first occurrence of the largest value in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long maxOffset() {
+            checkNotEmpty();
+            return maxOffset;
+        }
+
+        private void checkNotEmpty() {
+            if (count == 0) throw new IllegalStateException("No values were accepted");
+        }
+    }
+
+    /**
+     * Accumulator of double values. NaNs are counted, so they take offsets, but they never become minimum or maximum.
+     * -0.0 and 0.0 are equal, so the one that comes first is kept
+     * */
+    public static final class OfDouble implements DoubleConsumer {
+        private long count;
+        private boolean empty = true;
+        private double min = Double.NaN;
+        private double max = Double.NaN;
+        private long minOffset;
+        private long maxOffset;
+
+        private OfDouble() {}
+
+        /**
+         * @return collector that feeds all elements of a stream into one accumulator
+         * */
+        public static Collector<Double, OfDouble, OfDouble> collector() {
+            return Collector.of(OfDouble::new, OfDouble::accept, OfDouble::combine);
+        }
+
+        /**
+         * Accepts next value of the sequence
+         * @param value next value
+         * */
+        @Override
+        public void accept(double value) {
+            // while accumulator is empty, min and max are NaN and both comparisons fail
+            if (value < min) {
+                min = value;
+                minOffset = count;
+            } else if (value > max) {
+                max = value;
+                maxOffset = count;
+            } else if (empty && value == value) {
+                min = max = value;
+                minOffset = maxOffset = count;
+                empty = false;
+            }
+            count++;
+        }
+
+        /**
+         * Accepts all values of the array as next values of the sequence
+         * @param values next values
+         * @throws IllegalArgumentException if array is null
+         * */
+        public void acceptAll(double[] values) {
+            if (values == null) throw new IllegalArgumentException("Array cannot be null");
+            acceptAll(values, 0, values.length);
+        }
+
+        /**
+         * Accepts values of range [from, to) of the array as next values of the sequence
+         * @param values array that contains next values
+         * @param from index of the first value, inclusive
+         * @param to index of the last value, exclusive
+         * @throws IllegalArgumentException if array is null or range is invalid
+         * */
+        public void acceptAll(double[] values, int from, int to) {
+            if (values == null) throw new IllegalArgumentException("Array cannot be null");
+            checkRange(values.length, from, to);
+            for (int i = from; i < to; i++) {
+                accept(values[i]);
+            }
+        }
+
+        /**
+         * Accepts remaining values of the buffer as next values of the sequence. Buffer's position is moved to its limit
+         * @param buffer buffer that contains next values, for example view of a memory-mapped file
+         * @throws IllegalArgumentException if buffer is null
+         * */
+        public void acceptAll(DoubleBuffer buffer) {
+            if (buffer == null) throw new IllegalArgumentException("Buffer cannot be null");
+            for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+                accept(buffer.get(i));
+            }
+            buffer.position(buffer.limit());
+        }
+
+        /**
+         * Merges accumulator of the part of sequence that follows the part accepted by this accumulator
+         * @param other accumulator of the following values, is not changed
+         * @return this accumulator
+         * @throws IllegalArgumentException if other is null
+         * */
+        public OfDouble combine(OfDouble other) {
+            if (other == null) throw new IllegalArgumentException("Accumulator cannot be null");
+            if (!other.empty) {
+                if (empty || other.min < min) {
+                    min = other.min;
+                    minOffset = count + other.minOffset;
+                }
+                if (empty || other.max > max) {
+                    max = other.max;
+                    maxOffset = count + other.maxOffset;
+                }
+                empty = false;
+            }
+            count += other.count;
+            return this;
+        }
+
+        /**
+         * Forgets all accepted values, so accumulator can be reused
+         * */
+        public void reset() {
+            count = 0;
+            empty = true;
+            min = max = Double.NaN;
+        }
+
+        /**
+         * @return number of accepted values, including NaNs
+         * */
+        public long count() {return count;}
+
+        /**
+         * @return true if no values other than NaN were accepted
+         * */
+        public boolean isEmpty() {return empty;}
+
+        /**
+         * @return the smallest accepted value
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public double min() {
+            checkNotEmpty();
+            return min;
+        }
+
+        /**
+         * @return the largest accepted value
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public double max() {
+            checkNotEmpty();
+            return max;
+        }
+
+        /**
+         * @return offset of the first occurrence of the smallest value in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long minOffset() {
+            checkNotEmpty();
+            return minOffset;
+        }
+
+        /**
+         * @return offset of the first occurrence of the largest value in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long maxOffset() {
+            checkNotEmpty();
+            return maxOffset;
+        }
+
+        private void checkNotEmpty() {
+            if (empty) throw new IllegalStateException("No values were accepted");
+        }
+    }
+
+    /**
+     * Accumulator of objects ranked by key. Key of every object is extracted once
+     * */
+    public static final class Keyed<T, K> implements Consumer<T> {
+        private final Function<? super T, ? extends K> keyExtractor;
+        private final Comparator<? super K> keyComparator;
+        private long count;
+        private T min;
+        private T max;
+        private K minKey;
+        private K maxKey;
+        private long minOffset;
+        private long maxOffset;
+
+        private Keyed(Function<? super T, ? extends K> keyExtractor, Comparator<? super K> keyComparator) {
+            this.keyExtractor = keyExtractor;
+            this.keyComparator = keyComparator;
+        }
+
+        /**
+         * @param keyExtractor function that describes how to extract value from an object
+         * @param keyComparator comparator that describes how to compare extracted values
+         * @return collector that feeds all elements of a stream into one accumulator
+         * @throws IllegalArgumentException if keyExtractor or keyComparator is null
+         * */
+        public static <T, K> Collector<T, Keyed<T, K>, Keyed<T, K>> collector(
+                Function<? super T, ? extends K> keyExtractor,
+                Comparator<? super K> keyComparator) {
+            if (keyExtractor == null) throw new IllegalArgumentException("Key extractor cannot be null");
+            if (keyComparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+            return Collector.of(() -> new Keyed<>(keyExtractor, keyComparator), Keyed::accept, Keyed::combine);
+        }
+
+        /**
+         * Accepts next object of the sequence
+         * @param item next object
+         * */
+        @Override
+        public void accept(T item) {
+            K key = keyExtractor.apply(item);
+            if (count == 0) {
+                min = max = item;
+                minKey = maxKey = key;
+                minOffset = maxOffset = 0;
+            } else if (keyComparator.compare(key, minKey) < 0) {
+                min = item;
+                minKey = key;
+                minOffset = count;
+            } else if (keyComparator.compare(key, maxKey) > 0) {
+                max = item;
+                maxKey = key;
+                maxOffset = count;
+            }
+            count++;
+        }
+
+        /**
+         * Accepts all objects in iteration order as next objects of the sequence
+         * @param items next objects
+         * @throws IllegalArgumentException if items is null
+         * */
+        public void acceptAll(Iterable<? extends T> items) {
+            if (items == null) throw new IllegalArgumentException("Items cannot be null");
+            for (T item : items) {
+                accept(item);
+            }
+        }
+
+        /**
+         * Merges accumulator of the part of sequence that follows the part accepted by this accumulator.
+         * Objects are compared by comparator of this accumulator
+         * @param other accumulator of the following objects, is not changed
+         * @return this accumulator
+         * @throws IllegalArgumentException if other is null
+         * */
+        public Keyed<T, K> combine(Keyed<T, K> other) {
+            if (other == null) throw new IllegalArgumentException("Accumulator cannot be null");
+            if (other.count == 0) return this;
+            if (count == 0 || keyComparator.compare(other.minKey, minKey) < 0) {
+                min = other.min;
+                minKey = other.minKey;
+                minOffset = count + other.minOffset;
+            }
+            if (count == 0 || keyComparator.compare(other.maxKey, maxKey) > 0) {
+                max = other.max;
+                maxKey = other.maxKey;
+                maxOffset = count + other.maxOffset;
+            }
+            count += other.count;
+            return this;
+        }
+
+        /**
+         * Forgets all accepted objects, so accumulator can be reused. References to them are cleared
+         * */
+        public void reset() {
+            count = 0;
+            min = max = null;
+            minKey = maxKey = null;
+        }
+
+        /**
+         * @return number of accepted objects
+         * */
+        public long count() {return count;}
+
+        /**
+         * @return true if no objects were accepted
+         * */
+        public boolean isEmpty() {return count == 0;}
+
+        /**
+         * @return the first accepted object with the smallest key
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public T min() {
+            checkNotEmpty();
+            return min;
+        }
+
+        /**
+         * @return the first accepted object with the largest key
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public T max() {
+            checkNotEmpty();
+            return max;
+        }
+
+        /**
+         * @return offset of the smallest object in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long minOffset() {
+            checkNotEmpty();
+            return minOffset;
+        }
+
+        /**
+         * @return offset of the largest object in the sequence
+         * @throws IllegalStateException if accumulator is empty
+         * */
+        public long maxOffset() {
+            checkNotEmpty();
+            return maxOffset;
+        }
+
+        private void checkNotEmpty() {
+            if (count == 0) throw new IllegalStateException("No objects were accepted");
+        }
+    }
+}
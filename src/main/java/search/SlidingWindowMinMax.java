@@ -0,0 +1,572 @@
+package search;
+
+/**
+ * Minimum and maximum of a window that slides over a stream of samples, updated in O(1) amortized time per sample.
+ * <p>Window is either count-based and contains the last {@code n} pushed samples, or time-based and contains
+ * samples whose timestamps are greater than {@code latest - windowLength}. Timestamps are in any unit chosen by
+ * the caller and must not decrease.
+ * <p>Two monotonic deques are kept: values in the max deque decrease from front to back, values in the min deque
+ * increase. New sample removes from the back every sample that it dominates, because those can never become
+ * extreme again, and samples that left the window are removed from the front. So every sample enters and leaves
+ * each deque once, and current extremes are always at the fronts. Deques are ring buffers of primitives:
+ * count-based windows allocate them once, time-based ones double them when they fill up.
+ * Windows are not thread-safe.
+ * */
+public final class SlidingWindowMinMax {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private SlidingWindowMinMax() {}
+
+    /**
+     * @param windowSize number of the last samples the window contains
+     * @return empty count-based window of int samples
+     * @throws IllegalArgumentException if windowSize is not positive or exceeds 2^30
+     * */
+    public static OfInt ofInt(int windowSize) {
+        return new OfInt(windowSize, capacityFor(windowSize));
+    }
+
+    /**
+     * @param windowLength length of the window in units of timestamps
+     * @return empty time-based window of int samples
+     * @throws IllegalArgumentException if windowLength is not positive
+     * */
+    public static OfInt timedOfInt(long windowLength) {
+        return new OfInt(-checkLength(windowLength), INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param windowSize number of the last samples the window contains
+     * @return empty count-based window of long samples
+     * @throws IllegalArgumentException if windowSize is not positive or exceeds 2^30
+     * */
+    public static OfLong ofLong(int windowSize) {
+        return new OfLong(windowSize, capacityFor(windowSize));
+    }
+
+    /**
+     * @param windowLength length of the window in units of timestamps
+     * @return empty time-based window of long samples
+     * @throws IllegalArgumentException if windowLength is not positive
+     * */
+    public static OfLong timedOfLong(long windowLength) {
+        return new OfLong(-checkLength(windowLength), INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param windowSize number of the last samples the window contains
+     * @return empty count-based window of double samples
+     * @throws IllegalArgumentException if windowSize is not positive or exceeds 2^30
+     * */
+    public static OfDouble ofDouble(int windowSize) {
+        return new OfDouble(windowSize, capacityFor(windowSize));
+    }
+
+    /**
+     * @param windowLength length of the window in units of timestamps
+     * @return empty time-based window of double samples
+     * @throws IllegalArgumentException if windowLength is not positive
+     * */
+    public static OfDouble timedOfDouble(long windowLength) {
+        return new OfDouble(-checkLength(windowLength), INITIAL_CAPACITY);
+    }
+
+    private static int capacityFor(int windowSize) {
+        if (windowSize <= 0) throw new IllegalArgumentException("Window size must be positive");
+        if (windowSize > 1 << 30) throw new IllegalArgumentException("Window size must not exceed 2^30");
+        return windowSize == 1 ? 1 : Integer.highestOneBit(windowSize - 1) << 1;
+    }
+
+    private static long checkLength(long windowLength) {
+        if (windowLength <= 0) throw new IllegalArgumentException("Window length must be positive");
+        return windowLength;
+    }
+
+    /**
+     * Sliding window of int samples
+     * */
+    public static final class OfInt {
+        /**
+         * Positive window size for count-based window, negated window length for time-based one
+         * */
+        private final long window;
+        private long latest = Long.MIN_VALUE;
+        private long pushed;
+
+        private int[] maxValues;
+        private long[] maxPositions;
+        private int maxHead;
+        private int maxSize;
+
+        private int[] minValues;
+        private long[] minPositions;
+        private int minHead;
+        private int minSize;
+
+        private OfInt(long window, int capacity) {
+            this.window = window;
+            this.maxValues = new int[capacity];
+            this.maxPositions = new long[capacity];
+            this.minValues = new int[capacity];
+            this.minPositions = new long[capacity];
+        }
+
+        /**
+         * Adds next sample to count-based window, the oldest sample leaves the window if it is full
+         * @param value value of the sample
+         * @throws IllegalStateException if window is time-based
+         * */
+        public void push(int value) {
+            if (window < 0) throw new IllegalStateException("Time-based window needs a timestamp");
+            long position = pushed++;
+            evict(position - window);
+            add(position, value);
+        }
+
+        /**
+         * Adds next sample to time-based window, samples with timestamps not greater than
+         * {@code timestamp - windowLength} leave the window
+         * @param timestamp timestamp of the sample, not less than timestamp of the previous one
+         * @param value value of the sample
+         * @throws IllegalStateException if window is count-based
+         * @throws IllegalArgumentException if timestamp is less than the previous one
+         * */
+        public void push(long timestamp, int value) {
+            advanceTo(timestamp);
+            add(timestamp, value);
+        }
+
+        /**
+         * Moves end of time-based window to the given time without adding a sample, so old samples leave the window
+         * @param timestamp current time, not less than timestamp of the previous sample
+         * @throws IllegalStateException if window is count-based
+         * @throws IllegalArgumentException if timestamp is less than the previous one
+         * */
+        public void advanceTo(long timestamp) {
+            if (window > 0) throw new IllegalStateException("Count-based window has no timestamps");
+            if (timestamp < latest) throw new IllegalArgumentException("Timestamps must not decrease");
+            latest = timestamp;
+            // window holds negated length; saturate instead of overflowing for timestamps near Long.MIN_VALUE
+            long oldest = timestamp + window;
+            evict(oldest > timestamp ? Long.MIN_VALUE : oldest);
+        }
+
+        /**
+         * @return the largest value in the window
+         * @throws IllegalStateException if window is empty
+         * */
+        public int currentMax() {
+            if (maxSize == 0) throw new IllegalStateException("Window is empty");
+            return maxValues[maxHead];
+        }
+
+        /**
+         * @return the smallest value in the window
+         * @throws IllegalStateException if window is empty
+         * */
+        public int currentMin() {
+            if (minSize == 0) throw new IllegalStateException("Window is empty");
+            return minValues[minHead];
+        }
+
+        /**
+         * @return true if there are no samples in the window
+         * */
+        public boolean isEmpty() {return maxSize == 0;}
+
+        /**
+         * Removes all samples, so window can be reused. Buffers are kept
+         * */
+        public void reset() {
+            latest = Long.MIN_VALUE;
+            pushed = 0;
+            maxHead = maxSize = 0;
+            minHead = minSize = 0;
+        }
+
+        /**
+         * Removes samples at positions not greater than the given one from the fronts of both deques
+         * */
+        private void evict(long through) {
+            int mask = maxValues.length - 1;
+            while (maxSize > 0 && maxPositions[maxHead] <= through) {
+                maxHead = maxHead + 1 & mask;
+                maxSize--;
+            }
+            while (minSize > 0 && minPositions[minHead] <= through) {
+                minHead = minHead + 1 & mask;
+                minSize--;
+            }
+        }
+
+        private void add(long position, int value) {
+            int mask = maxValues.length - 1;
+            while (maxSize > 0 && maxValues[maxHead + maxSize - 1 & mask] <= value) maxSize--;
+            while (minSize > 0 && minValues[minHead + minSize - 1 & mask] >= value) minSize--;
+            if (maxSize == maxValues.length || minSize == minValues.length) {
+                grow();
+                mask = maxValues.length - 1;
+            }
+            int maxTail = maxHead + maxSize++ & mask;
+            maxValues[maxTail] = value;
+            maxPositions[maxTail] = position;
+            int minTail = minHead + minSize++ & mask;
+            minValues[minTail] = value;
+            minPositions[minTail] = position;
+        }
+
+        /**
+         * Doubles capacity of both ring buffers and moves deques to the beginning of new ones
+         * */
+        private void grow() {
+            int capacity = maxValues.length;
+            if (capacity == 1 << 30) throw new IllegalStateException("Window holds too many samples");
+            int[] newMaxValues = new int[capacity << 1];
+            long[] newMaxPositions = new long[capacity << 1];
+            int[] newMinValues = new int[capacity << 1];
+            long[] newMinPositions = new long[capacity << 1];
+            for (int i = 0; i < maxSize; i++) {
+                int from = maxHead + i & capacity - 1;
+                newMaxValues[i] = maxValues[from];
+                newMaxPositions[i] = maxPositions[from];
+            }
+            for (int i = 0; i < minSize; i++) {
+                int from = minHead + i & capacity - 1;
+                newMinValues[i] = minValues[from];
+                newMinPositions[i] = minPositions[from];
+            }
+            maxValues = newMaxValues;
+            maxPositions = newMaxPositions;
+            minValues = newMinValues;
+            minPositions = newMinPositions;
+            maxHead = 0;
+            minHead = 0;
+        }
+    }
+
+    /**
+     * Sliding window of long samples
+     * */
+    public static final class OfLong {
+        /**
+         * Positive window size for count-based window, negated window length for time-based one
+         * */
+        private final long window;
+        private long latest = Long.MIN_VALUE;
+        private long pushed;
+
+        private long[] maxValues;
+        private long[] maxPositions;
+        private int maxHead;
+        private int maxSize;
+
+        private long[] minValues;
+        private long[] minPositions;
+        private int minHead;
+        private int minSize;
+
+        private OfLong(long window, int capacity) {
+            this.window = window;
+            this.maxValues = new long[capacity];
+            this.maxPositions = new long[capacity];
+            this.minValues = new long[capacity];
+            this.minPositions = new long[capacity];
+        }
+
+        /**
+         * Adds next sample to count-based window, the oldest sample leaves the window if it is full
+         * @param value value of the sample
+         * @throws IllegalStateException if window is time-based
+         * */
+        public void push(long value) {
+            if (window < 0) throw new IllegalStateException("Time-based window needs a timestamp");
+            long position = pushed++;
+            evict(position - window);
+            add(position, value);
+        }
+
+        /**
+         * Adds next sample to time-based window, samples with timestamps not greater than
+         * {@code timestamp - windowLength} leave the window
+         * @param timestamp timestamp of the sample, not less than timestamp of the previous one
+         * @param value value of the sample
+         * @throws IllegalStateException if window is count-based
+         * @throws IllegalArgumentException if timestamp is less than the previous one
+         * */
+        public void push(long timestamp, long value) {
+            advanceTo(timestamp);
+            add(timestamp, value);
+        }
+
+        /**
+         * Moves end of time-based window to the given time without adding a sample, so old samples leave the window
+         * @param timestamp current time, not less than timestamp of the previous sample
+         * @throws IllegalStateException if window is count-based
+         * @throws IllegalArgumentException if timestamp is less than the previous one
+         * */
+        public void advanceTo(long timestamp) {
+            if (window > 0) throw new IllegalStateException("Count-based window has no timestamps");
+            if (timestamp < latest) throw new IllegalArgumentException("Timestamps must not decrease");
+            latest = timestamp;
+            // window holds negated length; saturate instead of overflowing for timestamps near Long.MIN_VALUE
+            long oldest = timestamp + window;
+            evict(oldest > timestamp ? Long.MIN_VALUE : oldest);
+        }
+
+        /**
+         * @return the largest value in the window
+         * @throws IllegalStateException if window is empty
+         * */
+        public long currentMax() {
+            if (maxSize == 0) throw new IllegalStateException("Window is empty");
+            return maxValues[maxHead];
+        }
+
+        /**
+         * @return the smallest value in the window
+         * @throws IllegalStateException if window is empty
+         * */
+        public long currentMin() {
+            if (minSize == 0) throw new IllegalStateException("Window is empty");
+            return minValues[minHead];
+        }
+
+        /**
+         * @return true if there are no samples in the window
+         * */
+        public boolean isEmpty() {return maxSize == 0;}
+
+        /**
+         * Removes all samples, so window can be reused. Buffers are kept
+         * */
+        public void reset() {
+            latest = Long.MIN_VALUE;
+            pushed = 0;
+            maxHead = maxSize = 0;
+            minHead = minSize = 0;
+        }
+
+        /**
+         * Removes samples at positions not greater than the given one from the fronts of both deques
+         * */
+        private void evict(long through) {
+            int mask = maxValues.length - 1;
+            while (maxSize > 0 && maxPositions[maxHead] <= through) {
+                maxHead = maxHead + 1 & mask;
+                maxSize--;
+            }
+            while (minSize > 0 && minPositions[minHead] <= through) {
+                minHead = minHead + 1 & mask;
+                minSize--;
+            }
+        }
+
+        private void add(long position, long value) {
+            int mask = maxValues.length - 1;
+            while (maxSize > 0 && maxValues[maxHead + maxSize - 1 & mask] <= value) maxSize--;
+            while (minSize > 0 && minValues[minHead + minSize - 1 & mask] >= value) minSize--;
+            if (maxSize == maxValues.length || minSize == minValues.length) {
+                grow();
+                mask = maxValues.length - 1;
+            }
+            int maxTail = maxHead + maxSize++ & mask;
+            maxValues[maxTail] = value;
+            maxPositions[maxTail] = position;
+            int minTail = minHead + minSize++ & mask;
+            minValues[minTail] = value;
+            minPositions[minTail] = position;
+        }
+
+        /**
+         * Doubles capacity of both ring buffers and moves deques to the beginning of new ones
+         * */
+        private void grow() {
+            int capacity = maxValues.length;
+            if (capacity == 1 << 30) throw new IllegalStateException("Window holds too many samples");
+            long[] newMaxValues = new long[capacity << 1];
+            long[] newMaxPositions = new long[capacity << 1];
+            long[] newMinValues = new long[capacity << 1];
+            long[] newMinPositions = new long[capacity << 1];
+            for (int i = 0; i < maxSize; i++) {
+                int from = maxHead + i & capacity - 1;
+                newMaxValues[i] = maxValues[from];
+                newMaxPositions[i] = maxPositions[from];
+            }
+            for (int i = 0; i < minSize; i++) {
+                int from = minHead + i & capacity - 1;
+                newMinValues[i] = minValues[from];
+                newMinPositions[i] = minPositions[from];
+            }
+            maxValues = newMaxValues;
+            maxPositions = newMaxPositions;
+            minValues = newMinValues;
+            minPositions = newMinPositions;
+            maxHead = 0;
+            minHead = 0;
+        }
+    }
+
+    /**
+     * Sliding window of double samples. NaN samples take their place in the window, but are ignored by both deques
+     * */
+    public static final class OfDouble {
+        /**
+         * Positive window size for count-based window, negated window length for time-based one
+         * */
+        private final long window;
+        private long latest = Long.MIN_VALUE;
+        private long pushed;
+
+        private double[] maxValues;
+        private long[] maxPositions;
+        private int maxHead;
+        private int maxSize;
+
+        private double[] minValues;
+        private long[] minPositions;
+        private int minHead;
+        private int minSize;
+
+        private OfDouble(long window, int capacity) {
+            this.window = window;
+            this.maxValues = new double[capacity];
+            this.maxPositions = new long[capacity];
+            this.minValues = new double[capacity];
+            this.minPositions = new long[capacity];
+        }
+
+        /**
+         * Adds next sample to count-based window, the oldest sample leaves the window if it is full
+         * @param value value of the sample
+         * @throws IllegalStateException if window is time-based
+         * */
+        public void push(double value) {
+            if (window < 0) throw new IllegalStateException("Time-based window needs a timestamp");
+            long position = pushed++;
+            evict(position - window);
+            if (value != value) return;
+            add(position, value);
+        }
+
+        /**
+         * Adds next sample to time-based window, samples with timestamps not greater than
+         * {@code timestamp - windowLength} leave the window
+         * @param timestamp timestamp of the sample, not less than timestamp of the previous one
+         * @param value value of the sample
+         * @throws IllegalStateException if window is count-based
+         * @throws IllegalArgumentException if timestamp is less than the previous one
+         * */
+        public void push(long timestamp, double value) {
+            advanceTo(timestamp);
+            if (value != value) return;
+            add(timestamp, value);
+        }
+
+        /**
+         * Moves end of time-based window to the given time without adding a sample, so old samples leave the window
+         * @param timestamp current time, not less than timestamp of the previous sample
+         * @throws IllegalStateException if window is count-based
+         * @throws IllegalArgumentException if timestamp is less than the previous one
+         * */
+        public void advanceTo(long timestamp) {
+            if (window > 0) throw new IllegalStateException("Count-based window has no timestamps");
+            if (timestamp < latest) throw new IllegalArgumentException("Timestamps must not decrease");
+            latest = timestamp;
+            // window holds negated length; saturate instead of overflowing for timestamps near Long.MIN_VALUE
+            long oldest = timestamp + window;
+            evict(oldest > timestamp ? Long.MIN_VALUE : oldest);
+        }
+
+        /**
+         * @return the largest value in the window
+         * @throws IllegalStateException if window is empty
+         * */
+        public double currentMax() {
+            if (maxSize == 0) throw new IllegalStateException("Window is empty");
+            return maxValues[maxHead];
+        }
+
+        /**
+         * @return the smallest value in the window
+         * @throws IllegalStateException if window is empty
+         * */
+        public double currentMin() {
+            if (minSize == 0) throw new IllegalStateException("Window is empty");
+            return minValues[minHead];
+        }
+
+        /**
+         * @return true if there are no samples in the window other than NaNs
+         * */
+        public boolean isEmpty() {return maxSize == 0;}
+
+        /**
+         * Removes all samples, so window can be reused. Buffers are kept
+         * */
+        public void reset() {
+            latest = Long.MIN_VALUE;
+            pushed = 0;
+            maxHead = maxSize = 0;
+            minHead = minSize = 0;
+        }
+
+        /**
+         * Removes samples at positions not greater than the given one from the fronts of both deques
+         * */
+        private void evict(long through) {
+            int mask = maxValues.length - 1;
+            while (maxSize > 0 && maxPositions[maxHead] <= through) {
+                maxHead = maxHead + 1 & mask;
+                maxSize--;
+            }
+            while (minSize > 0 && minPositions[minHead] <= through) {
+                minHead = minHead + 1 & mask;
+                minSize--;
+            }
+        }
+
+        private void add(long position, double value) {
+            int mask = maxValues.length - 1;
+            while (maxSize > 0 && maxValues[maxHead + maxSize - 1 & mask] <= value) maxSize--;
+            while (minSize > 0 && minValues[minHead + minSize - 1 & mask] >= value) minSize--;
+            if (maxSize == maxValues.length || minSize == minValues.length) {
+                grow();
+                mask = maxValues.length - 1;
+            }
+            int maxTail = maxHead + maxSize++ & mask;
+            maxValues[maxTail] = value;
+            maxPositions[maxTail] = position;
+            int minTail = minHead + minSize++ & mask;
+            minValues[minTail] = value;
+            minPositions[minTail] = position;
+        }
+
+        /**
+         * Doubles capacity of both ring buffers and moves deques to the beginning of new ones
+         * */
+        private void grow() {
+            int capacity = maxValues.length;
+            if (capacity == 1 << 30) throw new IllegalStateException("Window holds too many samples");
+            double[] newMaxValues = new double[capacity << 1];
+            long[] newMaxPositions = new long[capacity << 1];
+            double[] newMinValues = new double[capacity << 1];
+            long[] newMinPositions = new long[capacity << 1];
+            for (int i = 0; i < maxSize; i++) {
+                int from = maxHead + i & capacity - 1;
+                newMaxValues[i] = maxValues[from];
+                newMaxPositions[i] = maxPositions[from];
+            }
+            for (int i = 0; i < minSize; i++) {
+                int from = minHead + i & capacity - 1;
+                newMinValues[i] = minValues[from];
+                newMinPositions[i] = minPositions[from];
+            }
+            maxValues = newMaxValues;
+            maxPositions = newMaxPositions;
+            minValues = newMinValues;
+            minPositions = newMinPositions;
+            maxHead = 0;
+            minHead = 0;
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package sort;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * External merge sort of files that do not fit in memory.
+ * <p>Input is read in chunks that fit the given memory budget. Every chunk is sorted in memory ({@link QuickSort}
+ * for primitives, stable {@link MergeSort} for byte records) and spilled as a sorted run to a temporary file.
+ * Then runs are merged with a loser tree, which needs only one comparison per tree level for every output record.
+ * If there are more runs than {@value #MAX_FAN_IN}, they are merged in several passes.
+ * <p>Supported formats:
+ * <ul>
+ *     <li>fixed-width big-endian {@code int} or {@code long} values without any header;</li>
+ *     <li>records, each one is a big-endian {@code int} length followed by that many bytes,
+ *     compared with given comparator. Records with equal keys keep their input order.</li>
+ * </ul>
+ * Temporary files are deleted when sort finishes, also when it fails.
+ * */
+public class ExternalSort {
+    /**
+     * Default memory budget of one in-memory chunk
+     * */
+    public static final long DEFAULT_CHUNK_BYTES = 64L << 20;
+    private static final int MAX_FAN_IN = 64;
+    private static final int IO_BUFFER = 1 << 16;
+    // approximate heap cost of one byte[] record besides its content: array header and reference
+    private static final int RECORD_OVERHEAD = 24;
+
+    /**
+     * Sorts file of big-endian ints in ascending order, using default chunk size and system temporary directory
+     * @param input file with ints
+     * @param output file where sorted ints are written, it is replaced if exists
+     * @throws IllegalArgumentException if one of paths is null
+     * @throws IOException if files cannot be read or written, or input size is not a multiple of 4
+     * */
+    public static void sortInts(Path input, Path output) throws IOException {
+        sortInts(input, output, DEFAULT_CHUNK_BYTES, null);
+    }
+
+    /**
+     * Sorts file of big-endian ints in ascending order
+     * @param input file with ints
+     * @param output file where sorted ints are written, it is replaced if exists
+     * @param chunkBytes memory budget of one in-memory chunk
+     * @param tempDir directory for sorted runs, or null for system temporary directory
+     * @throws IllegalArgumentException if input or output is null, or chunk cannot hold at least two ints
+     * @throws IOException if files cannot be read or written, or input size is not a multiple of 4
+     * */
+    public static void sortInts(Path input, Path output, long chunkBytes, Path tempDir) throws IOException {
+        int chunkRecords = chunkRecords(input, output, chunkBytes, Integer.BYTES);
+        checkFixedWidth(input, Integer.BYTES);
+        List<Path> runs = new ArrayList<>();
+        try {
+            try (Input in = new Input(input)) {
+                int[] chunk = new int[(int) Math.min(chunkRecords, Files.size(input) / Integer.BYTES)];
+                while (in.hasRemaining()) {
+                    int size = 0;
+                    while (size < chunk.length && in.hasRemaining()) {
+                        chunk[size++] = in.readInt();
+                    }
+                    QuickSort.sort(chunk, 0, size - 1);
+                    try (Output out = new Output(newRun(runs, tempDir))) {
+                        for (int i = 0; i < size; i++) {
+                            out.writeInt(chunk[i]);
+                        }
+                    }
+                }
+            }
+            mergeRuns(runs, output, tempDir, IntRun::new);
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    /**
+     * Sorts file of big-endian longs in ascending order, using default chunk size and system temporary directory
+     * @param input file with longs
+     * @param output file where sorted longs are written, it is replaced if exists
+     * @throws IllegalArgumentException if one of paths is null
+     * @throws IOException if files cannot be read or written, or input size is not a multiple of 8
+     * */
+    public static void sortLongs(Path input, Path output) throws IOException {
+        sortLongs(input, output, DEFAULT_CHUNK_BYTES, null);
+    }
+
+    /**
+     * Sorts file of big-endian longs in ascending order
+     * @param input file with longs
+     * @param output file where sorted longs are written, it is replaced if exists
+     * @param chunkBytes memory budget of one in-memory chunk
+     * @param tempDir directory for sorted runs, or null for system temporary directory
+     * @throws IllegalArgumentException if input or output is null, or chunk cannot hold at least two longs
+     * @throws IOException if files cannot be read or written, or input size is not a multiple of 8
+     * */
+    public static void sortLongs(Path input, Path output, long chunkBytes, Path tempDir) throws IOException {
+        int chunkRecords = chunkRecords(input, output, chunkBytes, Long.BYTES);
+        checkFixedWidth(input, Long.BYTES);
+        List<Path> runs = new ArrayList<>();
+        try {
+            try (Input in = new Input(input)) {
+                long[] chunk = new long[(int) Math.min(chunkRecords, Files.size(input) / Long.BYTES)];
+                while (in.hasRemaining()) {
+                    int size = 0;
+                    while (size < chunk.length && in.hasRemaining()) {
+                        chunk[size++] = in.readLong();
+                    }
+                    QuickSort.sort(chunk, 0, size - 1);
+                    try (Output out = new Output(newRun(runs, tempDir))) {
+                        for (int i = 0; i < size; i++) {
+                            out.writeLong(chunk[i]);
+                        }
+                    }
+                }
+            }
+            mergeRuns(runs, output, tempDir, LongRun::new);
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    /**
+     * Sorts file of length-prefixed records, using default chunk size and system temporary directory. Sort is stable
+     * @param input file with records
+     * @param output file where sorted records are written, it is replaced if exists
+     * @param comparator Comparator according to which records are compared
+     * @throws IllegalArgumentException if one of arguments is null
+     * @throws IOException if files cannot be read or written, or input has truncated record
+     * */
+    public static void sortRecords(Path input, Path output, Comparator<? super byte[]> comparator) throws IOException {
+        sortRecords(input, output, comparator, DEFAULT_CHUNK_BYTES, null);
+    }
+
+    /**
+     * Sorts file of length-prefixed records. Sort is stable. Record that is larger than chunk forms a chunk alone
+     * @param input file with records
+     * @param output file where sorted records are written, it is replaced if exists
+     * @param comparator Comparator according to which records are compared
+     * @param chunkBytes memory budget of one in-memory chunk
+     * @param tempDir directory for sorted runs, or null for system temporary directory
+     * @throws IllegalArgumentException if input, output or comparator is null, or chunk size is not positive
+     * @throws IOException if files cannot be read or written, or input has truncated record
+     * */
+    public static void sortRecords(Path input, Path output, Comparator<? super byte[]> comparator,
+                                   long chunkBytes, Path tempDir) throws IOException {
+        if (comparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        chunkRecords(input, output, chunkBytes, 1);
+        List<Path> runs = new ArrayList<>();
+        try {
+            try (Input in = new Input(input)) {
+                List<byte[]> chunk = new ArrayList<>();
+                while (in.hasRemaining()) {
+                    chunk.clear();
+                    long used = 0;
+                    while (in.hasRemaining() && (chunk.isEmpty() || used < chunkBytes)) {
+                        byte[] record = in.readRecord();
+                        chunk.add(record);
+                        used += record.length + RECORD_OVERHEAD;
+                    }
+                    MergeSort.sort(chunk, comparator);
+                    try (Output out = new Output(newRun(runs, tempDir))) {
+                        for (byte[] record : chunk) {
+                            out.writeRecord(record);
+                        }
+                    }
+                }
+            }
+            mergeRuns(runs, output, tempDir, path -> new RecordRun(path, comparator));
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    private static int chunkRecords(Path input, Path output, long chunkBytes, int recordBytes) {
+        if (input == null || output == null) throw new IllegalArgumentException("Path cannot be null");
+        if (chunkBytes < 2L * recordBytes) throw new IllegalArgumentException("Chunk is too small");
+        return (int) Math.min(chunkBytes / recordBytes, Integer.MAX_VALUE - 8);
+    }
+
+    private static void checkFixedWidth(Path input, int recordBytes) throws IOException {
+        if (Files.size(input) % recordBytes != 0) {
+            throw new IOException("Input size is not a multiple of record size " + recordBytes);
+        }
+    }
+
+    private static Path newRun(List<Path> runs, Path tempDir) throws IOException {
+        Path run = tempDir == null
+                ? Files.createTempFile("external-sort-", ".run")
+                : Files.createTempFile(tempDir, "external-sort-", ".run");
+        runs.add(run);
+        return run;
+    }
+
+    private static void deleteAll(List<Path> runs) throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RunOpener {
+        Run open(Path path) throws IOException;
+    }
+
+    /**
+     * Merges runs into output. While there are more runs than fan-in, groups of runs are merged into new runs first
+     * */
+    private static void mergeRuns(List<Path> runs, Path output, Path tempDir, RunOpener opener) throws IOException {
+        if (runs.isEmpty()) {
+            Files.write(output, new byte[0]);
+            return;
+        }
+        List<Path> pending = new ArrayList<>(runs);
+        while (pending.size() > MAX_FAN_IN) {
+            List<Path> next = new ArrayList<>();
+            for (int from = 0; from < pending.size(); from += MAX_FAN_IN) {
+                List<Path> group = pending.subList(from, Math.min(from + MAX_FAN_IN, pending.size()));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                Path merged = newRun(runs, tempDir);
+                merge(group, merged, opener);
+                next.add(merged);
+            }
+            pending = next;
+        }
+        if (pending.size() == 1) {
+            Files.move(pending.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            merge(pending, output, opener);
+        }
+    }
+
+    private static void merge(List<Path> paths, Path output, RunOpener opener) throws IOException {
+        Run[] runs = new Run[paths.size()];
+        try (Output out = new Output(output)) {
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = opener.open(paths.get(i));
+                runs[i].advance();
+            }
+            LoserTree tree = new LoserTree(runs);
+            int winner;
+            while ((winner = tree.winner()) >= 0) {
+                runs[winner].writeCurrent(out);
+                runs[winner].advance();
+                tree.replay(winner);
+            }
+        } finally {
+            for (Run run : runs) {
+                if (run != null) run.close();
+            }
+        }
+    }
+
+    /**
+     * Tournament tree of runs. Internal node keeps the loser of the match played in it, so after the winner
+     * advances only matches on the path from its leaf to the root are replayed. Leaves are at positions
+     * [k, 2k) of implicit binary tree, so any number of runs is supported.
+     * Exhausted run loses to every other run, ties are won by run with lower index, which keeps merge stable.
+     * */
+    private static final class LoserTree {
+        private final Run[] runs;
+        private final int[] losers;
+        private int winner;
+
+        LoserTree(Run[] runs) {
+            this.runs = runs;
+            int k = runs.length;
+            this.losers = new int[k];
+            int[] winners = new int[2 * k];
+            for (int i = 0; i < k; i++) {
+                winners[k + i] = i;
+            }
+            for (int node = k - 1; node >= 1; node--) {
+                int a = winners[2 * node];
+                int b = winners[2 * node + 1];
+                if (beats(a, b)) {
+                    winners[node] = a;
+                    losers[node] = b;
+                } else {
+                    winners[node] = b;
+                    losers[node] = a;
+                }
+            }
+            winner = k == 1 ? 0 : winners[1];
+        }
+
+        /**
+         * @return index of run with the smallest current record, or -1 if all runs are exhausted
+         * */
+        int winner() {
+            return runs[winner].exhausted ? -1 : winner;
+        }
+
+        void replay(int run) {
+            int current = run;
+            for (int node = (run + runs.length) >> 1; node >= 1; node >>= 1) {
+                if (beats(losers[node], current)) {
+                    int t = losers[node];
+                    losers[node] = current;
+                    current = t;
+                }
+            }
+            winner = current;
+        }
+
+        private boolean beats(int a, int b) {
+            if (runs[a].exhausted) return false;
+            if (runs[b].exhausted) return true;
+            int cmp = runs[a].compareTo(runs[b]);
+            return cmp < 0 || cmp == 0 && a < b;
+        }
+    }
+
+    /**
+     * Sorted run that is read sequentially, one current record at a time
+     * */
+    private abstract static class Run implements AutoCloseable {
+        final Input in;
+        boolean exhausted;
+
+        Run(Path path) throws IOException {
+            this.in = new Input(path);
+        }
+
+        /**
+         * Loads next record as current one, or marks run as exhausted
+         * */
+        final void advance() throws IOException {
+            if (in.hasRemaining()) {
+                read();
+            } else {
+                exhausted = true;
+            }
+        }
+
+        abstract void read() throws IOException;
+
+        abstract int compareTo(Run other);
+
+        abstract void writeCurrent(Output out) throws IOException;
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class IntRun extends Run {
+        private int current;
+
+        IntRun(Path path) throws IOException {super(path);}
+
+        @Override
+        void read() throws IOException {current = in.readInt();}
+
+        @Override
+        int compareTo(Run other) {return Integer.compare(current, ((IntRun) other).current);}
+
+        @Override
+        void writeCurrent(Output out) throws IOException {out.writeInt(current);}
+    }
+
+    private static final class LongRun extends Run {
+        private long current;
+
+        LongRun(Path path) throws IOException {super(path);}
+
+        @Override
+        void read() throws IOException {current = in.readLong();}
+
+        @Override
+        int compareTo(Run other) {return Long.compare(current, ((LongRun) other).current);}
+
+        @Override
+        void writeCurrent(Output out) throws IOException {out.writeLong(current);}
+    }
+
+    private static final class RecordRun extends Run {
+        private final Comparator<? super byte[]> comparator;
+        private byte[] current;
+
+        RecordRun(Path path, Comparator<? super byte[]> comparator) throws IOException {
+            super(path);
+            this.comparator = comparator;
+        }
+
+        @Override
+        void read() throws IOException {current = in.readRecord();}
+
+        @Override
+        int compareTo(Run other) {return comparator.compare(current, ((RecordRun) other).current);}
+
+        @Override
+        void writeCurrent(Output out) throws IOException {out.writeRecord(current);}
+    }
+
+    /**
+     * Buffered sequential reader over FileChannel
+     * */
+    private static final class Input implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER);
+        private boolean endOfFile;
+
+        Input(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        boolean hasRemaining() throws IOException {
+            return buffer.hasRemaining() || fill(1);
+        }
+
+        /**
+         * Reads from channel until buffer has at least given number of bytes or file ends
+         * @return true if buffer has enough bytes
+         * */
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return true;
+            buffer.compact();
+            while (buffer.position() < bytes && !endOfFile) {
+                if (channel.read(buffer) < 0) endOfFile = true;
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+
+        int readInt() throws IOException {
+            if (!fill(Integer.BYTES)) throw new EOFException("Truncated int");
+            return buffer.getInt();
+        }
+
+        long readLong() throws IOException {
+            if (!fill(Long.BYTES)) throw new EOFException("Truncated long");
+            return buffer.getLong();
+        }
+
+        byte[] readRecord() throws IOException {
+            int length = readInt();
+            if (length < 0) throw new IOException("Negative record length");
+            byte[] record = new byte[length];
+            int read = 0;
+            while (read < length) {
+                if (!fill(1)) throw new EOFException("Truncated record");
+                int part = Math.min(buffer.remaining(), length - read);
+                buffer.get(record, read, part);
+                read += part;
+            }
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Buffered sequential writer over FileChannel. Existing file is replaced
+     * */
+    private static final class Output implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER);
+
+        Output(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void writeRecord(byte[] record) throws IOException {
+            writeInt(record.length);
+            int written = 0;
+            while (written < record.length) {
+                ensure(1);
+                int part = Math.min(buffer.remaining(), record.length - written);
+                buffer.put(record, written, part);
+                written += part;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Stable adaptive merge sort in the style of TimSort.
+ * <p>Array is split into natural runs (non-descending, or strictly descending ones that are reversed in place).
+ * Runs shorter than minimal length are extended with binary insertion sort. Runs are kept on a stack whose lengths
+ * grow at least like Fibonacci numbers, so merges stay balanced. When one run wins many comparisons in a row,
+ * merge switches to galloping: it finds the end of the winning block with exponential and binary search and copies
+ * it at once. So already sorted or partly sorted input takes close to n comparisons, and worst case is O(n log n).
+ * <p>Equal elements keep their relative order, so records can be sorted by several keys in stages.
+ * Lists are copied to an array once and written back through {@link ListIterator}, so linked lists are sorted
+ * in O(n log n) too.
+ * */
+public class MergeSort {
+    private static final int MIN_MERGE = 32;
+    private static final int MIN_GALLOP = 7;
+    // enough for arrays of Integer.MAX_VALUE elements, as run lengths grow faster than Fibonacci numbers
+    private static final int MAX_RUNS = 49;
+
+    /**
+     * Sorts the given list according to given comparator. Sort is stable
+     * @param list List that has to be sorted
+     * @param comparator Comparator according to which comparison between list elements must be performed
+     * @return the same list, sorted
+     * @throws IllegalArgumentException if list or comparator is null, or comparator violates its contract
+     * @throws UnsupportedOperationException if provided list is unmodifiable
+     * */
+    public static <T> List<T> sort(List<T> list, Comparator<? super T> comparator) {
+        if (list == null) throw new IllegalArgumentException("List cannot be null");
+        if (comparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        Object[] arr = list.toArray();
+        new Sorter<>(arr, comparator).sort();
+        ListIterator<T> iterator = list.listIterator();
+        for (Object element : arr) {
+            iterator.next();
+            @SuppressWarnings("unchecked") T value = (T) element;
+            iterator.set(value);
+        }
+        return list;
+    }
+
+    /**
+     * Sorts the given array according to given comparator. Sort is stable
+     * @param arr array that has to be sorted
+     * @param comparator Comparator according to which comparison between array elements must be performed
+     * @return the same array, sorted
+     * @throws IllegalArgumentException if array or comparator is null, or comparator violates its contract
+     * */
+    public static <T> T[] sort(T[] arr, Comparator<? super T> comparator) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (comparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        new Sorter<>(arr, comparator).sort();
+        return arr;
+    }
+
+    /**
+     * State of one sort: array, merge buffer and stack of pending runs
+     * */
+    private static final class Sorter<T> {
+        private final Object[] a;
+        private final Comparator<? super T> comparator;
+        private Object[] tmp = new Object[0];
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[MAX_RUNS];
+        private final int[] runLen = new int[MAX_RUNS];
+        private int stackSize;
+
+        Sorter(Object[] a, Comparator<? super T> comparator) {
+            this.a = a;
+            this.comparator = comparator;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(Object x, Object y) {
+            return comparator.compare((T) x, (T) y);
+        }
+
+        void sort() {
+            int n = a.length;
+            if (n < 2) return;
+            if (n < MIN_MERGE) {
+                int run = countRunAndMakeAscending(0, n);
+                binaryInsertionSort(0, n, run);
+                return;
+            }
+
+            int minRun = minRunLength(n);
+            int low = 0;
+            int remaining = n;
+            do {
+                int run = countRunAndMakeAscending(low, n);
+                if (run < minRun) {
+                    int forced = Math.min(remaining, minRun);
+                    binaryInsertionSort(low, low + forced, low + run);
+                    run = forced;
+                }
+                runBase[stackSize] = low;
+                runLen[stackSize] = run;
+                stackSize++;
+                mergeCollapse();
+                low += run;
+                remaining -= run;
+            } while (remaining != 0);
+            mergeForceCollapse();
+        }
+
+        /**
+         * @return minimal run length, chosen so that n / minRun is a power of two or slightly less than it
+         * */
+        private static int minRunLength(int n) {
+            int remainder = 0;
+            while (n >= MIN_MERGE) {
+                remainder |= n & 1;
+                n >>= 1;
+            }
+            return n + remainder;
+        }
+
+        /**
+         * Finds length of the run that starts at low. Strictly descending run is reversed,
+         * strictness keeps equal elements in their order
+         * */
+        private int countRunAndMakeAscending(int low, int high) {
+            int end = low + 1;
+            if (end == high) return 1;
+            if (compare(a[end++], a[low]) < 0) {
+                while (end < high && compare(a[end], a[end - 1]) < 0) end++;
+                for (int i = low, j = end - 1; i < j; i++, j--) {
+                    Object t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                }
+            } else {
+                while (end < high && compare(a[end], a[end - 1]) >= 0) end++;
+            }
+            return end - low;
+        }
+
+        /**
+         * Sorts [low, high), where [low, start) is already sorted. New element is inserted after all equal ones
+         * */
+        private void binaryInsertionSort(int low, int high, int start) {
+            for (int i = Math.max(start, low + 1); i < high; i++) {
+                Object pivot = a[i];
+                int left = low;
+                int right = i;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (compare(pivot, a[mid]) < 0) {
+                        right = mid;
+                    } else {
+                        left = mid + 1;
+                    }
+                }
+                System.arraycopy(a, left, a, left + 1, i - left);
+                a[left] = pivot;
+            }
+        }
+
+        /**
+         * Merges runs on top of the stack until lengths satisfy
+         * runLen[i - 2] > runLen[i - 1] + runLen[i] and runLen[i - 1] > runLen[i] for the top runs
+         * */
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges runs i and i + 1 of the stack. Elements of the first run that are already in place
+         * and elements of the second run that are already in place are skipped with galloping
+         * */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int skipped = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += skipped;
+            len1 -= skipped;
+            if (len1 == 0) return;
+
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) {
+                mergeLow(base1, len1, base2, len2);
+            } else {
+                mergeHigh(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * Finds position to insert key before all equal elements of sorted range, starting search at hint
+         * @return k such that arr[base + k - 1] < key <= arr[base + k]
+         * */
+        private int gallopLeft(Object key, Object[] arr, int base, int len, int hint) {
+            int lastOffset = 0;
+            int offset = 1;
+            if (compare(key, arr[base + hint]) > 0) {
+                int maxOffset = len - hint;
+                while (offset < maxOffset && compare(key, arr[base + hint + offset]) > 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) offset = maxOffset;
+                }
+                if (offset > maxOffset) offset = maxOffset;
+                lastOffset += hint;
+                offset += hint;
+            } else {
+                int maxOffset = hint + 1;
+                while (offset < maxOffset && compare(key, arr[base + hint - offset]) <= 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) offset = maxOffset;
+                }
+                if (offset > maxOffset) offset = maxOffset;
+                int t = lastOffset;
+                lastOffset = hint - offset;
+                offset = hint - t;
+            }
+
+            lastOffset++;
+            while (lastOffset < offset) {
+                int mid = lastOffset + ((offset - lastOffset) >>> 1);
+                if (compare(key, arr[base + mid]) > 0) {
+                    lastOffset = mid + 1;
+                } else {
+                    offset = mid;
+                }
+            }
+            return offset;
+        }
+
+        /**
+         * Finds position to insert key after all equal elements of sorted range, starting search at hint
+         * @return k such that arr[base + k - 1] <= key < arr[base + k]
+         * */
+        private int gallopRight(Object key, Object[] arr, int base, int len, int hint) {
+            int lastOffset = 0;
+            int offset = 1;
+            if (compare(key, arr[base + hint]) < 0) {
+                int maxOffset = hint + 1;
+                while (offset < maxOffset && compare(key, arr[base + hint - offset]) < 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) offset = maxOffset;
+                }
+                if (offset > maxOffset) offset = maxOffset;
+                int t = lastOffset;
+                lastOffset = hint - offset;
+                offset = hint - t;
+            } else {
+                int maxOffset = len - hint;
+                while (offset < maxOffset && compare(key, arr[base + hint + offset]) >= 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) offset = maxOffset;
+                }
+                if (offset > maxOffset) offset = maxOffset;
+                lastOffset += hint;
+                offset += hint;
+            }
+
+            lastOffset++;
+            while (lastOffset < offset) {
+                int mid = lastOffset + ((offset - lastOffset) >>> 1);
+                if (compare(key, arr[base + mid]) < 0) {
+                    offset = mid;
+                } else {
+                    lastOffset = mid + 1;
+                }
+            }
+            return offset;
+        }
+
+        /**
+         * Merges two adjacent runs left to right, first (shorter) run is copied to buffer.
+         * First element of the second run is less than first element of the first run,
+         * and last element of the first run is greater than all elements of the second run
+         * */
+        private void mergeLow(int base1, int len1, int base2, int len2) {
+            Object[] buffer = buffer(len1);
+            System.arraycopy(a, base1, buffer, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(buffer, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = buffer[cursor1];
+                return;
+            }
+
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int wins1 = 0;
+                int wins2 = 0;
+                // one element at a time until one run wins consistently
+                do {
+                    if (compare(a[cursor2], buffer[cursor1]) < 0) {
+                        a[dest++] = a[cursor2++];
+                        wins2++;
+                        wins1 = 0;
+                        if (--len2 == 0) break outer;
+                    } else {
+                        a[dest++] = buffer[cursor1++];
+                        wins1++;
+                        wins2 = 0;
+                        if (--len1 == 1) break outer;
+                    }
+                } while ((wins1 | wins2) < gallop);
+
+                // galloping while it pays off
+                do {
+                    wins1 = gallopRight(a[cursor2], buffer, cursor1, len1, 0);
+                    if (wins1 != 0) {
+                        System.arraycopy(buffer, cursor1, a, dest, wins1);
+                        dest += wins1;
+                        cursor1 += wins1;
+                        len1 -= wins1;
+                        if (len1 <= 1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) break outer;
+
+                    wins2 = gallopLeft(buffer[cursor1], a, cursor2, len2, 0);
+                    if (wins2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, wins2);
+                        dest += wins2;
+                        cursor2 += wins2;
+                        len2 -= wins2;
+                        if (len2 == 0) break outer;
+                    }
+                    a[dest++] = buffer[cursor1++];
+                    if (--len1 == 1) break outer;
+                    gallop--;
+                } while (wins1 >= MIN_GALLOP | wins2 >= MIN_GALLOP);
+                if (gallop < 0) gallop = 0;
+                gallop += 2; // penalty for leaving galloping mode
+            }
+            minGallop = Math.max(gallop, 1);
+
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = buffer[cursor1];
+            } else if (len1 == 0) {
+                throw new IllegalArgumentException("Comparator violates its general contract");
+            } else {
+                System.arraycopy(buffer, cursor1, a, dest, len1);
+            }
+        }
+
+        /**
+         * Merges two adjacent runs right to left, second (shorter) run is copied to buffer.
+         * Preconditions are the same as in {@link #mergeLow(int, int, int, int)}
+         * */
+        private void mergeHigh(int base1, int len1, int base2, int len2) {
+            Object[] buffer = buffer(len2);
+            System.arraycopy(a, base2, buffer, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(buffer, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = buffer[cursor2];
+                return;
+            }
+
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int wins1 = 0;
+                int wins2 = 0;
+                do {
+                    if (compare(buffer[cursor2], a[cursor1]) < 0) {
+                        a[dest--] = a[cursor1--];
+                        wins1++;
+                        wins2 = 0;
+                        if (--len1 == 0) break outer;
+                    } else {
+                        a[dest--] = buffer[cursor2--];
+                        wins2++;
+                        wins1 = 0;
+                        if (--len2 == 1) break outer;
+                    }
+                } while ((wins1 | wins2) < gallop);
+
+                do {
+                    wins1 = len1 - gallopRight(buffer[cursor2], a, base1, len1, len1 - 1);
+                    if (wins1 != 0) {
+                        dest -= wins1;
+                        cursor1 -= wins1;
+                        len1 -= wins1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, wins1);
+                        if (len1 == 0) break outer;
+                    }
+                    a[dest--] = buffer[cursor2--];
+                    if (--len2 == 1) break outer;
+
+                    wins2 = len2 - gallopLeft(a[cursor1], buffer, 0, len2, len2 - 1);
+                    if (wins2 != 0) {
+                        dest -= wins2;
+                        cursor2 -= wins2;
+                        len2 -= wins2;
+                        System.arraycopy(buffer, cursor2 + 1, a, dest + 1, wins2);
+                        if (len2 <= 1) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) break outer;
+                    gallop--;
+                } while (wins1 >= MIN_GALLOP | wins2 >= MIN_GALLOP);
+                if (gallop < 0) gallop = 0;
+                gallop += 2;
+            }
+            minGallop = Math.max(gallop, 1);
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = buffer[cursor2];
+            } else if (len2 == 0) {
+                throw new IllegalArgumentException("Comparator violates its general contract");
+            } else {
+                System.arraycopy(buffer, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        private Object[] buffer(int length) {
+            if (tmp.length < length) {
+                int grown = Math.max(length, Math.min(a.length / 2, tmp.length * 2));
+                tmp = new Object[grown];
+            }
+            return tmp;
+        }
+    }
+}
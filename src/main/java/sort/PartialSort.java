@@ -0,0 +1,505 @@
+package sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Selection of k smallest elements without sorting the whole array.
+ * <p>{@code select} is introselect: quickselect with median-of-three pivot and three-way partition, which descends
+ * only into the side that contains k-th position. If it does not converge after 2·log n partitions, pivots are chosen
+ * with median of medians (groups of five), which guarantees linear time in the worst case.
+ * {@code partialSort} selects k smallest elements this way and then sorts only them, so it costs O(n + k log k).
+ * <p>Doubles are ordered as in {@link Double#compare(double, double)}.
+ * */
+public class PartialSort {
+    private static final int INSERTION_THRESHOLD = 16;
+    private static final int GROUP = 5;
+
+    /**
+     * Rearranges array so that element at position k is the one that would be there if the array was sorted,
+     * elements before it are not greater and elements after it are not less
+     * @param arr array to select from
+     * @param k position in sorted order, starting from 0
+     * @return k-th smallest element
+     * @throws IllegalArgumentException if array is null or k is out of array bounds
+     * */
+    public static int select(int[] arr, int k) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (k < 0 || k >= arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        select(arr, 0, arr.length - 1, k, depthLimit(arr.length));
+        return arr[k];
+    }
+
+    /**
+     * Moves k smallest elements to the beginning of array in ascending order. Order of other elements is unspecified
+     * @param arr array that has to be partially sorted
+     * @param k number of smallest elements
+     * @return the same array
+     * @throws IllegalArgumentException if array is null or k is negative or greater than array length
+     * */
+    public static int[] partialSort(int[] arr, int k) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (k < 0 || k > arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        if (k == 0) return arr;
+        select(arr, 0, arr.length - 1, k - 1, depthLimit(arr.length));
+        QuickSort.sort(arr, 0, k - 2);
+        return arr;
+    }
+
+    /**
+     * Rearranges array so that element at position k is the one that would be there if the array was sorted,
+     * elements before it are not greater and elements after it are not less
+     * @param arr array to select from
+     * @param k position in sorted order, starting from 0
+     * @return k-th smallest element
+     * @throws IllegalArgumentException if array is null or k is out of array bounds
+     * */
+    public static long select(long[] arr, int k) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (k < 0 || k >= arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        select(arr, 0, arr.length - 1, k, depthLimit(arr.length));
+        return arr[k];
+    }
+
+    /**
+     * Moves k smallest elements to the beginning of array in ascending order. Order of other elements is unspecified
+     * @param arr array that has to be partially sorted
+     * @param k number of smallest elements
+     * @return the same array
+     * @throws IllegalArgumentException if array is null or k is negative or greater than array length
+     * */
+    public static long[] partialSort(long[] arr, int k) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (k < 0 || k > arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        if (k == 0) return arr;
+        select(arr, 0, arr.length - 1, k - 1, depthLimit(arr.length));
+        QuickSort.sort(arr, 0, k - 2);
+        return arr;
+    }
+
+    /**
+     * Rearranges array so that element at position k is the one that would be there if the array was sorted,
+     * elements before it are not greater and elements after it are not less
+     * @param arr array to select from
+     * @param k position in sorted order, starting from 0
+     * @return k-th smallest element
+     * @throws IllegalArgumentException if array is null or k is out of array bounds
+     * */
+    public static double select(double[] arr, int k) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (k < 0 || k >= arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        select(arr, 0, arr.length - 1, k, depthLimit(arr.length));
+        return arr[k];
+    }
+
+    /**
+     * Moves k smallest elements to the beginning of array in ascending order. Order of other elements is unspecified
+     * @param arr array that has to be partially sorted
+     * @param k number of smallest elements
+     * @return the same array
+     * @throws IllegalArgumentException if array is null or k is negative or greater than array length
+     * */
+    public static double[] partialSort(double[] arr, int k) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (k < 0 || k > arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        if (k == 0) return arr;
+        select(arr, 0, arr.length - 1, k - 1, depthLimit(arr.length));
+        QuickSort.sort(arr, 0, k - 2);
+        return arr;
+    }
+
+    /**
+     * Rearranges array so that element at position k is the one that would be there if the array was sorted
+     * according to comparator, elements before it are not greater and elements after it are not less
+     * @param arr array to select from
+     * @param k position in sorted order, starting from 0
+     * @param comparator Comparator according to which comparison between array elements must be performed
+     * @return k-th smallest element
+     * @throws IllegalArgumentException if array or comparator is null, or k is out of array bounds
+     * */
+    public static <T> T select(T[] arr, int k, Comparator<? super T> comparator) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (comparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        if (k < 0 || k >= arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        select(arr, 0, arr.length - 1, k, depthLimit(arr.length), comparator);
+        return arr[k];
+    }
+
+    /**
+     * Moves k smallest elements to the beginning of array in ascending order of comparator. Sort is stable:
+     * prefix is the same as first k elements of {@link MergeSort}, and the rest of array keeps its original order.
+     * Selection runs on a copy of the array, so this method needs O(n) extra memory
+     * @param arr array that has to be partially sorted
+     * @param k number of smallest elements
+     * @param comparator Comparator according to which comparison between array elements must be performed
+     * @return the same array
+     * @throws IllegalArgumentException if array or comparator is null, or k is negative or greater than array length
+     * */
+    public static <T> T[] partialSort(T[] arr, int k, Comparator<? super T> comparator) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (comparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        if (k < 0 || k > arr.length) throw new IllegalArgumentException("k is out of array bounds");
+        if (k == 0) return arr;
+        T[] buffer = arr.clone();
+        select(buffer, 0, buffer.length - 1, k - 1, depthLimit(buffer.length), comparator);
+        T kth = buffer[k - 1];
+        // Everything less than kth is already before it, the rest of prefix is taken from its equals
+        int equal = k;
+        for (int i = 0; i < k; i++) {
+            if (comparator.compare(buffer[i], kth) < 0) equal--;
+        }
+
+        // Stable partition of the original order: prefix in [0, k), the rest in [k, n)
+        int head = 0;
+        int tail = k;
+        for (T element : arr) {
+            int cmp = comparator.compare(element, kth);
+            if (cmp < 0 || (cmp == 0 && equal-- > 0)) {
+                buffer[head++] = element;
+            } else {
+                buffer[tail++] = element;
+            }
+        }
+        T[] prefix = Arrays.copyOf(buffer, k);
+        MergeSort.sort(prefix, comparator);
+        System.arraycopy(prefix, 0, arr, 0, k);
+        System.arraycopy(buffer, k, arr, k, arr.length - k);
+        return arr;
+    }
+
+    private static int depthLimit(int size) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(size));
+    }
+
+    /**
+     * Introselect in [low, high]. Negative depth means that median of medians is used for all pivots
+     * */
+    private static void select(int[] arr, int low, int high, int k, int depth) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            int pivot;
+            if (depth < 0) {
+                pivot = arr[medianOfMedians(arr, low, high)];
+            } else {
+                depth--;
+                pivot = arr[medianOfThree(arr, low, (low + high) >>> 1, high)];
+            }
+
+            // [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                int value = arr[i];
+                if (value < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (pivot < value) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Sorts every group of five elements, moves their medians to the beginning of range
+     * and selects median of them recursively
+     * @return index of pivot that has at least 30% of range on each side
+     * */
+    private static int medianOfMedians(int[] arr, int low, int high) {
+        int medians = low;
+        for (int start = low; start <= high; start += GROUP) {
+            int end = Math.min(start + GROUP - 1, high);
+            insertionSort(arr, start, end);
+            swap(arr, medians++, (start + end) >>> 1);
+        }
+        int middle = (low + medians - 1) >>> 1;
+        select(arr, low, medians - 1, middle, -1);
+        return middle;
+    }
+
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) return a;
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    private static void insertionSort(int[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int value = arr[i];
+            int j = i - 1;
+            while (j >= low && value < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Introselect in [low, high]. Negative depth means that median of medians is used for all pivots
+     * */
+    private static void select(long[] arr, int low, int high, int k, int depth) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            long pivot;
+            if (depth < 0) {
+                pivot = arr[medianOfMedians(arr, low, high)];
+            } else {
+                depth--;
+                pivot = arr[medianOfThree(arr, low, (low + high) >>> 1, high)];
+            }
+
+            // [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                long value = arr[i];
+                if (value < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (pivot < value) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Sorts every group of five elements, moves their medians to the beginning of range
+     * and selects median of them recursively
+     * @return index of pivot that has at least 30% of range on each side
+     * */
+    private static int medianOfMedians(long[] arr, int low, int high) {
+        int medians = low;
+        for (int start = low; start <= high; start += GROUP) {
+            int end = Math.min(start + GROUP - 1, high);
+            insertionSort(arr, start, end);
+            swap(arr, medians++, (start + end) >>> 1);
+        }
+        int middle = (low + medians - 1) >>> 1;
+        select(arr, low, medians - 1, middle, -1);
+        return middle;
+    }
+
+    private static int medianOfThree(long[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) return a;
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    private static void insertionSort(long[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long value = arr[i];
+            int j = i - 1;
+            while (j >= low && value < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Introselect in [low, high]. Negative depth means that median of medians is used for all pivots
+     * */
+    private static void select(double[] arr, int low, int high, int k, int depth) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            double pivot;
+            if (depth < 0) {
+                pivot = arr[medianOfMedians(arr, low, high)];
+            } else {
+                depth--;
+                pivot = arr[medianOfThree(arr, low, (low + high) >>> 1, high)];
+            }
+
+            // [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                double value = arr[i];
+                if (Double.compare(value, pivot) < 0) {
+                    swap(arr, lt++, i++);
+                } else if (Double.compare(pivot, value) < 0) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Sorts every group of five elements, moves their medians to the beginning of range
+     * and selects median of them recursively
+     * @return index of pivot that has at least 30% of range on each side
+     * */
+    private static int medianOfMedians(double[] arr, int low, int high) {
+        int medians = low;
+        for (int start = low; start <= high; start += GROUP) {
+            int end = Math.min(start + GROUP - 1, high);
+            insertionSort(arr, start, end);
+            swap(arr, medians++, (start + end) >>> 1);
+        }
+        int middle = (low + medians - 1) >>> 1;
+        select(arr, low, medians - 1, middle, -1);
+        return middle;
+    }
+
+    private static int medianOfThree(double[] arr, int a, int b, int c) {
+        if (Double.compare(arr[a], arr[b]) < 0) {
+            if (Double.compare(arr[b], arr[c]) < 0) return b;
+            return Double.compare(arr[a], arr[c]) < 0 ? c : a;
+        }
+        if (Double.compare(arr[a], arr[c]) < 0) return a;
+        return Double.compare(arr[b], arr[c]) < 0 ? c : b;
+    }
+
+    private static void insertionSort(double[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double value = arr[i];
+            int j = i - 1;
+            while (j >= low && Double.compare(value, arr[j]) < 0) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Introselect in [low, high]. Negative depth means that median of medians is used for all pivots
+     * */
+    private static <T> void select(T[] arr, int low, int high, int k, int depth, Comparator<? super T> comparator) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            T pivot;
+            if (depth < 0) {
+                pivot = arr[medianOfMedians(arr, low, high, comparator)];
+            } else {
+                depth--;
+                pivot = arr[medianOfThree(arr, low, (low + high) >>> 1, high, comparator)];
+            }
+
+            // [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                T value = arr[i];
+                if (comparator.compare(value, pivot) < 0) {
+                    swap(arr, lt++, i++);
+                } else if (comparator.compare(pivot, value) < 0) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return;
+            }
+        }
+        insertionSort(arr, low, high, comparator);
+    }
+
+    /**
+     * Sorts every group of five elements, moves their medians to the beginning of range
+     * and selects median of them recursively
+     * @return index of pivot that has at least 30% of range on each side
+     * */
+    private static <T> int medianOfMedians(T[] arr, int low, int high, Comparator<? super T> comparator) {
+        int medians = low;
+        for (int start = low; start <= high; start += GROUP) {
+            int end = Math.min(start + GROUP - 1, high);
+            insertionSort(arr, start, end, comparator);
+            swap(arr, medians++, (start + end) >>> 1);
+        }
+        int middle = (low + medians - 1) >>> 1;
+        select(arr, low, medians - 1, middle, -1, comparator);
+        return middle;
+    }
+
+    private static <T> int medianOfThree(T[] arr, int a, int b, int c, Comparator<? super T> comparator) {
+        if (comparator.compare(arr[a], arr[b]) < 0) {
+            if (comparator.compare(arr[b], arr[c]) < 0) return b;
+            return comparator.compare(arr[a], arr[c]) < 0 ? c : a;
+        }
+        if (comparator.compare(arr[a], arr[c]) < 0) return a;
+        return comparator.compare(arr[b], arr[c]) < 0 ? c : b;
+    }
+
+    private static <T> void insertionSort(T[] arr, int low, int high, Comparator<? super T> comparator) {
+        for (int i = low + 1; i <= high; i++) {
+            T value = arr[i];
+            int j = i - 1;
+            while (j >= low && comparator.compare(value, arr[j]) < 0) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static <T> void swap(T[] arr, int i, int j) {
+        T temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+}
@@ -1,26 +1,370 @@
 package sort;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Introsort: quicksort that cannot degrade to O(n²) or overflow the stack.
+ * <ul>
+ *     <li>pivot is median of three elements, or ninther (median of three medians) for large ranges,
+ *     so sorted and reverse-sorted input are split in half;</li>
+ *     <li>partitioning is three-way, so runs of equal elements are excluded from further recursion;</li>
+ *     <li>only smaller side is sorted recursively, the larger one is handled in a loop, so stack depth is O(log n);</li>
+ *     <li>small ranges are finished with insertion sort;</li>
+ *     <li>when recursion depth exceeds 2·log n range is finished with heapsort, which bounds worst case to O(n log n).</li>
+ * </ul>
+ * Sort is not stable.
+ * <p>Parallel variants run in common {@link ForkJoinPool}: range is partitioned the same way, both sides are forked
+ * while they are larger than threshold, and smaller ranges are sorted with sequential kernel.
+ * <p>Doubles are sorted in the order of {@link Double#compare(double, double)}: -0.0 goes before 0.0 and NaNs go last.
+ * */
 public class QuickSort {
+    private static final int INSERTION_THRESHOLD = 24;
+    private static final int NINTHER_THRESHOLD = 128;
+    /**
+     * Default size of range below which parallel sort does not fork anymore
+     * */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * Sorts the whole array in ascending order
+     * @param arr array that has to be sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static void sort(int[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Sorts range of the array in ascending order. Does nothing if low is not less than high
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @throws IllegalArgumentException if array is null or non-empty range is out of array bounds
+     * */
     public static void sort(int[] arr, int low, int high) {
-        if (low < high) {
-            int pi = partition(arr, low, high);
-            sort(arr, low, pi - 1);
-            sort(arr, pi + 1, high);
+        if (!checkRange(arr == null, arr == null ? 0 : arr.length, low, high)) return;
+        introSort(arr, low, high, depthLimit(high - low + 1));
+    }
+
+    /**
+     * Sorts the whole array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static void parallelSort(int[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        parallelSort(arr, 0, arr.length - 1, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts range of the array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @throws IllegalArgumentException if array is null or non-empty range is out of array bounds
+     * */
+    public static void parallelSort(int[] arr, int low, int high) {
+        parallelSort(arr, low, high, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts range of the array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @param threshold size of range below which sub-ranges are sorted sequentially instead of being forked
+     * @throws IllegalArgumentException if array is null, non-empty range is out of array bounds or threshold is not positive
+     * */
+    public static void parallelSort(int[] arr, int low, int high, int threshold) {
+        if (threshold <= 0) throw new IllegalArgumentException("Threshold must be positive");
+        if (!checkRange(arr == null, arr == null ? 0 : arr.length, low, high)) return;
+        ForkJoinPool.commonPool().invoke(new SortIntTask(arr, low, high, depthLimit(high - low + 1), threshold));
+    }
+
+    /**
+     * Sorts the whole array in ascending order
+     * @param arr array that has to be sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static void sort(long[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Sorts range of the array in ascending order. Does nothing if low is not less than high
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @throws IllegalArgumentException if array is null or non-empty range is out of array bounds
+     * */
+    public static void sort(long[] arr, int low, int high) {
+        if (!checkRange(arr == null, arr == null ? 0 : arr.length, low, high)) return;
+        introSort(arr, low, high, depthLimit(high - low + 1));
+    }
+
+    /**
+     * Sorts the whole array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static void parallelSort(long[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        parallelSort(arr, 0, arr.length - 1, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts range of the array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @throws IllegalArgumentException if array is null or non-empty range is out of array bounds
+     * */
+    public static void parallelSort(long[] arr, int low, int high) {
+        parallelSort(arr, low, high, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts range of the array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @param threshold size of range below which sub-ranges are sorted sequentially instead of being forked
+     * @throws IllegalArgumentException if array is null, non-empty range is out of array bounds or threshold is not positive
+     * */
+    public static void parallelSort(long[] arr, int low, int high, int threshold) {
+        if (threshold <= 0) throw new IllegalArgumentException("Threshold must be positive");
+        if (!checkRange(arr == null, arr == null ? 0 : arr.length, low, high)) return;
+        ForkJoinPool.commonPool().invoke(new SortLongTask(arr, low, high, depthLimit(high - low + 1), threshold));
+    }
+
+    /**
+     * Sorts the whole array in ascending order
+     * @param arr array that has to be sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static void sort(double[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Sorts range of the array in ascending order. Does nothing if low is not less than high
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @throws IllegalArgumentException if array is null or non-empty range is out of array bounds
+     * */
+    public static void sort(double[] arr, int low, int high) {
+        if (!checkRange(arr == null, arr == null ? 0 : arr.length, low, high)) return;
+        long prepared = prepareDoubles(arr, low, high);
+        int last = (int) prepared;
+        introSort(arr, low, last, depthLimit(last - low + 1));
+        restoreNegativeZeros(arr, low, last, (int) (prepared >>> 32));
+    }
+
+    /**
+     * Sorts the whole array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static void parallelSort(double[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        parallelSort(arr, 0, arr.length - 1, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts range of the array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @throws IllegalArgumentException if array is null or non-empty range is out of array bounds
+     * */
+    public static void parallelSort(double[] arr, int low, int high) {
+        parallelSort(arr, low, high, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts range of the array in ascending order using all processors of common ForkJoinPool
+     * @param arr array that has to be sorted
+     * @param low index of the first element of the range, inclusive
+     * @param high index of the last element of the range, inclusive
+     * @param threshold size of range below which sub-ranges are sorted sequentially instead of being forked
+     * @throws IllegalArgumentException if array is null, non-empty range is out of array bounds or threshold is not positive
+     * */
+    public static void parallelSort(double[] arr, int low, int high, int threshold) {
+        if (threshold <= 0) throw new IllegalArgumentException("Threshold must be positive");
+        if (!checkRange(arr == null, arr == null ? 0 : arr.length, low, high)) return;
+        long prepared = prepareDoubles(arr, low, high);
+        int last = (int) prepared;
+        ForkJoinPool.commonPool().invoke(new SortDoubleTask(arr, low, last, depthLimit(last - low + 1), threshold));
+        restoreNegativeZeros(arr, low, last, (int) (prepared >>> 32));
+    }
+
+    /**
+     * Validates arguments of range sort
+     * @return false if range has less than two elements and there is nothing to sort
+     * */
+    private static boolean checkRange(boolean isNull, int length, int low, int high) {
+        if (isNull) throw new IllegalArgumentException("Array cannot be null");
+        if (low >= high) return false;
+        if (low < 0 || high >= length) throw new IllegalArgumentException("Range is out of array bounds");
+        return true;
+    }
+
+    private static int depthLimit(int size) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(size));
+    }
+
+    /**
+     * Moves NaNs to the end of range and replaces -0.0 with 0.0, so range can be sorted with primitive comparisons
+     * @return index of the last element that is not NaN, and count of negative zeros in high 32 bits
+     * */
+    private static long prepareDoubles(double[] arr, int low, int high) {
+        int negativeZeros = 0;
+        int last = high;
+        while (last >= low && Double.isNaN(arr[last])) last--;
+        for (int i = last - 1; i >= low; i--) {
+            double value = arr[i];
+            if (Double.isNaN(value)) {
+                arr[i] = arr[last];
+                arr[last--] = value;
+            }
+        }
+        for (int i = low; i <= last; i++) {
+            if (arr[i] == 0.0d && Double.doubleToRawLongBits(arr[i]) != 0L) {
+                arr[i] = 0.0d;
+                negativeZeros++;
+            }
         }
+        return (long) negativeZeros << 32 | (last & 0xFFFFFFFFL);
     }
-    private static int partition(int[] arr, int low, int high) {
-        int pivot = arr[high];
-        int i = low - 1;
 
-        for (int j = low; j <= high - 1; j++) {
-            if (arr[j] < pivot) {
+    /**
+     * Writes back negative zeros in front of positive ones in sorted range
+     * */
+    private static void restoreNegativeZeros(double[] arr, int low, int high, int negativeZeros) {
+        if (negativeZeros == 0) return;
+        // first zero of sorted range
+        int left = low;
+        int right = high;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (arr[mid] < 0.0d) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        for (int i = left; i < left + negativeZeros; i++) {
+            arr[i] = -0.0d;
+        }
+    }
+
+    // package-private, so tests can force heapsort fallback with small depth
+    static void introSort(int[] arr, int low, int high, int depth) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            long bounds = partition(arr, low, high);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depth);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depth);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Three-way partition around pivot chosen by {@link #pivotIndex(int[], int, int)}.
+     * After it [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+     * @return lt in high 32 bits and gt in low 32 bits
+     * */
+    private static long partition(int[] arr, int low, int high) {
+        int pivot = arr[pivotIndex(arr, low, high)];
+        int lt = low;
+        int gt = high;
+        int i = low;
+        while (i <= gt) {
+            int value = arr[i];
+            if (value < pivot) {
+                swap(arr, lt++, i++);
+            } else if (value > pivot) {
+                swap(arr, i, gt--);
+            } else {
                 i++;
-                swap(arr, i, j);
             }
         }
-        swap(arr, i + 1, high);
-        return i + 1;
+        return (long) lt << 32 | (gt & 0xFFFFFFFFL);
+    }
+
+    private static int pivotIndex(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 > NINTHER_THRESHOLD) {
+            int step = (high - low + 1) / 8;
+            int a = medianOfThree(arr, low, low + step, low + 2 * step);
+            int b = medianOfThree(arr, mid - step, mid, mid + step);
+            int c = medianOfThree(arr, high - 2 * step, high - step, high);
+            return medianOfThree(arr, a, b, c);
+        }
+        return medianOfThree(arr, low, mid, high);
+    }
+
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) return a;
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    private static void insertionSort(int[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int value = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > value) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(int[] arr, int low, int high) {
+        int size = high - low + 1;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    /**
+     * Restores max-heap property of heap that starts at offset and has given size
+     * */
+    private static void siftDown(int[] arr, int offset, int root, int size) {
+        int value = arr[offset + root];
+        int child;
+        while ((child = 2 * root + 1) < size) {
+            if (child + 1 < size && arr[offset + child + 1] > arr[offset + child]) child++;
+            if (arr[offset + child] <= value) break;
+            arr[offset + root] = arr[offset + child];
+            root = child;
+        }
+        arr[offset + root] = value;
     }
 
     private static void swap(int[] arr, int i, int j) {
@@ -29,4 +373,313 @@ public class QuickSort {
         arr[j] = temp;
     }
 
+    @SuppressWarnings("serial")
+    private static final class SortIntTask extends RecursiveAction {
+        private final int[] arr;
+        private final int low;
+        private final int high;
+        private final int depth;
+        private final int threshold;
+
+        SortIntTask(int[] arr, int low, int high, int depth, int threshold) {
+            this.arr = arr;
+            this.low = low;
+            this.high = high;
+            this.depth = depth;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low + 1 <= threshold || depth == 0) {
+                introSort(arr, low, high, depth);
+                return;
+            }
+            long bounds = partition(arr, low, high);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            invokeAll(new SortIntTask(arr, low, lt - 1, depth - 1, threshold),
+                    new SortIntTask(arr, gt + 1, high, depth - 1, threshold));
+        }
+    }
+
+    // package-private, so tests can force heapsort fallback with small depth
+    static void introSort(long[] arr, int low, int high, int depth) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            long bounds = partition(arr, low, high);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depth);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depth);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Three-way partition around pivot chosen by {@link #pivotIndex(long[], int, int)}.
+     * After it [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+     * @return lt in high 32 bits and gt in low 32 bits
+     * */
+    private static long partition(long[] arr, int low, int high) {
+        long pivot = arr[pivotIndex(arr, low, high)];
+        int lt = low;
+        int gt = high;
+        int i = low;
+        while (i <= gt) {
+            long value = arr[i];
+            if (value < pivot) {
+                swap(arr, lt++, i++);
+            } else if (value > pivot) {
+                swap(arr, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return (long) lt << 32 | (gt & 0xFFFFFFFFL);
+    }
+
+    private static int pivotIndex(long[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 > NINTHER_THRESHOLD) {
+            int step = (high - low + 1) / 8;
+            int a = medianOfThree(arr, low, low + step, low + 2 * step);
+            int b = medianOfThree(arr, mid - step, mid, mid + step);
+            int c = medianOfThree(arr, high - 2 * step, high - step, high);
+            return medianOfThree(arr, a, b, c);
+        }
+        return medianOfThree(arr, low, mid, high);
+    }
+
+    private static int medianOfThree(long[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) return a;
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    private static void insertionSort(long[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long value = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > value) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(long[] arr, int low, int high) {
+        int size = high - low + 1;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    /**
+     * Restores max-heap property of heap that starts at offset and has given size
+     * */
+    private static void siftDown(long[] arr, int offset, int root, int size) {
+        long value = arr[offset + root];
+        int child;
+        while ((child = 2 * root + 1) < size) {
+            if (child + 1 < size && arr[offset + child + 1] > arr[offset + child]) child++;
+            if (arr[offset + child] <= value) break;
+            arr[offset + root] = arr[offset + child];
+            root = child;
+        }
+        arr[offset + root] = value;
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class SortLongTask extends RecursiveAction {
+        private final long[] arr;
+        private final int low;
+        private final int high;
+        private final int depth;
+        private final int threshold;
+
+        SortLongTask(long[] arr, int low, int high, int depth, int threshold) {
+            this.arr = arr;
+            this.low = low;
+            this.high = high;
+            this.depth = depth;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low + 1 <= threshold || depth == 0) {
+                introSort(arr, low, high, depth);
+                return;
+            }
+            long bounds = partition(arr, low, high);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            invokeAll(new SortLongTask(arr, low, lt - 1, depth - 1, threshold),
+                    new SortLongTask(arr, gt + 1, high, depth - 1, threshold));
+        }
+    }
+
+    // package-private, so tests can force heapsort fallback with small depth
+    static void introSort(double[] arr, int low, int high, int depth) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            long bounds = partition(arr, low, high);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depth);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depth);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Three-way partition around pivot chosen by {@link #pivotIndex(double[], int, int)}.
+     * After it [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+     * @return lt in high 32 bits and gt in low 32 bits
+     * */
+    private static long partition(double[] arr, int low, int high) {
+        double pivot = arr[pivotIndex(arr, low, high)];
+        int lt = low;
+        int gt = high;
+        int i = low;
+        while (i <= gt) {
+            double value = arr[i];
+            if (value < pivot) {
+                swap(arr, lt++, i++);
+            } else if (value > pivot) {
+                swap(arr, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return (long) lt << 32 | (gt & 0xFFFFFFFFL);
+    }
+
+    private static int pivotIndex(double[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 > NINTHER_THRESHOLD) {
+            int step = (high - low + 1) / 8;
+            int a = medianOfThree(arr, low, low + step, low + 2 * step);
+            int b = medianOfThree(arr, mid - step, mid, mid + step);
+            int c = medianOfThree(arr, high - 2 * step, high - step, high);
+            return medianOfThree(arr, a, b, c);
+        }
+        return medianOfThree(arr, low, mid, high);
+    }
+
+    private static int medianOfThree(double[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) return a;
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    private static void insertionSort(double[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double value = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > value) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(double[] arr, int low, int high) {
+        int size = high - low + 1;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    /**
+     * Restores max-heap property of heap that starts at offset and has given size
+     * */
+    private static void siftDown(double[] arr, int offset, int root, int size) {
+        double value = arr[offset + root];
+        int child;
+        while ((child = 2 * root + 1) < size) {
+            if (child + 1 < size && arr[offset + child + 1] > arr[offset + child]) child++;
+            if (arr[offset + child] <= value) break;
+            arr[offset + root] = arr[offset + child];
+            root = child;
+        }
+        arr[offset + root] = value;
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class SortDoubleTask extends RecursiveAction {
+        private final double[] arr;
+        private final int low;
+        private final int high;
+        private final int depth;
+        private final int threshold;
+
+        SortDoubleTask(double[] arr, int low, int high, int depth, int threshold) {
+            this.arr = arr;
+            this.low = low;
+            this.high = high;
+            this.depth = depth;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low + 1 <= threshold || depth == 0) {
+                introSort(arr, low, high, depth);
+                return;
+            }
+            long bounds = partition(arr, low, high);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            invokeAll(new SortDoubleTask(arr, low, lt - 1, depth - 1, threshold),
+                    new SortDoubleTask(arr, gt + 1, high, depth - 1, threshold));
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package sort;
+
+/**
+ * Linear-time sorts of primitive arrays.
+ * <ul>
+ *     <li>{@code byte[]} and {@code short[]} are sorted with counting sort;</li>
+ *     <li>{@code int[]} is sorted with LSD radix sort of 8-bit digits and {@code long[]} with 11-bit digits.
+ *     Histograms of all digits are built in one pass, and digits that are equal for all elements are skipped;</li>
+ *     <li>{@code float[]} and {@code double[]} are mapped to integer keys whose unsigned order matches
+ *     {@link Float#compare(float, float)} and {@link Double#compare(double, double)}: sign bit is flipped for positive
+ *     numbers and all bits are flipped for negative ones. So -0.0 goes before 0.0 and NaNs go last.
+ *     NaNs are canonicalized.</li>
+ * </ul>
+ * Radix sorts need a buffer of the same size as the array. Arrays shorter than {@value #INSERTION_THRESHOLD}
+ * are sorted with insertion sort.
+ * */
+public class RadixSort {
+    private static final int INSERTION_THRESHOLD = 64;
+    private static final int INT_DIGIT_BITS = 8;
+    private static final int LONG_DIGIT_BITS = 11;
+
+    /**
+     * Sorts the given array in ascending order
+     * @param arr array that has to be sorted
+     * @return the same array, sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static byte[] sort(byte[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        int[] counts = new int[1 << Byte.SIZE];
+        for (byte value : arr) {
+            counts[value - Byte.MIN_VALUE]++;
+        }
+        int i = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            for (int c = counts[bucket]; c > 0; c--) {
+                arr[i++] = (byte) (bucket + Byte.MIN_VALUE);
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * Sorts the given array in ascending order
+     * @param arr array that has to be sorted
+     * @return the same array, sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static short[] sort(short[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        if (arr.length < INSERTION_THRESHOLD) {
+            for (int i = 1; i < arr.length; i++) {
+                short value = arr[i];
+                int j = i - 1;
+                while (j >= 0 && arr[j] > value) {
+                    arr[j + 1] = arr[j];
+                    j--;
+                }
+                arr[j + 1] = value;
+            }
+            return arr;
+        }
+        int[] counts = new int[1 << Short.SIZE];
+        for (short value : arr) {
+            counts[value - Short.MIN_VALUE]++;
+        }
+        int i = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            for (int c = counts[bucket]; c > 0; c--) {
+                arr[i++] = (short) (bucket + Short.MIN_VALUE);
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * Sorts the given array in ascending order
+     * @param arr array that has to be sorted
+     * @return the same array, sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static int[] sort(int[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        flipSign(arr);
+        sortUnsigned(arr);
+        flipSign(arr);
+        return arr;
+    }
+
+    /**
+     * Sorts the given array in ascending order
+     * @param arr array that has to be sorted
+     * @return the same array, sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static long[] sort(long[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        flipSign(arr);
+        sortUnsigned(arr);
+        flipSign(arr);
+        return arr;
+    }
+
+    /**
+     * Sorts the given array in ascending order of {@link Float#compare(float, float)}
+     * @param arr array that has to be sorted
+     * @return the same array, sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static float[] sort(float[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        int[] keys = new int[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            int bits = Float.floatToIntBits(arr[i]);
+            keys[i] = bits ^ (bits >> 31 | Integer.MIN_VALUE);
+        }
+        sortUnsigned(keys);
+        for (int i = 0; i < arr.length; i++) {
+            int key = keys[i];
+            arr[i] = Float.intBitsToFloat(key ^ (~key >> 31 | Integer.MIN_VALUE));
+        }
+        return arr;
+    }
+
+    /**
+     * Sorts the given array in ascending order of {@link Double#compare(double, double)}
+     * @param arr array that has to be sorted
+     * @return the same array, sorted
+     * @throws IllegalArgumentException if array is null
+     * */
+    public static double[] sort(double[] arr) {
+        if (arr == null) throw new IllegalArgumentException("Array cannot be null");
+        long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            long bits = Double.doubleToLongBits(arr[i]);
+            keys[i] = bits ^ (bits >> 63 | Long.MIN_VALUE);
+        }
+        sortUnsigned(keys);
+        for (int i = 0; i < arr.length; i++) {
+            long key = keys[i];
+            arr[i] = Double.longBitsToDouble(key ^ (~key >> 63 | Long.MIN_VALUE));
+        }
+        return arr;
+    }
+
+    private static void flipSign(int[] arr) {
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Integer.MIN_VALUE;
+        }
+    }
+
+    private static void flipSign(long[] arr) {
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * LSD radix sort of keys compared as unsigned integers
+     * */
+    private static void sortUnsigned(int[] arr) {
+        int n = arr.length;
+        if (n < INSERTION_THRESHOLD) {
+            for (int i = 1; i < n; i++) {
+                int value = arr[i];
+                int j = i - 1;
+                while (j >= 0 && Integer.compareUnsigned(arr[j], value) > 0) {
+                    arr[j + 1] = arr[j];
+                    j--;
+                }
+                arr[j + 1] = value;
+            }
+            return;
+        }
+        int radix = 1 << INT_DIGIT_BITS;
+        int mask = radix - 1;
+        int digits = Integer.SIZE / INT_DIGIT_BITS;
+        int[][] counts = new int[digits][radix];
+        for (int value : arr) {
+            for (int d = 0; d < digits; d++) {
+                counts[d][value >>> (d * INT_DIGIT_BITS) & mask]++;
+            }
+        }
+
+        int[] from = arr;
+        int[] to = new int[n];
+        for (int d = 0; d < digits; d++) {
+            int shift = d * INT_DIGIT_BITS;
+            int[] offsets = counts[d];
+            if (offsets[from[0] >>> shift & mask] == n) continue; // every element has the same digit
+            int sum = 0;
+            for (int bucket = 0; bucket < radix; bucket++) {
+                int count = offsets[bucket];
+                offsets[bucket] = sum;
+                sum += count;
+            }
+            for (int value : from) {
+                to[offsets[value >>> shift & mask]++] = value;
+            }
+            int[] tmp = from;
+            from = to;
+            to = tmp;
+        }
+        if (from != arr) {
+            System.arraycopy(from, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * LSD radix sort of keys compared as unsigned integers
+     * */
+    private static void sortUnsigned(long[] arr) {
+        int n = arr.length;
+        if (n < INSERTION_THRESHOLD) {
+            for (int i = 1; i < n; i++) {
+                long value = arr[i];
+                int j = i - 1;
+                while (j >= 0 && Long.compareUnsigned(arr[j], value) > 0) {
+                    arr[j + 1] = arr[j];
+                    j--;
+                }
+                arr[j + 1] = value;
+            }
+            return;
+        }
+        int radix = 1 << LONG_DIGIT_BITS;
+        int mask = radix - 1;
+        int digits = (Long.SIZE + LONG_DIGIT_BITS - 1) / LONG_DIGIT_BITS;
+        int[][] counts = new int[digits][radix];
+        for (long value : arr) {
+            for (int d = 0; d < digits; d++) {
+                counts[d][(int) (value >>> (d * LONG_DIGIT_BITS)) & mask]++;
+            }
+        }
+
+        long[] from = arr;
+        long[] to = new long[n];
+        for (int d = 0; d < digits; d++) {
+            int shift = d * LONG_DIGIT_BITS;
+            int[] offsets = counts[d];
+            if (offsets[(int) (from[0] >>> shift) & mask] == n) continue; // every element has the same digit
+            int sum = 0;
+            for (int bucket = 0; bucket < radix; bucket++) {
+                int count = offsets[bucket];
+                offsets[bucket] = sum;
+                sum += count;
+            }
+            for (long value : from) {
+                to[offsets[(int) (value >>> shift) & mask]++] = value;
+            }
+            long[] tmp = from;
+            from = to;
+            to = tmp;
+        }
+        if (from != arr) {
+            System.arraycopy(from, 0, arr, 0, n);
+        }
+    }
+}
@@ -3,9 +3,12 @@ package graph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import pathfinding.AStar;
+import pathfinding.CsrDijkstra;
+import pathfinding.Landmarks;
 import pathfinding.PathFinderFactory;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -136,4 +139,42 @@ class AStarTest {
 
         assertEquals(List.of(s, a, b, c, g), path);
     }
-}
\ No newline at end of file
+
+    @Test
+    void landmarksGiveShortestPathWithoutCoordinates() {
+        Graph random = CsrDijkstraTest.randomGraph(9, 200, 900);
+        CsrGraph csr = random.freeze();
+        Landmarks landmarks = Landmarks.select(csr, 4);
+        AStar alt = PathFinderFactory.aStar(random).setLandmarks(landmarks);
+        CsrDijkstra reference = PathFinderFactory.dijkstra(csr);
+        Random rnd = new Random(1);
+
+        assertEquals(4, landmarks.landmarks().size());
+        for (int i = 0; i < 200; i++) {
+            Graph.Node from = csr.nodeAt(rnd.nextInt(csr.nodeCount()));
+            Graph.Node to = csr.nodeAt(rnd.nextInt(csr.nodeCount()));
+            int expected = reference.distance(from, to);
+            List<Graph.Node> path = alt.findPath(from, to);
+
+            if (expected == -1) {
+                assertTrue(path.isEmpty());
+            } else {
+                assertTrue(landmarks.lowerBound(from, to) <= expected);
+                assertEquals(expected, CsrDijkstraTest.pathLength(random, path));
+            }
+        }
+    }
+
+    @Test
+    void landmarkBoundIsZeroForUnknownNodes() {
+        Graph.Node s = graph.createNode("S");
+        Graph.Node a = graph.createNode("A");
+        graph.connectNodes(s, a, 3);
+        Landmarks landmarks = Landmarks.select(graph, 2);
+        Graph.Node later = graph.createNode("later");
+
+        assertEquals(3, landmarks.lowerBound(s, a));
+        assertEquals(0, landmarks.lowerBound(s, later));
+        assertThrows(IllegalArgumentException.class, () -> Landmarks.select(graph, 0));
+    }
+}
@@ -0,0 +1,115 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+import pathfinding.BidirectionalAStar;
+import pathfinding.BidirectionalDijkstra;
+import pathfinding.CsrDijkstra;
+import pathfinding.PathFinderFactory;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalSearchTest {
+
+    @Test
+    void correctPathFound() {
+        Graph graph = Graph.create();
+        Graph.Node A = graph.createNode();
+        Graph.Node B = graph.createNode();
+        Graph.Node C = graph.createNode();
+        Graph.Node D = graph.createNode();
+        Graph.Node E = graph.createNode();
+        graph.connectNodes(A, B, 2);
+        graph.connectNodes(A, D, 5);
+        graph.connectNodes(B, C, 7);
+        graph.connectNodes(B, E, 1);
+        graph.connectNodes(D, E, 1);
+        graph.connectNodes(E, C, 3);
+
+        BidirectionalDijkstra algorithm = PathFinderFactory.bidirectionalDijkstra(graph.freeze());
+
+        assertEquals(List.of(A, B, E, C), algorithm.findPath(A, C));
+        assertEquals(6, algorithm.distance(A, C));
+        assertEquals(List.of(A), algorithm.findPath(A, A));
+        assertEquals(List.of(), algorithm.findPath(C, A));
+        assertEquals(-1, algorithm.distance(C, A));
+    }
+
+    @Test
+    void bidirectionalDijkstraMatchesDijkstra() {
+        Graph graph = CsrDijkstraTest.randomGraph(11, 300, 1200);
+        CsrGraph csr = graph.freeze();
+        CsrDijkstra reference = PathFinderFactory.dijkstra(csr);
+        BidirectionalDijkstra algorithm = PathFinderFactory.bidirectionalDijkstra(csr);
+        Random random = new Random(3);
+
+        for (int i = 0; i < 300; i++) {
+            Graph.Node from = csr.nodeAt(random.nextInt(csr.nodeCount()));
+            Graph.Node to = csr.nodeAt(random.nextInt(csr.nodeCount()));
+            int expected = reference.distance(from, to);
+            List<Graph.Node> path = algorithm.findPath(from, to);
+
+            assertEquals(expected, algorithm.distance(from, to));
+            if (expected == -1) {
+                assertTrue(path.isEmpty());
+            } else {
+                assertEquals(from, path.get(0));
+                assertEquals(to, path.get(path.size() - 1));
+                assertEquals(expected, CsrDijkstraTest.pathLength(graph, path));
+            }
+        }
+    }
+
+    @Test
+    void bidirectionalAStarMatchesDijkstraOnGrid() {
+        int size = 15;
+        Random random = new Random(5);
+        Graph graph = Graph.create(false);
+        Graph.Node[][] grid = new Graph.Node[size][size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                grid[x][y] = graph.createNode(x + ":" + y);
+            }
+        }
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (x + 1 < size) graph.connectNodes(grid[x][y], grid[x + 1][y], 10 + random.nextInt(10));
+                if (y + 1 < size) graph.connectNodes(grid[x][y], grid[x][y + 1], 10 + random.nextInt(10));
+            }
+        }
+        CsrGraph csr = graph.freeze();
+        BidirectionalAStar algorithm = PathFinderFactory.bidirectionalAStar(csr);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                algorithm.setCoordinates(grid[x][y], x * 10, y * 10);
+            }
+        }
+        CsrDijkstra reference = PathFinderFactory.dijkstra(csr);
+
+        for (int i = 0; i < 200; i++) {
+            Graph.Node from = grid[random.nextInt(size)][random.nextInt(size)];
+            Graph.Node to = grid[random.nextInt(size)][random.nextInt(size)];
+            int expected = reference.distance(from, to);
+            List<Graph.Node> path = algorithm.findPath(from, to);
+
+            assertEquals(expected, algorithm.distance(from, to));
+            assertEquals(expected, CsrDijkstraTest.pathLength(graph, path));
+        }
+    }
+
+    @Test
+    void bidirectionalAStarWorksWithoutCoordinates() {
+        Graph graph = Graph.create();
+        Graph.Node s = graph.createNode("S");
+        Graph.Node a = graph.createNode("A");
+        Graph.Node g = graph.createNode("G");
+        graph.connectNodes(s, a, 1);
+        graph.connectNodes(a, g, 1);
+
+        BidirectionalAStar algorithm = PathFinderFactory.bidirectionalAStar(graph.freeze()).setCoordinates(s, 0, 0);
+
+        assertEquals(List.of(s, a, g), algorithm.findPath(s, g));
+    }
+}
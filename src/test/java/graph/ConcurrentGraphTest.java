@@ -0,0 +1,203 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentGraphTest {
+
+    @Test
+    void concurrentNodeCreationGivesUniqueIds() throws Exception {
+        ConcurrentGraph graph = ConcurrentGraph.create();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) graph.createNode();
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        Set<Integer> ids = new HashSet<>();
+        for (Graph.Node node : graph.asList()) ids.add(node.getId());
+        assertEquals(4000, ids.size());
+    }
+
+    @Test
+    void concurrentConnectionsAreAllApplied() throws Exception {
+        ConcurrentGraph graph = ConcurrentGraph.create(false);
+        Graph.Node hub = graph.createNode("hub");
+        List<Graph.Node> spokes = new ArrayList<>();
+        for (int i = 0; i < 400; i++) spokes.add(graph.createNode());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int part = t;
+            futures.add(executor.submit(() -> {
+                for (int i = part; i < spokes.size(); i += 4) graph.connectNodes(hub, spokes.get(i), i + 1);
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        assertEquals(400, graph.pointsTo(hub).size());
+        assertEquals(800, graph.getAllEdges().size());
+        assertEquals(5, graph.distanceBetween(spokes.get(4), hub));
+    }
+
+    @Test
+    void changeDistanceUpdatesBothDirectionsAndKeepsEdgeId() {
+        ConcurrentGraph graph = ConcurrentGraph.create(false);
+        Graph.Node a = graph.createNode();
+        Graph.Node b = graph.createNode();
+        graph.connectNodes(a, b, 3);
+        Graph.Edge before = graph.getEdgeOfTwoNodes(a, b);
+
+        graph.changeDistanceBetweenNodes(a, b, 7);
+
+        assertEquals(7, graph.distanceBetween(a, b));
+        assertEquals(7, graph.distanceBetween(b, a));
+        assertEquals(before, graph.getEdgeOfTwoNodes(a, b));
+        assertEquals(3, before.getDistance());
+    }
+
+    @Test
+    void snapshotIsCachedUntilNextUpdate() {
+        ConcurrentGraph graph = ConcurrentGraph.create();
+        Graph.Node a = graph.createNode();
+        Graph.Node b = graph.createNode();
+        graph.connectNodes(a, b, 2);
+
+        CsrGraph first = graph.freeze();
+        assertSame(first, graph.freeze());
+
+        graph.changeDistanceBetweenNodes(a, b, 9);
+        CsrGraph second = graph.freeze();
+
+        assertNotSame(first, second);
+        assertEquals(2, first.weight(first.firstEdge(first.indexOf(a))));
+        assertEquals(9, second.weight(second.firstEdge(second.indexOf(a))));
+    }
+
+    @Test
+    void removeNodeDropsIncomingEdges() {
+        ConcurrentGraph graph = ConcurrentGraph.create();
+        Graph.Node a = graph.createNode();
+        Graph.Node b = graph.createNode();
+        graph.connectNodes(a, b, 1);
+
+        graph.removeNode(b);
+
+        assertFalse(graph.containsNode(b));
+        assertFalse(graph.hasConnections(a));
+        assertThrows(IllegalArgumentException.class, () -> graph.connectNodes(a, b, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.changeDistanceBetweenNodes(a, a, 1));
+    }
+
+    @Test
+    void distanceChangeReusesTopologyOfCachedSnapshot() {
+        ConcurrentGraph graph = ConcurrentGraph.create(false);
+        List<Graph.Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) nodes.add(graph.createNode());
+        for (int i = 0; i < 5; i++) graph.connectNodes(nodes.get(i), nodes.get(i + 1), i + 1);
+        CsrGraph first = graph.freeze();
+
+        graph.changeDistanceBetweenNodes(nodes.get(2), nodes.get(3), 30);
+        graph.changeDistanceBetweenNodes(nodes.get(4), nodes.get(3), 40);
+        CsrGraph second = graph.freeze();
+
+        assertNotSame(first, second);
+        assertEquals(first.edgeCount(), second.edgeCount());
+        for (int u = 0; u < second.nodeCount(); u++) {
+            for (int e = second.firstEdge(u); e < second.endEdge(u); e++) {
+                Graph.Node from = second.nodeAt(u);
+                Graph.Node to = second.nodeAt(second.target(e));
+                assertEquals(graph.distanceBetween(from, to), second.weight(e));
+            }
+            for (int e = second.firstInEdge(u); e < second.endInEdge(u); e++) {
+                Graph.Node from = second.nodeAt(second.source(e));
+                assertEquals(graph.distanceBetween(from, second.nodeAt(u)), second.inWeight(e));
+            }
+        }
+        int edge = first.firstEdge(first.indexOf(nodes.get(2)));
+        while (first.target(edge) != first.indexOf(nodes.get(3))) edge++;
+        assertEquals(3, first.weight(edge));
+
+        graph.disconnectNodes(nodes.get(0), nodes.get(1));
+        graph.changeDistanceBetweenNodes(nodes.get(1), nodes.get(2), 20);
+        CsrGraph third = graph.freeze();
+        assertEquals(second.edgeCount() - 2, third.edgeCount());
+        assertEquals(20, third.weight(third.firstEdge(third.indexOf(nodes.get(1)))));
+    }
+
+    @Test
+    void boundedStalenessReturnsCachedSnapshot() {
+        ConcurrentGraph graph = ConcurrentGraph.create();
+        Graph.Node a = graph.createNode();
+        Graph.Node b = graph.createNode();
+        graph.connectNodes(a, b, 2);
+        CsrGraph first = graph.freeze(Duration.ofHours(1));
+
+        graph.changeDistanceBetweenNodes(a, b, 5);
+        assertSame(first, graph.freeze(Duration.ofHours(1)));
+        CsrGraph current = graph.freeze(Duration.ZERO);
+        assertEquals(5, current.weight(current.firstEdge(current.indexOf(a))));
+        assertSame(current, graph.freeze());
+        assertThrows(IllegalArgumentException.class, () -> graph.freeze(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void snapshotsStayConsistentUnderConcurrentDistanceChanges() throws Exception {
+        ConcurrentGraph graph = ConcurrentGraph.create(false);
+        List<Graph.Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) nodes.add(graph.createNode());
+        for (int i = 0; i < 199; i++) graph.connectNodes(nodes.get(i), nodes.get(i + 1), 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 5000; i++) {
+                    int u = random.nextInt(199);
+                    graph.changeDistanceBetweenNodes(nodes.get(u), nodes.get(u + 1), 1 + random.nextInt(100));
+                }
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            for (int i = 0; i < 200; i++) {
+                CsrGraph snapshot = graph.freeze();
+                for (int u = 0; u < snapshot.nodeCount(); u++) {
+                    for (int e = snapshot.firstEdge(u); e < snapshot.endEdge(u); e++) {
+                        int v = snapshot.target(e);
+                        int back = snapshot.firstEdge(v);
+                        while (snapshot.target(back) != u) back++;
+                        assertEquals(snapshot.weight(e), snapshot.weight(back));
+                    }
+                }
+            }
+        }));
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        CsrGraph last = graph.freeze();
+        for (int i = 0; i < 199; i++) {
+            int e = last.firstEdge(last.indexOf(nodes.get(i)));
+            while (last.target(e) != last.indexOf(nodes.get(i + 1))) e++;
+            assertEquals(graph.distanceBetween(nodes.get(i), nodes.get(i + 1)), last.weight(e));
+        }
+    }
+}
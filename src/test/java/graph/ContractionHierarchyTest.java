@@ -0,0 +1,82 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+import pathfinding.ContractionHierarchy;
+import pathfinding.CsrDijkstra;
+import pathfinding.PathFinderFactory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+
+    @Test
+    void correctPathFound() {
+        Graph graph = Graph.create();
+        Graph.Node A = graph.createNode();
+        Graph.Node B = graph.createNode();
+        Graph.Node C = graph.createNode();
+        Graph.Node D = graph.createNode();
+        Graph.Node E = graph.createNode();
+        graph.connectNodes(A, B, 2);
+        graph.connectNodes(A, D, 5);
+        graph.connectNodes(B, C, 7);
+        graph.connectNodes(B, E, 1);
+        graph.connectNodes(D, E, 1);
+        graph.connectNodes(E, C, 3);
+
+        ContractionHierarchy hierarchy = PathFinderFactory.contractionHierarchy(graph.freeze());
+
+        assertEquals(List.of(A, B, E, C), hierarchy.findPath(A, C));
+        assertEquals(6, hierarchy.distance(A, C));
+        assertEquals(List.of(A), hierarchy.findPath(A, A));
+        assertEquals(List.of(), hierarchy.findPath(C, A));
+        assertEquals(-1, hierarchy.distance(C, A));
+    }
+
+    @Test
+    void matchesDijkstraOnRandomGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long seed = 1; seed <= 3; seed++) {
+                Graph graph = CsrDijkstraTest.randomGraph(seed, 300, 1000);
+                CsrGraph csr = graph.freeze();
+                CsrDijkstra reference = PathFinderFactory.dijkstra(csr);
+                ContractionHierarchy hierarchy = ContractionHierarchy.build(csr, pool);
+                Random random = new Random(seed);
+
+                for (int i = 0; i < 300; i++) {
+                    Graph.Node from = csr.nodeAt(random.nextInt(csr.nodeCount()));
+                    Graph.Node to = csr.nodeAt(random.nextInt(csr.nodeCount()));
+                    int expected = reference.distance(from, to);
+                    List<Graph.Node> path = hierarchy.findPath(from, to);
+
+                    assertEquals(expected, hierarchy.distance(from, to));
+                    if (expected == -1) {
+                        assertTrue(path.isEmpty());
+                    } else {
+                        assertEquals(from, path.get(0));
+                        assertEquals(to, path.get(path.size() - 1));
+                        assertEquals(expected, CsrDijkstraTest.pathLength(graph, path));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void throwsWhenNodeDoesNotBelongToGraph() {
+        Graph graph = Graph.create();
+        Graph.Node local = graph.createNode();
+        Graph.Node foreign = Graph.create().createNode();
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph.freeze());
+
+        assertThrows(IllegalArgumentException.class, () -> hierarchy.findPath(local, foreign));
+        assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.build(null));
+    }
+}
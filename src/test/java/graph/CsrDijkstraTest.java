@@ -0,0 +1,92 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+import pathfinding.CsrDijkstra;
+import pathfinding.Dijkstra;
+import pathfinding.PathFinderFactory;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrDijkstraTest {
+
+    static int pathLength(Graph graph, List<Graph.Node> path) {
+        int sum = 0;
+        for (int i = 1; i < path.size(); i++) {
+            sum += graph.distanceBetween(path.get(i - 1), path.get(i));
+        }
+        return sum;
+    }
+
+    static Graph randomGraph(long seed, int nodes, int edges) {
+        Random random = new Random(seed);
+        Graph graph = Graph.create();
+        for (int i = 0; i < nodes; i++) graph.createNode(String.valueOf(i));
+        List<Graph.Node> list = graph.freeze().asList();
+        for (int i = 0; i < edges; i++) {
+            Graph.Node a = list.get(random.nextInt(nodes));
+            Graph.Node b = list.get(random.nextInt(nodes));
+            if (!a.equals(b)) graph.connectNodes(a, b, 1 + random.nextInt(20));
+        }
+        return graph;
+    }
+
+    @Test
+    void correctPathFound() {
+        Graph graph = Graph.create();
+        Graph.Node A = graph.createNode();
+        Graph.Node B = graph.createNode();
+        Graph.Node C = graph.createNode();
+        Graph.Node D = graph.createNode();
+        Graph.Node E = graph.createNode();
+        graph.connectNodes(A, B, 2);
+        graph.connectNodes(A, D, 5);
+        graph.connectNodes(B, C, 7);
+        graph.connectNodes(B, E, 1);
+        graph.connectNodes(D, E, 1);
+        graph.connectNodes(E, C, 3);
+
+        CsrDijkstra algorithm = PathFinderFactory.dijkstra(graph.freeze());
+
+        assertEquals(List.of(A, B, E, C), algorithm.findPath(A, C));
+        assertEquals(6, algorithm.distance(A, C));
+        assertEquals(List.of(A), algorithm.findPath(A, A));
+        assertEquals(List.of(), algorithm.findPath(C, A));
+        assertEquals(-1, algorithm.distance(C, A));
+    }
+
+    @Test
+    void matchesDijkstraOnRepeatedQueries() {
+        Graph graph = randomGraph(42, 200, 800);
+        Dijkstra reference = PathFinderFactory.dijkstra(graph);
+        CsrDijkstra algorithm = PathFinderFactory.dijkstra(graph.freeze());
+        List<Graph.Node> nodes = graph.freeze().asList();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 300; i++) {
+            Graph.Node from = nodes.get(random.nextInt(nodes.size()));
+            Graph.Node to = nodes.get(random.nextInt(nodes.size()));
+            List<Graph.Node> expected = reference.findPath(from, to);
+            List<Graph.Node> actual = algorithm.findPath(from, to);
+
+            assertEquals(expected.isEmpty(), actual.isEmpty());
+            if (!expected.isEmpty()) {
+                assertEquals(pathLength(graph, expected), pathLength(graph, actual));
+                assertEquals(pathLength(graph, expected), algorithm.distance(from, to));
+            }
+        }
+    }
+
+    @Test
+    void throwsWhenNodeIsNotInSnapshot() {
+        Graph graph = Graph.create();
+        Graph.Node a = graph.createNode();
+        CsrDijkstra algorithm = PathFinderFactory.dijkstra(graph.freeze());
+        Graph.Node b = graph.createNode();
+
+        assertThrows(IllegalArgumentException.class, () -> algorithm.findPath(a, b));
+        assertThrows(IllegalArgumentException.class, () -> PathFinderFactory.dijkstra((CsrGraph) null));
+    }
+}
@@ -0,0 +1,87 @@
+package graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrGraphTest {
+
+    Graph graph;
+
+    @BeforeEach
+    void setup() {
+        graph = Graph.create();
+    }
+
+    @Test
+    void snapshotContainsAllNodesAndEdges() {
+        Graph.Node a = graph.createNode("A");
+        Graph.Node b = graph.createNode("B");
+        Graph.Node c = graph.createNode("C");
+        graph.connectNodes(a, b, 2);
+        graph.connectNodes(a, c, 5);
+        graph.connectNodes(b, c, 1);
+
+        CsrGraph csr = graph.freeze();
+
+        assertEquals(3, csr.nodeCount());
+        assertEquals(3, csr.edgeCount());
+        for (int i = 0; i < csr.nodeCount(); i++) {
+            assertEquals(i, csr.indexOf(csr.nodeAt(i)));
+        }
+
+        int ia = csr.indexOf(a);
+        assertEquals(2, csr.outDegree(ia));
+        Set<Graph.Node> targets = new HashSet<>();
+        int sum = 0;
+        for (int e = csr.firstEdge(ia); e < csr.endEdge(ia); e++) {
+            targets.add(csr.nodeAt(csr.target(e)));
+            sum += csr.weight(e);
+        }
+        assertEquals(Set.of(b, c), targets);
+        assertEquals(7, sum);
+        assertEquals(0, csr.outDegree(csr.indexOf(c)));
+    }
+
+    @Test
+    void undirectedConnectionProducesTwoEdges() {
+        Graph undirected = Graph.create(false);
+        Graph.Node a = undirected.createNode();
+        Graph.Node b = undirected.createNode();
+        undirected.connectNodes(a, b, 4);
+
+        CsrGraph csr = CsrGraph.of(undirected);
+
+        assertEquals(2, csr.edgeCount());
+        assertEquals(1, csr.outDegree(csr.indexOf(b)));
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterChanges() {
+        Graph.Node a = graph.createNode();
+        Graph.Node b = graph.createNode();
+        graph.connectNodes(a, b, 3);
+        CsrGraph csr = graph.freeze();
+
+        graph.changeDistanceBetweenNodes(a, b, 10);
+        Graph.Node c = graph.createNode();
+
+        assertEquals(3, csr.weight(csr.firstEdge(csr.indexOf(a))));
+        assertFalse(csr.containsNode(c));
+        assertThrows(IllegalArgumentException.class, () -> csr.indexOf(c));
+    }
+
+    @Test
+    void foreignNodeIsRejected() {
+        graph.createNode();
+        Graph.Node foreign = Graph.create().createNode();
+        CsrGraph csr = graph.freeze();
+
+        assertFalse(csr.containsNode(foreign));
+        assertFalse(csr.containsNode(null));
+    }
+}
@@ -3,8 +3,11 @@ package graph;
 import org.junit.jupiter.api.Test;
 import pathfinding.Dijkstra;
 import pathfinding.PathFinderFactory;
+import pathfinding.ShortestPathTree;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,4 +68,73 @@ class DijkstraTest {
 
         assertEquals(expected, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void distancesFromReturnsWholeTree() {
+        Graph graph = Graph.create();
+        Graph.Node A = graph.createNode("A");
+        Graph.Node B = graph.createNode("B");
+        Graph.Node C = graph.createNode("C");
+        Graph.Node D = graph.createNode("D");
+        graph.connectNodes(A, B, 1);
+        graph.connectNodes(B, C, 2);
+        graph.connectNodes(A, C, 5);
+
+        ShortestPathTree tree = PathFinderFactory.dijkstra(graph).distancesFrom(A);
+
+        assertEquals(0, tree.distanceTo(A));
+        assertEquals(3, tree.distanceTo(C));
+        assertEquals(-1, tree.distanceTo(D));
+        assertEquals(List.of(A, B, C), tree.pathTo(C));
+        assertEquals(List.of(), tree.pathTo(D));
+        assertEquals(3, tree.distances()[tree.graph().indexOf(C)]);
+        assertEquals(tree.graph().indexOf(B), tree.predecessors()[tree.graph().indexOf(C)]);
+    }
+
+    @Test
+    void distancesFromSeesChangesOfGraph() {
+        Graph graph = Graph.create();
+        Graph.Node A = graph.createNode("A");
+        Graph.Node B = graph.createNode("B");
+        graph.connectNodes(A, B, 5);
+        Dijkstra algorithm = PathFinderFactory.dijkstra(graph);
+
+        ShortestPathTree first = algorithm.distancesFrom(A);
+        assertEquals(5, first.distanceTo(B));
+        assertSame(first.graph(), algorithm.distancesFrom(B).graph());
+
+        graph.changeDistanceBetweenNodes(A, B, 2);
+        Graph.Node C = graph.createNode("C");
+        graph.connectNodes(B, C, 1);
+        ShortestPathTree second = algorithm.distancesFrom(A);
+        assertEquals(2, second.distanceTo(B));
+        assertEquals(3, second.distanceTo(C));
+        assertEquals(5, first.distanceTo(B));
+    }
+
+    @Test
+    void distanceMatrixMatchesSingleSearches() {
+        Graph graph = CsrDijkstraTest.randomGraph(5, 150, 600);
+        Dijkstra algorithm = PathFinderFactory.dijkstra(graph);
+        List<Graph.Node> nodes = graph.freeze().asList();
+        List<Graph.Node> sources = nodes.subList(0, 20);
+        List<Graph.Node> targets = nodes.subList(100, 130);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        int[][] matrix = algorithm.distanceMatrix(sources, targets, executor);
+        executor.shutdown();
+
+        for (int i = 0; i < sources.size(); i++) {
+            ShortestPathTree tree = algorithm.distancesFrom(sources.get(i));
+            for (int j = 0; j < targets.size(); j++) {
+                assertEquals(tree.distanceTo(targets.get(j)), matrix[i][j]);
+            }
+        }
+        assertArrayEquals(matrix, algorithm.distanceMatrix(sources, targets, Runnable::run, 2));
+        assertArrayEquals(matrix, algorithm.distanceMatrix(sources, targets));
+        assertThrows(IllegalArgumentException.class, () -> algorithm.distanceMatrix(null, targets));
+        assertThrows(IllegalArgumentException.class, () -> algorithm.distanceMatrix(sources, null, Runnable::run));
+        assertThrows(IllegalArgumentException.class,
+                () -> algorithm.distanceMatrix(sources, targets, Runnable::run, 0));
+    }
+}
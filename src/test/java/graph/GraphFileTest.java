@@ -0,0 +1,135 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pathfinding.BidirectionalDijkstra;
+import pathfinding.CsrDijkstra;
+import pathfinding.PathFinderFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenGraphIsOpenedWithSameStructureAndNames() throws IOException {
+        Graph graph = Graph.create();
+        Graph.Node a = graph.createNode("A");
+        Graph.Node b = graph.createNode("Вузол");
+        Graph.Node c = graph.createNode("");
+        graph.connectNodes(a, b, 4);
+        graph.connectNodes(b, c, 1);
+        graph.connectNodes(c, a, 9);
+        Path file = dir.resolve("graph.bin");
+
+        GraphFile.write(graph, file);
+        CsrGraph opened = GraphFile.open(file);
+        CsrGraph frozen = graph.freeze();
+
+        assertEquals(frozen.nodeCount(), opened.nodeCount());
+        assertEquals(frozen.edgeCount(), opened.edgeCount());
+        assertEquals(List.of("A", "Вузол", ""), opened.asList().stream().map(Graph.Node::getName).toList());
+        for (int u = 0; u < frozen.nodeCount(); u++) {
+            assertEquals(frozen.outDegree(u), opened.outDegree(u));
+            assertEquals(frozen.inDegree(u), opened.inDegree(u));
+            for (int e = frozen.firstEdge(u); e < frozen.endEdge(u); e++) {
+                assertEquals(frozen.target(e), opened.target(e));
+                assertEquals(frozen.weight(e), opened.weight(e));
+            }
+        }
+        assertFalse(opened.containsNode(a));
+        assertEquals(1, opened.indexOf(opened.nodeAt(1)));
+        assertSame(opened.nodeAt(2), opened.nodeAt(2));
+    }
+
+    @Test
+    void pathfindingRunsOnMappedGraph() throws IOException {
+        Graph graph = CsrDijkstraTest.randomGraph(5, 300, 1500);
+        Path file = dir.resolve("random.bin");
+        GraphFile.write(graph, file);
+
+        CsrGraph frozen = graph.freeze();
+        CsrGraph opened = GraphFile.open(file);
+        CsrDijkstra expected = PathFinderFactory.dijkstra(frozen);
+        CsrDijkstra mapped = PathFinderFactory.dijkstra(opened);
+        BidirectionalDijkstra bidirectional = PathFinderFactory.bidirectionalDijkstra(opened);
+        Random rnd = new Random(3);
+
+        for (int i = 0; i < 100; i++) {
+            int from = rnd.nextInt(frozen.nodeCount());
+            int to = rnd.nextInt(frozen.nodeCount());
+            int distance = expected.distance(frozen.nodeAt(from), frozen.nodeAt(to));
+            assertEquals(distance, mapped.distance(opened.nodeAt(from), opened.nodeAt(to)));
+            assertEquals(distance, bidirectional.distance(opened.nodeAt(from), opened.nodeAt(to)));
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotGraphFiles() throws IOException {
+        Path garbage = dir.resolve("garbage.bin");
+        Files.write(garbage, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+        Path empty = dir.resolve("empty.bin");
+        Files.write(empty, new byte[0]);
+        Path truncated = dir.resolve("truncated.bin");
+        GraphFile.write(CsrDijkstraTest.randomGraph(1, 10, 30), truncated);
+        Files.write(truncated, Arrays.copyOf(Files.readAllBytes(truncated), 40));
+
+        assertThrows(IOException.class, () -> GraphFile.open(garbage));
+        assertThrows(IOException.class, () -> GraphFile.open(empty));
+        assertThrows(IOException.class, () -> GraphFile.open(truncated));
+        Path hugeHeader = dir.resolve("huge.bin");
+        byte[] header = Arrays.copyOf(Files.readAllBytes(truncated), 40);
+        ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).putInt(2 * Integer.BYTES, Integer.MAX_VALUE);
+        Files.write(hugeHeader, header);
+        assertThrows(IOException.class, () -> GraphFile.open(hugeHeader));
+        assertThrows(IllegalArgumentException.class, () -> GraphFile.open(null));
+    }
+
+    @Test
+    void verifiedOpenRejectsFilesWithCorruptedSections() throws IOException {
+        Graph graph = CsrDijkstraTest.randomGraph(2, 10, 30);
+        Path file = dir.resolve("valid.bin");
+        GraphFile.write(graph, file);
+        byte[] valid = Files.readAllBytes(file);
+        int n = graph.freeze().nodeCount();
+        int m = graph.freeze().edgeCount();
+        int offsets = 5;
+        int targets = offsets + n + 1;
+        int weights = targets + m;
+        int reverseOffsets = weights + m;
+        int sources = reverseOffsets + n + 1;
+
+        assertCorrupted(valid, offsets, 1);
+        assertCorrupted(valid, offsets + n, m - 1);
+        assertCorrupted(valid, offsets + 3, m + 5);
+        assertCorrupted(valid, targets + 7, n);
+        assertCorrupted(valid, weights, 0);
+        assertCorrupted(valid, reverseOffsets + n, m + 1);
+        assertCorrupted(valid, sources + 2, -1);
+        assertEquals(n, GraphFile.open(file, true).nodeCount());
+    }
+
+    /**
+     * Writes copy of given file with one int replaced and checks that it is rejected by verified open, while plain
+     * open only maps it
+     * */
+    private void assertCorrupted(byte[] valid, int intIndex, int value) throws IOException {
+        byte[] bytes = valid.clone();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(intIndex * Integer.BYTES, value);
+        Path corrupted = dir.resolve("corrupted.bin");
+        Files.write(corrupted, bytes);
+        assertThrows(IOException.class, () -> GraphFile.open(corrupted, true));
+        GraphFile.open(corrupted);
+    }
+}
@@ -2,8 +2,11 @@ package graph;
 
 import org.junit.jupiter.api.*;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,4 +113,166 @@ class GraphTest {
         assertFalse(graph.containsNode(node2));
         assertFalse(graph.containsNode(node3));
     }
-}
\ No newline at end of file
+
+    @Test
+    void incomingIndexTracksEdgesAndDegrees() {
+        Graph indexed = Graph.create(true, true);
+        Graph.Node a = indexed.createNode("A");
+        Graph.Node b = indexed.createNode("B");
+        Graph.Node c = indexed.createNode("C");
+        indexed.connectNodes(a, c, 2);
+        indexed.connectNodes(b, c, 5);
+        indexed.connectNodes(c, a, 1);
+
+        assertEquals(Map.of(a, indexed.getEdgeOfTwoNodes(a, c), b, indexed.getEdgeOfTwoNodes(b, c)), indexed.pointsFrom(c));
+        assertEquals(2, indexed.inDegree(c));
+        assertEquals(1, indexed.outDegree(c));
+
+        indexed.changeDistanceBetweenNodes(b, c, 7);
+        assertEquals(7, indexed.pointsFrom(c).get(b).getDistance());
+
+        indexed.disconnectNodes(a, c);
+        assertEquals(1, indexed.inDegree(c));
+
+        indexed.removeNode(c);
+        assertFalse(indexed.hasConnections(b));
+        assertEquals(0, indexed.inDegree(a));
+    }
+
+    @Test
+    void pointsFromWorksWithoutIndex() {
+        Graph undirected = Graph.create(false);
+        Graph.Node a = undirected.createNode("A");
+        Graph.Node b = undirected.createNode("B");
+        undirected.connectNodes(a, b, 3);
+
+        assertEquals(Set.of(b), undirected.pointsFrom(a).keySet());
+        assertEquals(1, undirected.inDegree(a));
+        assertEquals(1, undirected.outDegree(b));
+    }
+
+    @Test
+    void removesBatchOfNodesWithAndWithoutIndex() {
+        for (Graph g : List.of(Graph.create(false, true), Graph.create(false))) {
+            Graph.Node a = g.createNode("A");
+            Graph.Node b = g.createNode("B");
+            Graph.Node c = g.createNode("C");
+            Graph.Node d = g.createNode("D");
+            g.connectNodes(a, b, 1);
+            g.connectNodes(b, c, 1);
+            g.connectNodes(c, d, 1);
+            g.connectNodes(a, d, 1);
+
+            g.removeNodes(List.of(b, d));
+
+            assertEquals(List.of(a, c), g.asList().stream().sorted(Comparator.comparingInt(Graph.Node::getId)).toList());
+            assertFalse(g.hasConnections(a));
+            assertFalse(g.hasConnections(c));
+            assertEquals(0, g.inDegree(a));
+        }
+    }
+
+    @Test
+    void batchRemovalRejectsForeignNodeAndKeepsGraph() {
+        Graph.Node a = graph.createNode();
+        Graph.Node foreign = Graph.create().createNode();
+
+        assertThrows(IllegalArgumentException.class, () -> graph.removeNodes(List.of(a, foreign)));
+        assertTrue(graph.containsNode(a));
+    }
+
+    @Test
+    void builderMatchesGraphBuiltOneByOne() {
+        for (boolean directed : new boolean[]{true, false}) {
+            Graph expected = Graph.create(directed);
+            Graph.Node a = expected.createNode("A");
+            Graph.Node b = expected.createNode("B");
+            Graph.Node c = expected.createNode("C");
+            expected.connectNodes(a, b, 4);
+            expected.connectNodes(b, c, 2);
+            expected.connectNodes(a, b, 6);
+
+            Graph.Builder builder = Graph.builder(3, 3).directed(directed);
+            int ia = builder.addNode("A");
+            int ib = builder.addNode("B");
+            int ic = builder.addNode("C");
+            builder.addEdges(new int[]{ia, ib}, new int[]{ib, ic}, new int[]{4, 2}).addEdge(ia, ib, 6);
+            Graph built = builder.build();
+
+            assertEquals("B", builder.node(ib).getName());
+            assertEquals(3, builder.node(ic).getId());
+            for (Graph.Node node : expected.asList()) {
+                Map<Graph.Node, Graph.Edge> edges = built.pointsTo(builder.node(node.getId() - 1));
+                Map<Graph.Node, Graph.Edge> expectedEdges = expected.pointsTo(node);
+                assertEquals(expectedEdges.size(), edges.size());
+                for (Graph.Edge edge : expectedEdges.values()) {
+                    Graph.Edge actual = edges.get(builder.node(edge.getTarget().getId() - 1));
+                    assertEquals(edge.getDistance(), actual.getDistance());
+                }
+            }
+            Graph.Node d = built.createNode("D");
+            assertEquals(4, d.getId());
+        }
+    }
+
+    @Test
+    void parallelBuilderWithIncomingIndex() {
+        int n = 2_000;
+        Graph.Builder builder = Graph.builder(n, 0).parallel(true).indexIncoming(true);
+        builder.addNodes(n);
+        builder.addEdges(IntStream.range(1, n).mapToObj(i -> new int[]{i - 1, i, i}));
+        builder.addEdges(IntStream.range(1, n).mapToObj(i -> new int[]{i, 0, 1}));
+        Graph built = builder.build();
+
+        Graph.Node first = builder.node(0);
+        assertEquals(n - 1, built.inDegree(first));
+        assertEquals(1, built.inDegree(builder.node(1)));
+        assertEquals(2, built.outDegree(builder.node(1)));
+        assertEquals(n - 1, built.distanceBetween(builder.node(n - 2), builder.node(n - 1)));
+
+        built.removeNode(first);
+        assertEquals(1, built.inDegree(builder.node(2)));
+        assertEquals(0, built.inDegree(builder.node(1)));
+    }
+
+    @Test
+    void builderValidatesEdgesOnBuild() {
+        Graph.Builder unknownNode = Graph.builder(1, 1);
+        unknownNode.addNode();
+        unknownNode.addEdge(0, 1, 3);
+        assertThrows(IllegalArgumentException.class, unknownNode::build);
+
+        Graph.Builder selfLoop = Graph.builder(1, 1);
+        selfLoop.addNode();
+        selfLoop.addEdge(0, 0, 3);
+        assertThrows(IllegalArgumentException.class, selfLoop::build);
+
+        Graph.Builder builder = Graph.builder(0, 0);
+        assertThrows(IllegalStateException.class, () -> builder.node(0));
+        builder.build();
+        assertThrows(IllegalStateException.class, builder::addNode);
+        assertThrows(IllegalArgumentException.class, () -> Graph.builder(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> Graph.builder(0, 0).addEdges(new int[1], new int[2], new int[1]));
+    }
+
+    @Test
+    void freezeIsCachedUntilGraphChanges() {
+        Graph graph = Graph.create();
+        Graph.Node a = graph.createNode();
+        Graph.Node b = graph.createNode();
+        graph.connectNodes(a, b, 4);
+
+        CsrGraph first = graph.freeze();
+        assertSame(first, graph.freeze());
+
+        graph.changeDistanceBetweenNodes(a, b, 7);
+        CsrGraph second = graph.freeze();
+        assertNotSame(first, second);
+        assertEquals(7, second.weight(second.firstEdge(second.indexOf(a))));
+
+        graph.disconnectNodes(b, a);
+        assertSame(second, graph.freeze());
+        graph.removeNode(b);
+        assertEquals(1, graph.freeze().nodeCount());
+    }
+}
@@ -3,8 +3,10 @@ package search;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,4 +71,160 @@ class BinarySearchTest {
         byte[] arr = {};
         assertThrows(IllegalArgumentException.class, () -> BinarySearch.search(arr, (byte) 2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchWithLongArray() {
+        long[] arr = {1L, 2L, 3L, 5L, 8L, 10L, 1L << 40};
+        assertEquals(6, BinarySearch.search(arr, 1L << 40));
+        assertEquals(-1, BinarySearch.search(arr, 4L));
+    }
+
+    @Test
+    void boundsOfIntArrayWithDuplicates() {
+        int[] arr = {1, 2, 2, 2, 5, 8};
+        assertEquals(1, BinarySearch.lowerBound(arr, 2));
+        assertEquals(4, BinarySearch.upperBound(arr, 2));
+        assertEquals(4, BinarySearch.lowerBound(arr, 3));
+        assertEquals(4, BinarySearch.upperBound(arr, 3));
+        assertEquals(0, BinarySearch.lowerBound(arr, 0));
+        assertEquals(6, BinarySearch.upperBound(arr, 9));
+        assertEquals(new BinarySearch.Range(1, 4), BinarySearch.equalRange(arr, 2));
+        assertTrue(BinarySearch.equalRange(arr, 4).isEmpty());
+        assertEquals(4, BinarySearch.equalRange(arr, 4).from());
+    }
+
+    @Test
+    void boundsDoNotThrowOnEmptyArray() {
+        assertEquals(0, BinarySearch.lowerBound(new int[0], 3));
+        assertEquals(0, BinarySearch.upperBound(new long[0], 3L));
+        assertEquals(0, BinarySearch.equalRange(new double[0], 3.0).size());
+        assertEquals(0, BinarySearch.countInRange(new byte[0], (byte) 1, (byte) 2));
+        assertEquals(0, BinarySearch.lowerBound(List.<Person>of(), new Person(1), Comparator.comparingInt(Person::salary)));
+    }
+
+    @Test
+    void countInRangeIsInclusive() {
+        long[] timestamps = {10, 20, 20, 30, 40, 50};
+        assertEquals(4, BinarySearch.countInRange(timestamps, 20L, 40L));
+        assertEquals(0, BinarySearch.countInRange(timestamps, 41L, 49L));
+        assertEquals(6, BinarySearch.countInRange(timestamps, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(0, BinarySearch.countInRange(timestamps, 40L, 20L));
+    }
+
+    @Test
+    void subRangeVariantsStayInsideRange() {
+        int[] arr = {9, 1, 2, 2, 3, 0};
+        assertEquals(2, BinarySearch.lowerBound(arr, 1, 5, 2));
+        assertEquals(4, BinarySearch.upperBound(arr, 1, 5, 2));
+        assertEquals(5, BinarySearch.upperBound(arr, 1, 5, 100));
+        assertEquals(1, BinarySearch.lowerBound(arr, 1, 5, -100));
+        assertEquals(new BinarySearch.Range(2, 4), BinarySearch.equalRange(arr, 1, 5, 2));
+        assertEquals(3, BinarySearch.countInRange(arr, 1, 5, 2, 9));
+    }
+
+    @Test
+    void invalidSubRangeThrows() {
+        int[] arr = {1, 2, 3};
+        assertThrows(IllegalArgumentException.class, () -> BinarySearch.lowerBound(arr, -1, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> BinarySearch.lowerBound(arr, 0, 4, 1));
+        assertThrows(IllegalArgumentException.class, () -> BinarySearch.upperBound(arr, 2, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> BinarySearch.lowerBound((int[]) null, 1));
+    }
+
+    @Test
+    void floatingPointBoundsFollowCompareOrder() {
+        double[] arr = {-1.0, -0.0, 0.0, 0.0, 2.5, Double.NaN};
+        assertEquals(2, BinarySearch.lowerBound(arr, 0.0));
+        assertEquals(1, BinarySearch.lowerBound(arr, -0.0));
+        assertEquals(new BinarySearch.Range(5, 6), BinarySearch.equalRange(arr, Double.NaN));
+        assertEquals(3, BinarySearch.countInRange(arr, -0.0, 0.0));
+
+        float[] floats = {0.5f, 1.5f, 1.5f, 3f};
+        assertEquals(1, BinarySearch.lowerBound(floats, 1.5f));
+        assertEquals(3, BinarySearch.upperBound(floats, 1.5f));
+        assertEquals(2, BinarySearch.countInRange(floats, 1f, 2f));
+    }
+
+    @Test
+    void boundsOfListWithComparator() {
+        Comparator<Person> bySalary = Comparator.comparingInt(Person::salary);
+        List<Person> persons = List.of(new Person(100), new Person(200), new Person(200), new Person(500));
+        assertEquals(1, BinarySearch.lowerBound(persons, new Person(200), bySalary));
+        assertEquals(3, BinarySearch.upperBound(persons, new Person(200), bySalary));
+        assertEquals(new BinarySearch.Range(3, 3), BinarySearch.equalRange(persons, new Person(300), bySalary));
+        assertEquals(3, BinarySearch.countInRange(persons, new Person(150), new Person(500), bySalary));
+        assertEquals(1, BinarySearch.countInRange(persons, 2, 4, new Person(300), new Person(600), bySalary));
+    }
+
+    @Test
+    void boundsMatchLinearScan() {
+        Random random = new Random(19);
+        for (int round = 0; round < 200; round++) {
+            int[] arr = random.ints(random.nextInt(40), 0, 10).sorted().toArray();
+            int key = random.nextInt(12) - 1;
+            int lower = 0;
+            while (lower < arr.length && arr[lower] < key) lower++;
+            int upper = lower;
+            while (upper < arr.length && arr[upper] == key) upper++;
+            assertEquals(lower, BinarySearch.lowerBound(arr, key));
+            assertEquals(upper, BinarySearch.upperBound(arr, key));
+        }
+    }
+
+    @Test
+    void searchAllFindsFirstOccurrences() {
+        int[] haystack = {1, 3, 3, 3, 7, 9, 12};
+        int[] keys = {12, 3, 4, 1, 0, 13, 9};
+        int[] out = BinarySearch.searchAll(haystack, keys, new int[keys.length]);
+        assertArrayEquals(new int[]{6, 1, -1, 0, -1, -1, 5}, out);
+    }
+
+    @Test
+    void searchAllWithSortedKeysMergesWithHaystack() {
+        long[] haystack = {2, 4, 4, 8, 16, 32};
+        long[] keys = {1, 4, 4, 5, 16, 32, 33};
+        int[] out = BinarySearch.searchAll(haystack, keys, new int[keys.length]);
+        assertArrayEquals(new int[]{-1, 1, 1, -1, 4, 5, -1}, out);
+    }
+
+    @Test
+    void searchAllOfDoublesFollowsCompareOrder() {
+        double[] haystack = {-1.0, -0.0, 0.0, 2.5, Double.NaN};
+        double[] keys = {Double.NaN, 0.0, -0.0, 1.0};
+        int[] out = BinarySearch.searchAll(haystack, keys, new int[keys.length]);
+        assertArrayEquals(new int[]{4, 2, 1, -1}, out);
+    }
+
+    @Test
+    void searchAllOnEmptyHaystackFindsNothing() {
+        int[] out = BinarySearch.searchAll(new int[0], new int[]{1, 2}, new int[2]);
+        assertArrayEquals(new int[]{-1, -1}, out);
+        assertThrows(IllegalArgumentException.class, () -> BinarySearch.searchAll(new int[]{1}, new int[]{1, 2}, new int[1]));
+        assertThrows(IllegalArgumentException.class, () -> BinarySearch.searchAll(null, new int[0], new int[0]));
+    }
+
+    @Test
+    void searchAllMatchesLowerBound() {
+        Random random = new Random(20);
+        for (int round = 0; round < 50; round++) {
+            int[] haystack = random.ints(1 + random.nextInt(300), 0, 500).sorted().toArray();
+            int[] keys = random.ints(random.nextInt(100), -10, 510).toArray();
+            if (round % 2 == 0) Arrays.sort(keys);
+            int[] out = BinarySearch.searchAll(haystack, keys, new int[keys.length]);
+            for (int i = 0; i < keys.length; i++) {
+                int lower = BinarySearch.lowerBound(haystack, keys[i]);
+                int expected = lower < haystack.length && haystack[lower] == keys[i] ? lower : -1;
+                assertEquals(expected, out[i]);
+            }
+        }
+    }
+
+    @Test
+    void parallelSearchAllMatchesSequential() {
+        Random random = new Random(21);
+        long[] haystack = random.longs(100_000, 0, 1_000_000).sorted().toArray();
+        long[] keys = random.longs(5 * BinarySearch.PARALLEL_THRESHOLD, 0, 1_000_000).toArray();
+        int[] expected = BinarySearch.searchAll(haystack, keys, new int[keys.length]);
+        assertArrayEquals(expected, BinarySearch.parallelSearchAll(haystack, keys, new int[keys.length]));
+    }
+}
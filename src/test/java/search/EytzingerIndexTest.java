@@ -0,0 +1,83 @@
+package search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EytzingerIndexTest {
+
+    private final Random random = new Random(61);
+
+    @Test
+    void intIndexMatchesBinarySearchOnAllSizes() {
+        for (int size = 0; size <= 70; size++) {
+            checkInts(random.ints(size, 0, 50).sorted().toArray());
+        }
+        checkInts(random.ints(100_000).sorted().toArray());
+    }
+
+    private void checkInts(int[] sorted) {
+        EytzingerIndex.OfInt index = EytzingerIndex.of(sorted);
+        assertEquals(sorted.length, index.size());
+        for (int key = -2; key < 52; key++) {
+            assertLowerBound(sorted, key, index.lowerBound(key));
+            int expected = firstIndexOf(sorted, key);
+            assertEquals(expected, index.indexOf(key));
+            assertEquals(expected >= 0, index.contains(key));
+        }
+        for (int i = 0; i < Math.min(sorted.length, 1000); i++) {
+            int key = sorted[random.nextInt(sorted.length)];
+            assertEquals(firstIndexOf(sorted, key), index.indexOf(key));
+        }
+    }
+
+    private static void assertLowerBound(int[] sorted, int key, int actual) {
+        int expected = 0;
+        while (expected < sorted.length && sorted[expected] < key) expected++;
+        assertEquals(expected, actual);
+    }
+
+    private static int firstIndexOf(int[] sorted, int key) {
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] == key) return i;
+        }
+        return -1;
+    }
+
+    @Test
+    void longIndexFindsOriginalIndices() {
+        long[] sorted = random.longs(10_000).sorted().toArray();
+        EytzingerIndex.OfLong index = EytzingerIndex.of(sorted);
+
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, index.indexOf(sorted[i]));
+        }
+        assertEquals(0, index.lowerBound(Long.MIN_VALUE));
+        assertEquals(sorted.length, index.lowerBound(sorted[sorted.length - 1] + 1));
+    }
+
+    @Test
+    void doubleIndexFollowsDoubleCompareOrder() {
+        double[] sorted = {Double.NEGATIVE_INFINITY, -2.5, -0.0, 0.0, 1e-300, 3, 3, Double.POSITIVE_INFINITY, Double.NaN};
+        EytzingerIndex.OfDouble index = EytzingerIndex.of(sorted);
+
+        assertEquals(2, index.indexOf(-0.0));
+        assertEquals(3, index.indexOf(0.0));
+        assertEquals(5, index.indexOf(3));
+        assertEquals(8, index.indexOf(Double.NaN));
+        assertEquals(-1, index.indexOf(2));
+        assertEquals(5, index.lowerBound(2));
+        assertEquals(4, index.lowerBound(Double.MIN_VALUE));
+        assertFalse(index.contains(-1));
+    }
+
+    @Test
+    void rejectsUnsortedInput() {
+        assertThrows(IllegalArgumentException.class, () -> EytzingerIndex.of(new int[]{2, 1}));
+        assertThrows(IllegalArgumentException.class, () -> EytzingerIndex.of(new double[]{0.0, -0.0}));
+        assertThrows(IllegalArgumentException.class, () -> EytzingerIndex.of((long[]) null));
+        assertEquals(-1, EytzingerIndex.of(new long[0]).indexOf(5));
+    }
+}
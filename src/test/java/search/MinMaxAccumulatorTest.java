@@ -0,0 +1,129 @@
+package search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinMaxAccumulatorTest {
+
+    @Test
+    void tracksExtremesWithGlobalOffsets() {
+        MinMaxAccumulator.OfInt acc = MinMaxAccumulator.ofInt();
+        acc.accept(5);
+        acc.acceptAll(new int[]{9, 1, 3});
+        acc.acceptAll(new int[]{0, 1, 9, 2}, 1, 4);
+        assertEquals(7, acc.count());
+        assertEquals(1, acc.min());
+        assertEquals(2, acc.minOffset());
+        assertEquals(9, acc.max());
+        assertEquals(1, acc.maxOffset());
+    }
+
+    @Test
+    void chunksGiveSameResultAsSingleValues() {
+        Random random = new Random(23);
+        long[] values = random.longs(1000, -50, 50).toArray();
+        MinMaxAccumulator.OfLong one = MinMaxAccumulator.ofLong();
+        MinMaxAccumulator.OfLong chunked = MinMaxAccumulator.ofLong();
+        for (long value : values) one.accept(value);
+        for (int from = 0; from < values.length; from += 37) {
+            chunked.acceptAll(values, from, Math.min(values.length, from + 37));
+        }
+        assertEquals(one.min(), chunked.min());
+        assertEquals(one.minOffset(), chunked.minOffset());
+        assertEquals(one.max(), chunked.max());
+        assertEquals(one.maxOffset(), chunked.maxOffset());
+        assertEquals(MinMax.Min.indexOf(values), one.minOffset());
+        assertEquals(MinMax.Max.indexOf(values), one.maxOffset());
+    }
+
+    @Test
+    void combineShiftsOffsetsOfFollowingPart() {
+        MinMaxAccumulator.OfInt left = MinMaxAccumulator.ofInt();
+        MinMaxAccumulator.OfInt right = MinMaxAccumulator.ofInt();
+        left.acceptAll(new int[]{4, 2, 8});
+        right.acceptAll(new int[]{8, 1, 7});
+        left.combine(right).combine(MinMaxAccumulator.ofInt());
+        assertEquals(6, left.count());
+        assertEquals(1, left.min());
+        assertEquals(4, left.minOffset());
+        assertEquals(8, left.max());
+        assertEquals(2, left.maxOffset());
+    }
+
+    @Test
+    void worksAsCollectorInParallelStream() {
+        int[] values = new Random(24).ints(100_000, 0, 1_000_000).toArray();
+        MinMaxAccumulator.OfInt acc = IntStream.of(values).parallel()
+                .collect(MinMaxAccumulator::ofInt, MinMaxAccumulator.OfInt::accept, MinMaxAccumulator.OfInt::combine);
+        assertEquals(MinMax.Min.indexOf(values), acc.minOffset());
+        assertEquals(MinMax.Max.indexOf(values), acc.maxOffset());
+
+        MinMaxAccumulator.OfInt boxed = IntStream.of(values).boxed().parallel().collect(MinMaxAccumulator.OfInt.collector());
+        assertEquals(acc.maxOffset(), boxed.maxOffset());
+    }
+
+    @Test
+    void doubleAccumulatorIgnoresNaN() {
+        MinMaxAccumulator.OfDouble acc = MinMaxAccumulator.ofDouble();
+        acc.accept(Double.NaN);
+        assertTrue(acc.isEmpty());
+        acc.acceptAll(new double[]{-3.0, Double.NaN, 4.0, -3.0});
+        MinMaxAccumulator.OfDouble tail = Stream.of(Double.NaN, 10.0).collect(MinMaxAccumulator.OfDouble.collector());
+        acc.combine(tail);
+        assertEquals(7, acc.count());
+        assertEquals(-3.0, acc.min());
+        assertEquals(1, acc.minOffset());
+        assertEquals(10.0, acc.max());
+        assertEquals(6, acc.maxOffset());
+    }
+
+    @Test
+    void keyedAccumulatorKeepsObjects() {
+        record Sample(String host, int latency) {}
+        List<Sample> samples = List.of(new Sample("a", 30), new Sample("b", 10), new Sample("c", 90), new Sample("d", 10));
+        MinMaxAccumulator.Keyed<Sample, Integer> acc = MinMaxAccumulator.keyed(Sample::latency, Comparator.naturalOrder());
+        acc.acceptAll(samples);
+        assertEquals("b", acc.min().host());
+        assertEquals(1, acc.minOffset());
+        assertEquals("c", acc.max().host());
+
+        MinMaxAccumulator.Keyed<Sample, Integer> collected = samples.parallelStream()
+                .collect(MinMaxAccumulator.Keyed.collector(Sample::latency, Comparator.naturalOrder()));
+        assertEquals(acc.min(), collected.min());
+        assertEquals(acc.maxOffset(), collected.maxOffset());
+    }
+
+    @Test
+    void bufferIsConsumedToItsLimit() {
+        IntBuffer buffer = IntBuffer.wrap(new int[]{7, 3, 11, 5});
+        buffer.position(1);
+        MinMaxAccumulator.OfInt acc = MinMaxAccumulator.ofInt();
+        acc.acceptAll(buffer);
+        assertEquals(buffer.limit(), buffer.position());
+        assertEquals(3, acc.min());
+        assertEquals(0, acc.minOffset());
+        assertEquals(11, acc.max());
+    }
+
+    @Test
+    void resetMakesAccumulatorEmpty() {
+        MinMaxAccumulator.OfDouble acc = MinMaxAccumulator.ofDouble();
+        acc.acceptAll(new double[]{1.0, 2.0});
+        acc.reset();
+        assertTrue(acc.isEmpty());
+        assertEquals(0, acc.count());
+        assertThrows(IllegalStateException.class, acc::min);
+        acc.accept(-5.0);
+        assertEquals(-5.0, acc.max());
+        assertEquals(0, acc.maxOffset());
+        assertThrows(IllegalArgumentException.class, () -> acc.acceptAll(new double[2], 1, 3));
+    }
+}
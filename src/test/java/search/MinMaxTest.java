@@ -2,7 +2,10 @@ package search;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.function.BiPredicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static search.MinMax.Max;
@@ -10,6 +13,8 @@ import static search.MinMax.*;
 import static search.MinMax.Min;
 
 class MinMaxTest {
+    record Employee(int salary) {}
+
     @Test
     void findsLargestInIntArray(){
         int[] arr = new int[] {1, 2, 2, 123, 4, 120, 400};
@@ -71,4 +76,191 @@ class MinMaxTest {
         assertEquals(4, index);
         assertEquals(399_000, value);
     }
-}
\ No newline at end of file
+    @Test
+    void firstOccurrenceWinsAcrossBlocks(){
+        int[] arr = new int[5000];
+        arr[1500] = 7;
+        arr[3000] = 7;
+        arr[4000] = -7;
+        arr[4500] = -7;
+        assertEquals(1500, Max.indexOf(arr));
+        assertEquals(4000, Min.indexOf(arr));
+        assertEquals(0, Max.indexOf(new int[3000]));
+    }
+    @Test
+    void nanIsNeverPickedUnlessItIsFirst(){
+        double[] arr = {1.0, Double.NaN, 3.0, Double.NaN, -2.0};
+        assertEquals(2, Max.indexOf(arr));
+        assertEquals(4, Min.indexOf(arr));
+        double[] nanFirst = {Double.NaN, 1.0, 3.0};
+        assertEquals(0, Max.indexOf(nanFirst));
+        assertEquals(0, Min.indexOf(nanFirst));
+    }
+    @Test
+    void parallelScanMatchesSequentialScan(){
+        Random random = new Random(21);
+        int n = PARALLEL_THRESHOLD + 12345;
+        int[] ints = random.ints(n, -1000, 1000).toArray();
+        long[] longs = random.longs(n, -1000, 1000).toArray();
+        byte[] bytes = new byte[n];
+        random.nextBytes(bytes);
+        float[] floats = new float[n];
+        double[] doubles = new double[n];
+        for (int i = 0; i < n; i++) {
+            floats[i] = random.nextInt(1000);
+            doubles[i] = random.nextInt(1000);
+        }
+        Arrays.fill(doubles, 2 * PARALLEL_THRESHOLD / 3, PARALLEL_THRESHOLD, Double.NaN);
+
+        assertEquals(sequentialIndex(n, (a, b) -> ints[a] > ints[b]), Max.indexOf(ints));
+        assertEquals(sequentialIndex(n, (a, b) -> ints[a] < ints[b]), Min.indexOf(ints));
+        assertEquals(sequentialIndex(n, (a, b) -> longs[a] > longs[b]), Max.indexOf(longs));
+        assertEquals(sequentialIndex(n, (a, b) -> bytes[a] < bytes[b]), Min.indexOf(bytes));
+        assertEquals(sequentialIndex(n, (a, b) -> floats[a] > floats[b]), Max.indexOf(floats));
+        assertEquals(sequentialIndex(n, (a, b) -> doubles[a] < doubles[b]), Min.indexOf(doubles));
+        doubles[0] = Double.NaN;
+        assertEquals(0, Max.indexOf(doubles));
+    }
+    private static int sequentialIndex(int n, BiPredicate<Integer, Integer> isBetter) {
+        int best = 0;
+        for (int i = 1; i < n; i++) {
+            if (isBetter.test(i, best)) best = i;
+        }
+        return best;
+    }
+    @Test
+    void rangeFindsBothExtremesWithFirstOccurrences(){
+        int[] arr = {5, 1, 9, 1, 9, 3};
+        RangeInt range = MinMax.range(arr);
+        assertEquals(new ElementInt(1, 1), range.min());
+        assertEquals(new ElementInt(2, 9), range.max());
+        assertEquals(new RangeLong(new ElementLong(0, 4L), new ElementLong(0, 4L)), MinMax.range(new long[]{4L}));
+        RangeByte equal = MinMax.range(new byte[]{2, 2, 2});
+        assertEquals(0, equal.min().index());
+        assertEquals(0, equal.max().index());
+        assertThrows(IllegalArgumentException.class, () -> MinMax.range(new int[0]));
+    }
+    @Test
+    void rangeOfFloatingPointSkipsNaN(){
+        double[] arr = {2.0, Double.NaN, -1.0, 7.0, Double.NaN};
+        RangeDouble range = MinMax.range(arr);
+        assertEquals(2, range.min().index());
+        assertEquals(3, range.max().index());
+        RangeFloat floats = MinMax.range(new float[]{Float.NaN, 3f, -3f});
+        assertEquals(0, floats.min().index());
+        assertEquals(0, floats.max().index());
+    }
+    @Test
+    void rangeMatchesMinAndMax(){
+        Random random = new Random(22);
+        for (int round = 0; round < 100; round++) {
+            int[] ints = random.ints(1 + random.nextInt(50), 0, 10).toArray();
+            double[] doubles = random.doubles(1 + random.nextInt(50)).map(d -> d < 0.2 ? Double.NaN : Math.floor(d * 10)).toArray();
+            assertEquals(new RangeInt(Min.of(ints), Max.of(ints)), MinMax.range(ints));
+            assertEquals(new RangeDouble(Min.of(doubles), Max.of(doubles)), MinMax.range(doubles));
+            List<Integer> list = Arrays.stream(ints).boxed().toList();
+            Range<Integer> objects = MinMax.range(list, x -> x, Integer::compare);
+            assertEquals(Min.indexOf(list, x -> x, Integer::compare), objects.min().index());
+            assertEquals(Max.indexOf(list, x -> x, Integer::compare), objects.max().index());
+        }
+    }
+    @Test
+    void parallelRangeMatchesMinAndMax(){
+        Random random = new Random(23);
+        int n = PARALLEL_THRESHOLD + 777;
+        long[] longs = random.longs(n, -5000, 5000).toArray();
+        assertEquals(new RangeLong(Min.of(longs), Max.of(longs)), MinMax.range(longs));
+        float[] floats = new float[n];
+        for (int i = 0; i < n; i++) floats[i] = random.nextInt(5000);
+        Arrays.fill(floats, 100_000, 300_000, Float.NaN);
+        assertEquals(new RangeFloat(Min.of(floats), Max.of(floats)), MinMax.range(floats));
+    }
+    @Test
+    void topKReturnsLargestInOrderWithFirstOccurrencesFirst(){
+        int[] arr = {5, 9, 1, 9, 7, 5, 3};
+        ElementInt[] top = Max.topK(arr, 4);
+        assertArrayEquals(new ElementInt[]{new ElementInt(1, 9), new ElementInt(3, 9), new ElementInt(4, 7),
+                new ElementInt(0, 5)}, top);
+        ElementInt[] bottom = Min.bottomK(arr, 3);
+        assertArrayEquals(new ElementInt[]{new ElementInt(2, 1), new ElementInt(6, 3), new ElementInt(0, 5)}, bottom);
+        assertEquals(7, Max.topK(arr, 100).length);
+        assertEquals(0, Max.topK(arr, 0).length);
+        assertEquals(0, Min.bottomK(new int[0], 3).length);
+        assertThrows(IllegalArgumentException.class, () -> Max.topK(arr, -1));
+    }
+    @Test
+    void topKOfExtremeValuesAndOtherTypes(){
+        int[] ints = {Integer.MIN_VALUE, Integer.MAX_VALUE, 0};
+        assertEquals(Integer.MIN_VALUE, Min.bottomK(ints, 1)[0].value());
+        assertEquals(Integer.MAX_VALUE, Max.topK(ints, 1)[0].value());
+        byte[] bytes = {-128, 127, 5, -128};
+        assertArrayEquals(new ElementByte[]{new ElementByte(0, (byte) -128), new ElementByte(3, (byte) -128)},
+                Min.bottomK(bytes, 2));
+        long[] longs = {Long.MIN_VALUE, 4L, Long.MAX_VALUE};
+        assertEquals(new ElementLong(2, Long.MAX_VALUE), Max.topK(longs, 2)[0]);
+        float[] floats = {1.5f, Float.NaN, -2f, 8f};
+        assertArrayEquals(new ElementFloat[]{new ElementFloat(3, 8f), new ElementFloat(0, 1.5f), new ElementFloat(2, -2f)},
+                Max.topK(floats, 5));
+        double[] doubles = {Double.NaN, -0.0, 0.0, -3.0};
+        assertArrayEquals(new ElementDouble[]{new ElementDouble(3, -3.0), new ElementDouble(1, -0.0)},
+                Min.bottomK(doubles, 2));
+    }
+    @Test
+    void topKOfCollectionByKey(){
+        List<Employee> list = List.of(
+                new Employee(300),
+                new Employee(100),
+                new Employee(500),
+                new Employee(300)
+        );
+        List<Element<Employee>> top = Max.topK(list, Employee::salary, Integer::compare, 3);
+        assertEquals(List.of(2, 0, 3), top.stream().map(Element::index).toList());
+        List<Element<Employee>> bottom = Min.bottomK(list, Employee::salary, Integer::compare, 2);
+        assertEquals(List.of(1, 0), bottom.stream().map(Element::index).toList());
+        assertTrue(Max.topK(list, Employee::salary, Integer::compare, 0).isEmpty());
+    }
+    @Test
+    void topKMatchesSorting(){
+        Random random = new Random(25);
+        for (int round = 0; round < 50; round++) {
+            int n = random.nextInt(200);
+            int k = random.nextInt(30);
+            long[] arr = random.longs(n, 0, 20).toArray();
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> arr[a] != arr[b] ? Long.compare(arr[b], arr[a]) : Integer.compare(a, b));
+            ElementLong[] top = Max.topK(arr, k);
+            assertEquals(Math.min(n, k), top.length);
+            for (int i = 0; i < top.length; i++) {
+                assertEquals(order[i], top[i].index());
+            }
+            List<Long> boxed = Arrays.stream(arr).boxed().toList();
+            List<Element<Long>> generic = Max.topK(boxed, x -> x, Long::compare, k);
+            for (int i = 0; i < top.length; i++) {
+                assertEquals(top[i].index(), generic.get(i).index());
+            }
+        }
+    }
+    @Test
+    void parallelTopKMatchesSequential(){
+        Random random = new Random(26);
+        int n = PARALLEL_THRESHOLD + 99;
+        int[] ints = random.ints(n, 0, 1000).toArray();
+        assertArrayEquals(Max.topK(ints, 50), Max.parallelTopK(ints, 50));
+        assertArrayEquals(Min.bottomK(ints, 50), Min.parallelBottomK(ints, 50));
+        double[] doubles = random.doubles(n).toArray();
+        Arrays.fill(doubles, 0, 200_000, Double.NaN);
+        assertArrayEquals(Max.topK(doubles, 10), Max.parallelTopK(doubles, 10));
+    }
+    @Test
+    void parallelTopKWithLargeK(){
+        Random random = new Random(27);
+        int n = PARALLEL_THRESHOLD + 4321;
+        long[] longs = random.longs(n, 0, 100_000).toArray();
+        assertArrayEquals(Max.topK(longs, 100_000), Max.parallelTopK(longs, 100_000));
+        assertArrayEquals(Min.bottomK(longs, 40_000), Min.parallelBottomK(longs, 40_000));
+        float[] floats = new float[n];
+        for (int i = 0; i < n; i++) floats[i] = random.nextInt(1000);
+        assertArrayEquals(Max.topK(floats, 30_000), Max.parallelTopK(floats, 30_000));
+    }
+}
@@ -0,0 +1,107 @@
+package search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowMinMaxTest {
+
+    @Test
+    void countWindowKeepsLastSamples() {
+        SlidingWindowMinMax.OfInt window = SlidingWindowMinMax.ofInt(3);
+        assertTrue(window.isEmpty());
+        window.push(5);
+        window.push(1);
+        window.push(3);
+        assertEquals(5, window.currentMax());
+        assertEquals(1, window.currentMin());
+        window.push(2);
+        assertEquals(3, window.currentMax());
+        window.push(4);
+        assertEquals(4, window.currentMax());
+        assertEquals(2, window.currentMin());
+    }
+
+    @Test
+    void countWindowMatchesBruteForce() {
+        Random random = new Random(24);
+        for (int size : new int[]{1, 2, 7, 64, 100}) {
+            long[] samples = random.longs(1000, -100, 100).toArray();
+            SlidingWindowMinMax.OfLong window = SlidingWindowMinMax.ofLong(size);
+            for (int i = 0; i < samples.length; i++) {
+                window.push(samples[i]);
+                long[] copy = Arrays.copyOfRange(samples, Math.max(0, i - size + 1), i + 1);
+                assertEquals(MinMax.Max.valueOf(copy), window.currentMax());
+                assertEquals(MinMax.Min.valueOf(copy), window.currentMin());
+            }
+        }
+    }
+
+    @Test
+    void timeWindowMatchesBruteForce() {
+        Random random = new Random(25);
+        int n = 2000;
+        long[] timestamps = new long[n];
+        int[] values = random.ints(n, 0, 1000).toArray();
+        for (int i = 1; i < n; i++) timestamps[i] = timestamps[i - 1] + random.nextInt(3);
+        SlidingWindowMinMax.OfInt window = SlidingWindowMinMax.timedOfInt(50);
+        for (int i = 0; i < n; i++) {
+            window.push(timestamps[i], values[i]);
+            int from = i;
+            while (from > 0 && timestamps[from - 1] > timestamps[i] - 50) from--;
+            int[] copy = Arrays.copyOfRange(values, from, i + 1);
+            assertEquals(MinMax.Max.valueOf(copy), window.currentMax());
+            assertEquals(MinMax.Min.valueOf(copy), window.currentMin());
+        }
+    }
+
+    @Test
+    void timeWindowGrowsAndEmptiesWhenAdvanced() {
+        SlidingWindowMinMax.OfDouble window = SlidingWindowMinMax.timedOfDouble(1_000);
+        for (int i = 0; i < 500; i++) {
+            window.push(i, i);
+        }
+        assertEquals(499.0, window.currentMax());
+        assertEquals(0.0, window.currentMin());
+        window.advanceTo(1_200);
+        assertEquals(499.0, window.currentMax());
+        assertEquals(201.0, window.currentMin());
+        window.advanceTo(1_499);
+        assertTrue(window.isEmpty());
+        assertThrows(IllegalStateException.class, window::currentMax);
+        assertThrows(IllegalArgumentException.class, () -> window.push(10, 1.0));
+    }
+
+    @Test
+    void nanSamplesAreIgnoredButTakePlaceInWindow() {
+        SlidingWindowMinMax.OfDouble window = SlidingWindowMinMax.ofDouble(2);
+        window.push(3.0);
+        window.push(Double.NaN);
+        assertEquals(3.0, window.currentMax());
+        window.push(Double.NaN);
+        assertTrue(window.isEmpty());
+        window.push(-1.0);
+        assertEquals(-1.0, window.currentMin());
+    }
+
+    @Test
+    void windowKindIsChecked() {
+        assertThrows(IllegalArgumentException.class, () -> SlidingWindowMinMax.ofInt(0));
+        assertThrows(IllegalArgumentException.class, () -> SlidingWindowMinMax.timedOfLong(-5));
+        assertThrows(IllegalStateException.class, () -> SlidingWindowMinMax.ofInt(4).push(1L, 2));
+        assertThrows(IllegalStateException.class, () -> SlidingWindowMinMax.timedOfInt(4).push(2));
+    }
+
+    @Test
+    void resetEmptiesWindow() {
+        SlidingWindowMinMax.OfLong window = SlidingWindowMinMax.timedOfLong(10);
+        window.push(100, 7L);
+        window.reset();
+        assertTrue(window.isEmpty());
+        window.push(1, 3L);
+        assertEquals(3L, window.currentMax());
+    }
+}
@@ -0,0 +1,122 @@
+package sort;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSortTest {
+
+    @TempDir
+    Path dir;
+
+    private final Random random = new Random(41);
+
+    @Test
+    void sortsIntsWithManyRunsAndMergePasses() throws IOException {
+        int[] values = random.ints(100_000).toArray();
+        Path input = dir.resolve("ints.bin");
+        Path output = dir.resolve("sorted.bin");
+        Path temp = Files.createDirectory(dir.resolve("tmp"));
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(input))) {
+            for (int value : values) out.writeInt(value);
+        }
+
+        // 400 runs of 250 ints need two merge passes
+        ExternalSort.sortInts(input, output, 1000, temp);
+
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+        int[] actual = new int[values.length];
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(output))) {
+            for (int i = 0; i < actual.length; i++) actual[i] = in.readInt();
+            assertEquals(-1, in.read());
+        }
+        assertArrayEquals(expected, actual);
+        try (Stream<Path> left = Files.list(temp)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void sortsLongsInSingleChunk() throws IOException {
+        long[] values = random.longs(5000).toArray();
+        Path input = dir.resolve("longs.bin");
+        Path output = dir.resolve("sorted.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(input))) {
+            for (long value : values) out.writeLong(value);
+        }
+
+        ExternalSort.sortLongs(input, output);
+
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(output))) {
+            for (long value : expected) assertEquals(value, in.readLong());
+        }
+    }
+
+    @Test
+    void sortsRecordsStably() throws IOException {
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            records.add((char) ('a' + random.nextInt(26)) + ":" + i);
+        }
+        Path input = dir.resolve("records.bin");
+        Path output = dir.resolve("sorted.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(input))) {
+            for (String record : records) {
+                byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        // records are compared only by first letter, so stability keeps increasing numbers within a letter
+        ExternalSort.sortRecords(input, output, Comparator.comparingInt(record -> record[0]), 4096, dir);
+
+        List<String> expected = new ArrayList<>(records);
+        expected.sort(Comparator.comparingInt(record -> record.charAt(0)));
+        List<String> actual = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(output))) {
+            while (in.available() > 0) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                actual.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void handlesEmptyAndInvalidInput() throws IOException {
+        Path empty = Files.createFile(dir.resolve("empty.bin"));
+        Path output = dir.resolve("out.bin");
+        ExternalSort.sortInts(empty, output);
+        assertEquals(0, Files.size(output));
+
+        Path odd = dir.resolve("odd.bin");
+        Files.write(odd, new byte[]{1, 2, 3, 4, 5});
+        assertThrows(IOException.class, () -> ExternalSort.sortInts(odd, output));
+
+        Path truncated = dir.resolve("truncated.bin");
+        Files.write(truncated, new byte[]{0, 0, 0, 9, 1, 2});
+        assertThrows(IOException.class, () -> ExternalSort.sortRecords(truncated, output, Arrays::compare));
+
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.sortLongs(empty, output, 8, null));
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.sortInts(null, output));
+    }
+}
@@ -0,0 +1,86 @@
+package sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MergeSortTest {
+
+    record Item(int key, int order) {}
+
+    private final Random random = new Random(31);
+
+    @Test
+    void sortsArraysLikeStableLibrarySort() {
+        for (int size : new int[]{0, 1, 2, 31, 32, 33, 1000, 100_000}) {
+            for (int range : new int[]{3, 1000, Integer.MAX_VALUE}) {
+                Item[] items = new Item[size];
+                for (int i = 0; i < size; i++) {
+                    items[i] = new Item(random.nextInt(range), i);
+                }
+                Item[] expected = items.clone();
+                Arrays.sort(expected, Comparator.comparingInt(Item::key));
+
+                assertArrayEquals(expected, MergeSort.sort(items, Comparator.comparingInt(Item::key)));
+            }
+        }
+    }
+
+    @Test
+    void sortsPartlySortedInputWithRuns() {
+        Integer[] arr = new Integer[50_000];
+        for (int i = 0; i < arr.length; i++) {
+            int block = i / 5000;
+            arr[i] = block % 2 == 0 ? i : -i; // alternating ascending and descending runs
+        }
+        for (int i = 0; i < 100; i++) {
+            arr[random.nextInt(arr.length)] = random.nextInt();
+        }
+        Integer[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        assertArrayEquals(expected, MergeSort.sort(arr, Comparator.naturalOrder()));
+    }
+
+    @Test
+    void keepsOrderOfEqualElementsBetweenStages() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            items.add(new Item(random.nextInt(10), random.nextInt(50)));
+        }
+        List<Item> expected = new ArrayList<>(items);
+        expected.sort(Comparator.comparingInt(Item::key).thenComparingInt(Item::order));
+
+        MergeSort.sort(items, Comparator.comparingInt(Item::order));
+        MergeSort.sort(items, Comparator.comparingInt(Item::key));
+        assertEquals(expected, items);
+    }
+
+    @Test
+    void sortsLinkedListInPlace() {
+        LinkedList<Integer> list = new LinkedList<>();
+        for (int i = 0; i < 50_000; i++) {
+            list.add(random.nextInt(1000));
+        }
+        List<Integer> expected = new ArrayList<>(list);
+        expected.sort(Comparator.reverseOrder());
+
+        List<Integer> result = MergeSort.sort(list, Comparator.reverseOrder());
+        assertSame(list, result);
+        assertEquals(expected, list);
+    }
+
+    @Test
+    void validatesArguments() {
+        assertThrows(IllegalArgumentException.class, () -> MergeSort.sort((Integer[]) null, Comparator.naturalOrder()));
+        assertThrows(IllegalArgumentException.class, () -> MergeSort.sort(new Integer[1], null));
+        assertThrows(UnsupportedOperationException.class, () -> MergeSort.sort(List.of(2, 1), Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,100 @@
+package sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartialSortTest {
+
+    record Item(int key, int order) {}
+
+    private final Random random = new Random(51);
+
+    @Test
+    void selectFindsKthSmallestAndPartitions() {
+        for (int size : new int[]{1, 2, 15, 16, 17, 1000, 50_000}) {
+            int[] arr = random.ints(size, -1000, 1000).toArray();
+            int[] sorted = arr.clone();
+            Arrays.sort(sorted);
+            int k = random.nextInt(size);
+
+            assertEquals(sorted[k], PartialSort.select(arr, k));
+            for (int i = 0; i < size; i++) {
+                if (i < k) assertTrue(arr[i] <= arr[k]);
+                if (i > k) assertTrue(arr[i] >= arr[k]);
+            }
+        }
+    }
+
+    @Test
+    void partialSortGivesSortedPrefixForAllTypes() {
+        int n = 20_000;
+        int k = 100;
+        int[] ints = random.ints(n).toArray();
+        long[] longs = random.longs(n).toArray();
+        double[] doubles = random.doubles(n).toArray();
+        doubles[5] = Double.NaN;
+        doubles[6] = -0.0;
+        doubles[7] = 0.0;
+        int[] expectedInts = ints.clone();
+        long[] expectedLongs = longs.clone();
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedInts);
+        Arrays.sort(expectedLongs);
+        Arrays.sort(expectedDoubles);
+
+        assertArrayEquals(Arrays.copyOf(expectedInts, k), Arrays.copyOf(PartialSort.partialSort(ints, k), k));
+        assertArrayEquals(Arrays.copyOf(expectedLongs, k), Arrays.copyOf(PartialSort.partialSort(longs, k), k));
+        assertArrayEquals(Arrays.copyOf(expectedDoubles, k), Arrays.copyOf(PartialSort.partialSort(doubles, k), k));
+        assertEquals(-0.0, PartialSort.select(new double[]{0.0, Double.NaN, -0.0}, 0));
+        assertTrue(Double.isNaN(PartialSort.select(new double[]{0.0, Double.NaN, -0.0}, 2)));
+    }
+
+    @Test
+    void worksOnAdversarialInputs() {
+        int n = 100_000;
+        int[] sorted = new int[n];
+        int[] equal = new int[n];
+        int[] organPipe = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            organPipe[i] = Math.min(i, n - i);
+        }
+        assertEquals(n / 2, PartialSort.select(sorted, n / 2));
+        assertEquals(0, PartialSort.select(equal, n - 1));
+        int[] expected = organPipe.clone();
+        Arrays.sort(expected);
+        assertEquals(expected[n / 3], PartialSort.select(organPipe, n / 3));
+    }
+
+    @Test
+    void genericPartialSortKeepsOrderOfEqualElementsInPrefix() {
+        Comparator<Item> byKeyDescending = Comparator.comparingInt(Item::key).reversed();
+        Item[] arr = new Item[5000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = new Item(random.nextInt(100), i);
+        }
+        Item[] expected = arr.clone();
+        Arrays.sort(expected, byKeyDescending);
+
+        PartialSort.partialSort(arr, 250, byKeyDescending);
+        assertArrayEquals(Arrays.copyOf(expected, 250), Arrays.copyOf(arr, 250));
+        for (int i = 251; i < arr.length; i++) {
+            assertTrue(arr[i - 1].order() < arr[i].order());
+        }
+        assertEquals(expected[4000].key(), PartialSort.select(arr, 4000, byKeyDescending).key());
+    }
+
+    @Test
+    void validatesArguments() {
+        assertThrows(IllegalArgumentException.class, () -> PartialSort.select(new int[3], 3));
+        assertThrows(IllegalArgumentException.class, () -> PartialSort.select(new long[0], 0));
+        assertThrows(IllegalArgumentException.class, () -> PartialSort.partialSort(new double[2], 3));
+        assertThrows(IllegalArgumentException.class, () -> PartialSort.partialSort(new Integer[2], 1, null));
+        assertArrayEquals(new int[]{3, 1}, PartialSort.partialSort(new int[]{3, 1}, 0));
+    }
+}
@@ -2,6 +2,10 @@ package sort;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class QuickSortTest {
@@ -15,4 +19,145 @@ class QuickSortTest {
         assertArrayEquals(expected, arr);
     }
 
-}
\ No newline at end of file
+    @Test
+    void sortsLargeSortedAndReversedArraysWithoutStackOverflow() {
+        int n = 1_000_000;
+        int[] sorted = new int[n];
+        int[] reversed = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reversed[i] = n - i;
+        }
+        int[] expected = reversed.clone();
+        Arrays.sort(expected);
+
+        QuickSort.sort(sorted);
+        QuickSort.sort(reversed);
+        assertTrue(isSorted(sorted));
+        assertArrayEquals(expected, reversed);
+    }
+
+    @Test
+    void sortsRandomAndDuplicateHeavyArrays() {
+        Random random = new Random(7);
+        for (int size : new int[]{0, 1, 2, 23, 24, 25, 129, 1000, 100_000}) {
+            int[] randomValues = random.ints(size).toArray();
+            int[] duplicates = random.ints(size, 0, 4).toArray();
+            int[] organPipe = new int[size];
+            for (int i = 0; i < size; i++) {
+                organPipe[i] = Math.min(i, size - i);
+            }
+            for (int[] arr : List.of(randomValues, duplicates, organPipe)) {
+                int[] expected = arr.clone();
+                Arrays.sort(expected);
+                QuickSort.sort(arr);
+                assertArrayEquals(expected, arr);
+            }
+        }
+    }
+
+    @Test
+    void heapsortFallbackSortsRange() {
+        Random random = new Random(11);
+        int[] arr = random.ints(5000, -100, 100).toArray();
+        int[] expected = arr.clone();
+        Arrays.sort(expected, 100, 4901);
+
+        QuickSort.introSort(arr, 100, 4900, 0);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    void sortsOnlyGivenRange() {
+        int[] arr = {9, 8, 7, 6, 5, 4, 3};
+        QuickSort.sort(arr, 2, 5);
+        assertArrayEquals(new int[]{9, 8, 4, 5, 6, 7, 3}, arr);
+
+        QuickSort.sort(arr, 3, 3);
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.sort(arr, 0, 7));
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.sort((int[]) null));
+    }
+
+    @Test
+    void parallelSortMatchesArraysSort() {
+        Random random = new Random(13);
+        for (int threshold : new int[]{1, 64, QuickSort.PARALLEL_THRESHOLD}) {
+            int[] ints = random.ints(200_000).toArray();
+            long[] longs = random.longs(200_000).toArray();
+            double[] doubles = random.doubles(200_000).toArray();
+            int[] expectedInts = ints.clone();
+            long[] expectedLongs = longs.clone();
+            double[] expectedDoubles = doubles.clone();
+            Arrays.sort(expectedInts);
+            Arrays.sort(expectedLongs);
+            Arrays.sort(expectedDoubles);
+
+            QuickSort.parallelSort(ints, 0, ints.length - 1, threshold);
+            QuickSort.parallelSort(longs, 0, longs.length - 1, threshold);
+            QuickSort.parallelSort(doubles, 0, doubles.length - 1, threshold);
+            assertArrayEquals(expectedInts, ints);
+            assertArrayEquals(expectedLongs, longs);
+            assertArrayEquals(expectedDoubles, doubles);
+        }
+    }
+
+    @Test
+    void parallelSortHandlesSortedAndDuplicateInput() {
+        long[] sorted = new long[500_000];
+        int[] duplicates = new Random(5).ints(500_000, 0, 3).toArray();
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = sorted.length - i;
+        }
+        int[] expected = duplicates.clone();
+        Arrays.sort(expected);
+
+        QuickSort.parallelSort(sorted);
+        QuickSort.parallelSort(duplicates);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i + 1, sorted[i]);
+        }
+        assertArrayEquals(expected, duplicates);
+    }
+
+    @Test
+    void doublesAreSortedWithNaNsLastAndNegativeZeroFirst() {
+        double[] arr = {3.5, Double.NaN, 0.0, -0.0, Double.NEGATIVE_INFINITY, -1, Double.NaN, 0.0, -0.0, 2};
+        double[] parallel = arr.clone();
+        double[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        QuickSort.sort(arr);
+        QuickSort.parallelSort(parallel, 0, parallel.length - 1, 1);
+        assertArrayEquals(expected, arr);
+        assertArrayEquals(expected, parallel);
+
+        Random random = new Random(17);
+        double[] large = new double[100_000];
+        for (int i = 0; i < large.length; i++) {
+            int kind = random.nextInt(10);
+            large[i] = kind == 0 ? Double.NaN : kind == 1 ? -0.0 : kind == 2 ? 0.0 : random.nextGaussian();
+        }
+        double[] expectedLarge = large.clone();
+        Arrays.sort(expectedLarge, 10, 90_000);
+        QuickSort.parallelSort(large, 10, 89_999, 100);
+        assertArrayEquals(expectedLarge, large);
+
+        double[] onlyNaN = {Double.NaN, Double.NaN};
+        QuickSort.sort(onlyNaN);
+        assertTrue(Double.isNaN(onlyNaN[0]) && Double.isNaN(onlyNaN[1]));
+    }
+
+    @Test
+    void parallelSortValidatesArguments() {
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.parallelSort((int[]) null));
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.parallelSort(new long[3], 0, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.parallelSort(new double[3], 0, 3));
+    }
+
+    private static boolean isSorted(int[] arr) {
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i - 1] > arr[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+package sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixSortTest {
+
+    private final Random random = new Random(21);
+
+    @Test
+    void sortsIntsAndLongsLikeArraysSort() {
+        for (int size : new int[]{0, 1, 63, 64, 1000, 100_000}) {
+            int[] ints = random.ints(size).toArray();
+            long[] longs = random.longs(size).toArray();
+            int[] expectedInts = ints.clone();
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedInts);
+            Arrays.sort(expectedLongs);
+
+            assertArrayEquals(expectedInts, RadixSort.sort(ints));
+            assertArrayEquals(expectedLongs, RadixSort.sort(longs));
+        }
+    }
+
+    @Test
+    void sortsValuesThatDifferOnlyInSomeDigits() {
+        int[] smallInts = random.ints(10_000, -50, 50).toArray();
+        long[] timestamps = random.longs(10_000, 1_700_000_000_000L, 1_700_000_100_000L).toArray();
+        int[] expectedInts = smallInts.clone();
+        long[] expectedLongs = timestamps.clone();
+        Arrays.sort(expectedInts);
+        Arrays.sort(expectedLongs);
+
+        assertArrayEquals(expectedInts, RadixSort.sort(smallInts));
+        assertArrayEquals(expectedLongs, RadixSort.sort(timestamps));
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE},
+                RadixSort.sort(new int[]{Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1}));
+    }
+
+    @Test
+    void sortsBytesAndShortsWithCountingSort() {
+        byte[] bytes = new byte[5000];
+        random.nextBytes(bytes);
+        short[] shorts = new short[5000];
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = (short) random.nextInt();
+        }
+        short[] smallShorts = {5, -3, Short.MIN_VALUE, Short.MAX_VALUE, 0};
+        byte[] expectedBytes = bytes.clone();
+        short[] expectedShorts = shorts.clone();
+        Arrays.sort(expectedBytes);
+        Arrays.sort(expectedShorts);
+
+        assertArrayEquals(expectedBytes, RadixSort.sort(bytes));
+        assertArrayEquals(expectedShorts, RadixSort.sort(shorts));
+        assertArrayEquals(new short[]{Short.MIN_VALUE, -3, 0, 5, Short.MAX_VALUE}, RadixSort.sort(smallShorts));
+    }
+
+    @Test
+    void floatingPointOrderMatchesCompare() {
+        double[] special = {Double.NaN, 1.5, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                -Double.MIN_VALUE, Double.MIN_VALUE, -2.5, Double.MAX_VALUE, -Double.MAX_VALUE};
+        double[] doubles = new double[2000];
+        float[] floats = new float[2000];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = i < special.length ? special[i] : random.nextGaussian() * 1e6;
+            floats[i] = (float) doubles[i];
+        }
+        double[] expectedDoubles = doubles.clone();
+        float[] expectedFloats = floats.clone();
+        Arrays.sort(expectedDoubles);
+        Arrays.sort(expectedFloats);
+
+        assertArrayEquals(expectedDoubles, RadixSort.sort(doubles));
+        assertArrayEquals(expectedFloats, RadixSort.sort(floats));
+        assertArrayEquals(new float[]{-0.0f, 0.0f, Float.NaN}, RadixSort.sort(new float[]{Float.NaN, 0.0f, -0.0f}));
+    }
+
+    @Test
+    void throwsExceptionOnNull() {
+        assertThrows(IllegalArgumentException.class, () -> RadixSort.sort((int[]) null));
+        assertThrows(IllegalArgumentException.class, () -> RadixSort.sort((double[]) null));
+    }
+}